@@ -0,0 +1,137 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
+import com.github.fabriciolfj.study.cache.serializer.CacheCodecs;
+import com.github.fabriciolfj.study.cache.serializer.CompactRedisSerializer;
+import com.github.fabriciolfj.study.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Página de batchSize usuários: N cache.get sequenciais vs um MGET (RedisBulkCache.getAll),
+ * e N cache.put vs SET EX em pipeline (putAll). Só Redis, sem near cache, para medir as idas
+ * à rede. hitPercent dos ids existem no cache.
+ *
+ * Precisa do Redis do compose.yaml (-Dredis.host, -Dredis.port, -Dredis.password).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BulkCacheBenchmark {
+
+    private static final String CACHE_NAME = "users";
+    private static final int DISTINCT_USERS = 100_000;
+
+    @Param({"10", "200"})
+    private int batchSize;
+
+    @Param({"90"})
+    private int hitPercent;
+
+    private LettuceConnectionFactory connectionFactory;
+    private Cache cache;
+    private RedisBulkCache<Long, User> bulkCache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var redisConfig = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        redisConfig.setPassword(System.getProperty("redis.password", "redis123"));
+        connectionFactory = new LettuceConnectionFactory(redisConfig);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        var ttl = Duration.ofMinutes(10);
+        var config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .prefixCacheNameWith("bench:")
+                .serializeKeysWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new CompactRedisSerializer<>(CacheCodecs.USER)))
+                .disableCachingNullValues();
+        var cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(config)
+                .build();
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache(CACHE_NAME);
+        bulkCache = new RedisBulkCache<>(CACHE_NAME, connectionFactory, config, ttl, cacheManager);
+
+        final int cached = DISTINCT_USERS * hitPercent / 100;
+        final Map<Long, User> users = new LinkedHashMap<>();
+        for (long id = 1; id <= cached; id++) {
+            users.put(id, new User(id, "user-" + id));
+            if (users.size() == 1000) {
+                bulkCache.putAll(users);
+                users.clear();
+            }
+        }
+        bulkCache.putAll(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.clear();
+        connectionFactory.destroy();
+    }
+
+    @State(Scope.Thread)
+    public static class Page {
+        private final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+        private List<Long> ids;
+        private Map<Long, User> users;
+
+        @Setup(Level.Invocation)
+        public void next(final BulkCacheBenchmark benchmark) {
+            ids = new ArrayList<>(benchmark.batchSize);
+            users = new LinkedHashMap<>();
+            for (int i = 0; i < benchmark.batchSize; i++) {
+                final long id = 1 + random.nextInt(DISTINCT_USERS);
+                ids.add(id);
+                users.put(id, new User(id, "user-" + id));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object sequentialGet(final Page page) {
+        final List<Object> found = new ArrayList<>(page.ids.size());
+        for (var id : page.ids) {
+            var wrapper = cache.get(id);
+            if (wrapper != null) {
+                found.add(wrapper.get());
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Object multiGet(final Page page) {
+        return bulkCache.getAll(page.ids);
+    }
+
+    @Benchmark
+    public void sequentialPut(final Page page) {
+        page.users.forEach(cache::put);
+    }
+
+    @Benchmark
+    public void pipelinedPut(final Page page) {
+        bulkCache.putAll(page.users);
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.cache.CacheInstrumentation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do InstrumentedCache no get: o mesmo ConcurrentMapCache com e sem o decorator,
+ * para isolar contadores, timers e a amostragem de hot keys do custo do Redis.
+ * A diferença entre PLAIN e INSTRUMENTED é o overhead por get; o alvo é < 1µs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class CacheInstrumentationBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    @Param({"PLAIN", "INSTRUMENTED"})
+    private String mode;
+
+    @Param({"64"})
+    private int sampleRate;
+
+    private Cache cache;
+    private Long[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Cache plain = new ConcurrentMapCache("bench");
+        keys = new Long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = (long) i;
+            // metade das chaves presentes, para exercitar hit e miss
+            if (i % 2 == 0) {
+                plain.put(keys[i], "value-" + i);
+            }
+        }
+        cache = "PLAIN".equals(mode)
+                ? plain
+                : new CacheInstrumentation(new SimpleMeterRegistry(), sampleRate, 128, Duration.ofMinutes(1))
+                .instrument(plain);
+    }
+
+    @Benchmark
+    public Object get() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
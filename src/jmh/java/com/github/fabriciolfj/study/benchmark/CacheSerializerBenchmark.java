@@ -0,0 +1,95 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.cache.serializer.CacheCodecs;
+import com.github.fabriciolfj.study.cache.serializer.CompactRedisSerializer;
+import com.github.fabriciolfj.study.dto.CarDTO;
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import com.github.fabriciolfj.study.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializers dos valores de cache: JacksonJsonRedisSerializer (atual) vs CompactRedisSerializer,
+ * com e sem LZ4.
+ *
+ * ns/op de serialize e deserialize; os bytes por entrada de cada combinação saem no setup.
+ * descriptionLength só afeta PRODUCT e controla quando o LZ4 passa a valer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheSerializerBenchmark {
+
+    @Param({"USER", "CAR", "PRODUCT"})
+    private String type;
+
+    @Param({"JSON", "BINARY", "BINARY_LZ4"})
+    private String serializer;
+
+    @Param({"40", "2000"})
+    private int descriptionLength;
+
+    private RedisSerializer<Object> redisSerializer;
+    private Object value;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        var mapper = new ObjectMapper();
+        // BINARY sem compressão; BINARY_LZ4 comprime a partir de 256 bytes
+        final int threshold = "BINARY_LZ4".equals(serializer) ? 256 : 0;
+
+        redisSerializer = (RedisSerializer<Object>) switch (type) {
+            case "USER" -> {
+                value = new User(123456789L, "Maria Aparecida da Silva");
+                yield "JSON".equals(serializer)
+                        ? new JacksonJsonRedisSerializer<>(mapper, User.class)
+                        : new CompactRedisSerializer<>(CacheCodecs.USER, threshold, null);
+            }
+            case "CAR" -> {
+                value = new CarDTO("SUV", "Parking lot 7 - level 2");
+                yield "JSON".equals(serializer)
+                        ? new JacksonJsonRedisSerializer<>(mapper, CarDTO.class)
+                        : new CompactRedisSerializer<>(CacheCodecs.CAR, threshold, null);
+            }
+            case "PRODUCT" -> {
+                value = new ProductDTO(987654L, "Notebook Pro 14", description(descriptionLength),
+                        new BigDecimal("12999.90"));
+                yield "JSON".equals(serializer)
+                        ? new JacksonJsonRedisSerializer<>(mapper, ProductDTO.class)
+                        : new CompactRedisSerializer<>(CacheCodecs.PRODUCT, threshold, null);
+            }
+            default -> throw new IllegalArgumentException("Unknown type " + type);
+        };
+
+        bytes = redisSerializer.serialize(value);
+        System.out.printf("%n[cache-serializer] type=%s serializer=%s descriptionLength=%d bytes=%d%n",
+                type, serializer, descriptionLength, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return redisSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return redisSerializer.deserialize(bytes);
+    }
+
+    // texto repetitivo como descrições reais de catálogo, que é onde o LZ4 ganha
+    private static String description(final int length) {
+        final String sentence = "Tela de 14 polegadas, 16GB de memória, SSD de 512GB e bateria de longa duração. ";
+        final var description = new StringBuilder(length);
+        while (description.length() < length) {
+            description.append(sentence);
+        }
+        return description.substring(0, length);
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.cache.CacheAsideSettings;
+import com.github.fabriciolfj.study.cache.RedisCacheAside;
+import com.github.fabriciolfj.study.cache.serializer.CacheCodecs;
+import com.github.fabriciolfj.study.cache.serializer.CompactRedisSerializer;
+import com.github.fabriciolfj.study.clients.CarClient;
+import com.github.fabriciolfj.study.dto.CarDTO;
+import com.github.fabriciolfj.study.exceptions.CarNotFoundException;
+import com.github.fabriciolfj.study.service.CarService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga do cars-by-place com um CarClient local (upstreamLatencyMs por chamada,
+ * metade das respostas "não encontrado", como o CarService).
+ *
+ * pods instâncias independentes compartilham o mesmo Redis, cada thread do JMH é atendida
+ * por um pod:
+ * - SYNC: RedisCache.get(key, loader), o equivalente ao @Cacheable(sync = true) anterior,
+ *   que só trava dentro do pod e não cacheia o CarNotFoundException
+ * - CACHE_ASIDE: CarService com RedisCacheAside (lock distribuído, refresh antecipado,
+ *   stale-while-revalidate e cache negativo)
+ *
+ * O número que interessa é o de cargas (chamadas ao upstream, inclusive as "não encontrado")
+ * por segundo, impresso no teardown.
+ * Precisa do Redis do compose.yaml (-Dredis.host, -Dredis.port, -Dredis.password).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class CarCacheAsideBenchmark {
+
+    private static final Duration TTL = Duration.ofSeconds(1);
+
+    @Param({"SYNC", "CACHE_ASIDE"})
+    private String mode;
+
+    @Param({"4"})
+    private int pods;
+
+    @Param({"50"})
+    private int upstreamLatencyMs;
+
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final AtomicInteger threads = new AtomicInteger();
+    private LettuceConnectionFactory connectionFactory;
+    private CarClient carClient;
+    private Cache[] syncCaches;
+    private RedisCacheAside<CarDTO>[] cacheAsides;
+    private CarService[] carServices;
+    private long startNanos;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        var redisConfig = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        redisConfig.setPassword(System.getProperty("redis.password", "redis123"));
+        connectionFactory = new LettuceConnectionFactory(redisConfig);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        carClient = () -> {
+            try {
+                Thread.sleep(upstreamLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new CarDTO("SUV", "Parking lot 7");
+        };
+
+        syncCaches = new Cache[pods];
+        cacheAsides = new RedisCacheAside[pods];
+        carServices = new CarService[pods];
+        for (int pod = 0; pod < pods; pod++) {
+            if ("SYNC".equals(mode)) {
+                var config = RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(TTL)
+                        .prefixCacheNameWith("bench:sync:")
+                        .serializeKeysWith(RedisSerializationContext.SerializationPair
+                                .fromSerializer(new StringRedisSerializer()))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                .fromSerializer(new CompactRedisSerializer<>(CacheCodecs.CAR)))
+                        .disableCachingNullValues();
+                var cacheManager = RedisCacheManager.builder(connectionFactory).cacheDefaults(config).build();
+                cacheManager.afterPropertiesSet();
+                syncCaches[pod] = cacheManager.getCache("cars-by-place");
+            } else {
+                var settings = new CacheAsideSettings(TTL, Duration.ofSeconds(30), Duration.ofSeconds(1), 1.0,
+                        Duration.ofSeconds(5), Duration.ofSeconds(2));
+                var cacheAside = new RedisCacheAside<CarDTO>("cars-by-place", "bench:aside:cars-by-place::",
+                        connectionFactory, new CompactRedisSerializer<>(CacheCodecs.CAR), settings,
+                        CarNotFoundException.class::isInstance, CarNotFoundException::new, null);
+                cacheAsides[pod] = cacheAside;
+                carServices[pod] = new CarService(carClient, cacheAside);
+            }
+        }
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        final double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long calls = upstreamCalls.sum();
+        for (var cacheAside : cacheAsides) {
+            calls += cacheAside != null ? cacheAside.loads() : 0;
+        }
+        System.out.printf("%n[car-cache] mode=%s pods=%d upstream calls=%d (%.1f/s)%n",
+                mode, pods, calls, calls / seconds);
+        try (var connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(
+                    "bench:sync:cars-by-place::first".getBytes(),
+                    "bench:aside:cars-by-place::first".getBytes());
+        }
+        connectionFactory.destroy();
+    }
+
+    @State(Scope.Thread)
+    public static class Pod {
+        private int index;
+
+        @Setup(Level.Trial)
+        public void assign(final CarCacheAsideBenchmark benchmark) {
+            index = benchmark.threads.getAndIncrement() % benchmark.pods;
+        }
+    }
+
+    @Benchmark
+    public Object getCar(final Pod pod) {
+        try {
+            if ("SYNC".equals(mode)) {
+                return syncCaches[pod.index].get("first", this::loadCar);
+            }
+            return carServices[pod.index].getCar();
+        } catch (CarNotFoundException | Cache.ValueRetrievalException e) {
+            return e;
+        }
+    }
+
+    // mesma regra do CarService.loadCar; no CACHE_ASIDE as cargas vêm de RedisCacheAside.loads()
+    private CarDTO loadCar() {
+        upstreamCalls.increment();
+        if (ThreadLocalRandom.current().nextInt(0, 1000) % 2 == 0) {
+            throw new CarNotFoundException("card not found");
+        }
+        return carClient.firstCar();
+    }
+}
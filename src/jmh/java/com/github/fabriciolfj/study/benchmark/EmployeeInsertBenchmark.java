@@ -0,0 +1,139 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.GenerationIdConfig;
+import com.github.fabriciolfj.study.entity.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jdbc.core.JdbcAggregateTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert por linha (uma transação por employee, como o POST /api/v1/employees) contra o
+ * insertAll em lotes do POST /api/v1/employees/batch, pelo mesmo JdbcAggregateTemplate e
+ * callback de id do GenerationIdConfig.
+ *
+ * Throughput = linhas/s. Por padrão em H2 na memória, sem rede: o ganho medido é só o de
+ * statement e commit. Para medir no Postgres do compose.yaml:
+ * -p jdbcUrl=jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(EmployeeInsertBenchmark.ROWS)
+public class EmployeeInsertBenchmark {
+
+    static final int ROWS = 5_000;
+
+    public enum InsertMode { PER_ROW, INSERT_ALL }
+
+    @Param({"PER_ROW", "INSERT_ALL"})
+    private InsertMode mode;
+
+    @Param({"100", "500", "2000"})
+    private int batchSize;
+
+    @Param({"jdbc:h2:mem:employee-bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Param({"root"})
+    private String username;
+
+    @Param({"root"})
+    private String password;
+
+    private AnnotationConfigApplicationContext context;
+    private JdbcAggregateTemplate template;
+    private TransactionTemplate transactions;
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchConfig.url = jdbcUrl;
+        BenchConfig.username = username;
+        BenchConfig.password = password;
+        context = new AnnotationConfigApplicationContext(BenchConfig.class);
+        template = context.getBean(JdbcAggregateTemplate.class);
+        transactions = context.getBean(TransactionTemplate.class);
+        jdbc = context.getBean(NamedParameterJdbcTemplate.class);
+
+        jdbc.getJdbcTemplate().execute("create table if not exists employee ("
+                + "organization varchar(20), employee_number varchar(100), name varchar(100))");
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbc.getJdbcTemplate().execute("delete from employee");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        if (mode == InsertMode.PER_ROW) {
+            for (int i = 0; i < ROWS; i++) {
+                var employee = employee(i);
+                transactions.executeWithoutResult(status -> template.insert(employee));
+            }
+            return ROWS;
+        }
+
+        int inserted = 0;
+        for (int start = 0; start < ROWS; start += batchSize) {
+            List<Employee> batch = new ArrayList<>(batchSize);
+            for (int i = start; i < Math.min(ROWS, start + batchSize); i++) {
+                batch.add(employee(i));
+            }
+            inserted += transactions.execute(status -> template.insertAll(batch).size());
+        }
+        return inserted;
+    }
+
+    private static Employee employee(final int i) {
+        return new Employee(null, "employee-" + i);
+    }
+
+    @Configuration
+    @Import(GenerationIdConfig.class)
+    static class BenchConfig {
+
+        static String url;
+        static String username;
+        static String password;
+
+        @Bean
+        DataSource dataSource() {
+            var dataSource = new SingleConnectionDataSource(url, username, password, true);
+            dataSource.setAutoCommit(true);
+            return dataSource;
+        }
+
+        @Bean
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate(DataSource dataSource) {
+            return new NamedParameterJdbcTemplate(dataSource);
+        }
+
+        @Bean
+        DataSourceTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(DataSourceTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.GenerationIdConfig;
+import com.github.fabriciolfj.study.entity.Employee;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitBatcher;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitSettings;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jdbc.core.JdbcAggregateTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga concorrente de inserts unitários, como o POST /api/v1/employees sob muitas
+ * requisições: DIRECT abre uma transação por insert; GROUP_COMMIT passa pelo
+ * GroupCommitBatcher (mesmo caminho do GroupCommitConfig).
+ *
+ * Throughput = inserts/s com 64 chamadores; SampleTime dá o p99 visto por cada chamador,
+ * já incluindo o maxWait do lote. Em H2 na memória o commit é quase de graça, então a
+ * diferença só aparece de verdade no Postgres:
+ * -p jdbcUrl=jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+public class GroupCommitBenchmark {
+
+    public enum WriteMode { DIRECT, GROUP_COMMIT }
+
+    @Param({"DIRECT", "GROUP_COMMIT"})
+    private WriteMode mode;
+
+    @Param({"200"})
+    private int maxBatchSize;
+
+    @Param({"2"})
+    private int maxWaitMillis;
+
+    @Param({"2"})
+    private int flushers;
+
+    @Param({"jdbc:h2:mem:group-commit-bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Param({"root"})
+    private String username;
+
+    @Param({"root"})
+    private String password;
+
+    private AnnotationConfigApplicationContext context;
+    private JdbcAggregateTemplate template;
+    private TransactionTemplate transactions;
+    private NamedParameterJdbcTemplate jdbc;
+    private GroupCommitBatcher<Employee> batcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchConfig.url = jdbcUrl;
+        BenchConfig.username = username;
+        BenchConfig.password = password;
+        context = new AnnotationConfigApplicationContext(BenchConfig.class);
+        template = context.getBean(JdbcAggregateTemplate.class);
+        transactions = context.getBean(TransactionTemplate.class);
+        jdbc = context.getBean(NamedParameterJdbcTemplate.class);
+
+        jdbc.getJdbcTemplate().execute("create table if not exists employee ("
+                + "organization varchar(20), employee_number varchar(100), name varchar(100))");
+
+        var settings = new GroupCommitSettings(true, maxBatchSize, Duration.ofMillis(maxWaitMillis), 100_000, flushers);
+        batcher = new GroupCommitBatcher<>("bench", employees -> transactions.execute(
+                status -> template.insertAll(employees)), settings, null);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbc.getJdbcTemplate().execute("delete from employee");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        batcher.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Employee insert() {
+        var employee = new Employee(null, "employee");
+        if (mode == WriteMode.DIRECT) {
+            return transactions.execute(status -> template.insert(employee));
+        }
+        return batcher.write(employee);
+    }
+
+    @Configuration
+    @Import(GenerationIdConfig.class)
+    static class BenchConfig {
+
+        static String url;
+        static String username;
+        static String password;
+
+        @Bean(destroyMethod = "close")
+        HikariDataSource dataSource() {
+            var dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(16);
+            return dataSource;
+        }
+
+        @Bean
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate(DataSource dataSource) {
+            return new NamedParameterJdbcTemplate(dataSource);
+        }
+
+        @Bean
+        DataSourceTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(DataSourceTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
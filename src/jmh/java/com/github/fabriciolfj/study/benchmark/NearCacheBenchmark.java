@@ -0,0 +1,135 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.cache.CacheInvalidationBus;
+import com.github.fabriciolfj.study.cache.TwoLevelCache;
+import com.github.fabriciolfj.study.cache.TwoLevelCacheManager;
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import com.github.fabriciolfj.study.loadgen.ZipfSampler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de leitura do cache "product": só Redis vs L1 Caffeine + Redis (TwoLevelCacheManager).
+ *
+ * Precisa do Redis do compose.yaml (-Dredis.host, -Dredis.port, -Dredis.password).
+ * Chaves com skew Zipf; SampleTime fornece o p99. writePercent das operações são puts,
+ * que no modo NEAR também publicam a invalidação.
+ *
+ * ./gradlew jmh -Pjmh.includes=NearCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NearCacheBenchmark {
+
+    private static final String CACHE_NAME = "product";
+
+    @Param({"REDIS", "NEAR"})
+    private String mode;
+
+    @Param({"100000"})
+    private int distinctKeys;
+
+    @Param({"1.1"})
+    private double keySkew;
+
+    @Param({"10000"})
+    private long nearCacheMaximumSize;
+
+    @Param({"0", "1"})
+    private int writePercent;
+
+    private LettuceConnectionFactory connectionFactory;
+    private Cache cache;
+    private long[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var redisConfig = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        redisConfig.setPassword(System.getProperty("redis.password", "redis123"));
+        connectionFactory = new LettuceConnectionFactory(redisConfig);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        var config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(10))
+                .prefixCacheNameWith("bench:")
+                .serializeKeysWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new JacksonJsonRedisSerializer<>(new ObjectMapper(), ProductDTO.class)))
+                .disableCachingNullValues();
+        var redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(config)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        CacheManager cacheManager = redisCacheManager;
+        if ("NEAR".equals(mode)) {
+            var bus = new CacheInvalidationBus(new StringRedisTemplate(connectionFactory), "bench:cache:invalidation");
+            var nearCacheManager = new TwoLevelCacheManager(redisCacheManager, nearCacheMaximumSize,
+                    Duration.ofSeconds(30), bus, null);
+            nearCacheManager.afterPropertiesSet();
+            cacheManager = nearCacheManager;
+        }
+        cache = cacheManager.getCache(CACHE_NAME);
+
+        for (long id = 1; id <= distinctKeys; id++) {
+            redisCacheManager.getCache(CACHE_NAME).put(id, product(id));
+        }
+
+        var random = new SplittableRandom(42);
+        var sampler = new ZipfSampler(distinctKeys, keySkew);
+        keys = new long[1 << 16];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sampler.sample(random);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (cache instanceof TwoLevelCache near) {
+            System.out.printf("%n[near-cache] l1 hit ratio=%.3f l2 hit ratio=%.3f l1 size=%d%n",
+                    near.l1HitRatio(), near.l2HitRatio(), near.localSize());
+        }
+        cache.clear();
+        connectionFactory.destroy();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+        private int index;
+    }
+
+    @Benchmark
+    public Object read(final Cursor cursor) {
+        final long id = keys[cursor.index++ & (keys.length - 1)];
+        if (writePercent > 0 && cursor.random.nextInt(100) < writePercent) {
+            cache.put(id, product(id));
+            return null;
+        }
+        return cache.get(id);
+    }
+
+    private static ProductDTO product(final long id) {
+        return new ProductDTO(id, "product-" + id, "description of product " + id, BigDecimal.valueOf(id, 2));
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.TopologyProductTableConfiguration;
+import com.github.fabriciolfj.study.join.ProductDetailsJoinMode;
+import com.study.details.Detalhes;
+import com.study.produto.Produto;
+import com.study.produtodetalhes.ProdutoDetalhes;
+import io.confluent.kafka.streams.serdes.avro.SpecificAvroSerde;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.*;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Produced;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara os modos de join produto/detalhes com TopologyTestDriver.
+ *
+ * Cada operação publica um produto e os detalhes do mesmo id (uma fração chega
+ * atrasada, com timestamp 3s depois do produto). No fim do trial o tamanho do state dir
+ * é impresso como medida de estado retido por modo, junto com os detalhes que nunca
+ * saíram em um join (missed; missedLate só os atrasados).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductDetailsJoinBenchmark {
+
+    private static final String SCHEMA_REGISTRY = "mock://join-bench";
+
+    @Param({"WINDOWED", "STREAM_TABLE", "TABLE_TABLE"})
+    private ProductDetailsJoinMode mode;
+
+    @Param({"10000"})
+    private int products;
+
+    // percentual de detalhes que chegam alguns segundos depois do produto
+    @Param({"10"})
+    private int latePercent;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Produto> productTopic;
+    private TestInputTopic<String, Detalhes> detailsTopic;
+    private TestOutputTopic<String, ProdutoDetalhes> outputTopic;
+    private Path stateDir;
+    private SplittableRandom random;
+    private Instant now;
+    private long joined;
+    // sequência de cada par enviado; o join marca a do detalhe que entrou na saída
+    private int sent;
+    private final BitSet late = new BitSet();
+    private final BitSet delivered = new BitSet();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        stateDir = Files.createTempDirectory("join-bench");
+
+        var productSerde = serde(Produto.class);
+        var detalhesSerde = serde(Detalhes.class);
+        var produtoDetalhesSerde = serde(ProdutoDetalhes.class);
+
+        var builder = new StreamsBuilder();
+        var productStream = builder.stream("product-topic", Consumed.with(Serdes.String(), productSerde));
+        var detalhesStream = builder.stream("details", Consumed.with(Serdes.String(), detalhesSerde));
+        TopologyProductTableConfiguration.joinDetails(productStream, detalhesStream, mode,
+                        Duration.ofMinutes(30), Duration.ofSeconds(6), productSerde, detalhesSerde)
+                .to("product-details", Produced.with(Serdes.String(), produtoDetalhesSerde));
+
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "join-bench");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+
+        now = Instant.now();
+        driver = new TopologyTestDriver(builder.build(), props, now);
+        productTopic = driver.createInputTopic("product-topic", Serdes.String().serializer(), productSerde.serializer());
+        detailsTopic = driver.createInputTopic("details", Serdes.String().serializer(), detalhesSerde.serializer());
+        outputTopic = driver.createOutputTopic("product-details", Serdes.String().deserializer(), produtoDetalhesSerde.deserializer());
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        // avança o stream time além do grace/janela para esvaziar buffers, então conta o que não saiu
+        var end = now.plus(Duration.ofHours(1));
+        productTopic.pipeInput("flush", Produto.newBuilder().setId(-1L).setNome("flush")
+                .setCusto(BigDecimal.ZERO.setScale(6)).build(), end);
+        detailsTopic.pipeInput("flush", Detalhes.newBuilder().setId(-1L).setDescricao("flush").build(), end);
+        drainOutput();
+
+        var missed = new BitSet();
+        missed.set(0, sent);
+        missed.andNot(delivered);
+        var missedLate = (BitSet) missed.clone();
+        missedLate.and(late);
+
+        driver.close();
+        long bytes;
+        try (var paths = Files.walk(stateDir)) {
+            bytes = paths.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+        System.out.printf("%n[%s] joined=%d sent=%d missed=%d missedLate=%d/%d stateDirBytes=%d%n",
+                mode, joined, sent, missed.cardinality(), missedLate.cardinality(), late.cardinality(), bytes);
+
+        try (var paths = Files.walk(stateDir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void productAndDetails() {
+        long id = random.nextInt(products);
+        var key = Long.toString(id);
+        now = now.plusMillis(10);
+
+        var produto = Produto.newBuilder()
+                .setId(id)
+                .setNome("produto-" + id)
+                .setCusto(BigDecimal.valueOf(random.nextInt(100_000), 2).setScale(6, RoundingMode.UNNECESSARY))
+                .build();
+        final int seq = sent++;
+        var detalhes = Detalhes.newBuilder().setId(id).setDescricao("descricao-" + id + "#" + seq).build();
+
+        if (random.nextInt(100) < latePercent) {
+            late.set(seq);
+            productTopic.pipeInput(key, produto, now);
+            detailsTopic.pipeInput(key, detalhes, now.plusSeconds(3));
+        } else {
+            detailsTopic.pipeInput(key, detalhes, now);
+            productTopic.pipeInput(key, produto, now);
+        }
+
+        drainOutput();
+    }
+
+    private void drainOutput() {
+        for (var value : outputTopic.readValuesToList()) {
+            joined++;
+            var descricao = value.getDescricao().toString();
+            var hash = descricao.lastIndexOf('#');
+            if (hash > 0) {
+                delivered.set(Integer.parseInt(descricao.substring(hash + 1)));
+            }
+        }
+    }
+
+    private static <T extends SpecificRecord> SpecificAvroSerde<T> serde(Class<T> type) {
+        var serde = new SpecificAvroSerde<T>();
+        serde.configure(Map.of("schema.registry.url", SCHEMA_REGISTRY, "specific.avro.reader", "true"), false);
+        return serde;
+    }
+}
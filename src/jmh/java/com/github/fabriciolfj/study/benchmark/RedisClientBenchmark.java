@@ -0,0 +1,138 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.LettuceClientTuning;
+import com.github.fabriciolfj.study.configuration.LettuceClientTuning.RedisClientOptions;
+import io.lettuce.core.resource.ClientResources;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ops/s do cliente Lettuce com 500 virtual threads concorrentes.
+ *
+ * - SHARED: uma conexão multiplexada (shareNativeConnection) + pool para os pipelines
+ * - POOLED: sem conexão compartilhada, toda operação pega uma conexão do pool
+ * - get: GETs simples; pipelinedSet: lotes de 50 SETs por pipeline, com o flush policy do param
+ *
+ * transport só muda em um fork novo (o JMH faz um por combinação de params).
+ * Precisa do Redis do compose.yaml (-Dredis.host, -Dredis.port, -Dredis.password).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RedisClientBenchmark {
+
+    private static final int VIRTUAL_THREADS = 500;
+    private static final int OPS_PER_THREAD = 20;
+    private static final int PIPELINE_SIZE = 50;
+    private static final int KEYS = 10_000;
+
+    @Param({"SHARED", "POOLED"})
+    private String connectionMode;
+
+    @Param({"nio", "epoll"})
+    private String transport;
+
+    @Param({"flush-each-command", "flush-on-close"})
+    private String pipelineFlush;
+
+    @Param({"64"})
+    private int poolMaxActive;
+
+    private ClientResources clientResources;
+    private LettuceConnectionFactory connectionFactory;
+    private byte[][] keys;
+    private byte[] value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var redisConfig = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        redisConfig.setPassword(System.getProperty("redis.password", "redis123"));
+
+        var options = new RedisClientOptions("SHARED".equals(connectionMode), true, poolMaxActive, poolMaxActive,
+                0, Duration.ofSeconds(10), pipelineFlush, transport, 0, Duration.ofSeconds(5));
+        clientResources = LettuceClientTuning.clientResources(options);
+        connectionFactory = LettuceClientTuning.connectionFactory(redisConfig, clientResources, options);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        keys = new byte[KEYS][];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = ("bench:client:" + i).getBytes(StandardCharsets.UTF_8);
+        }
+        value = "x".repeat(128).getBytes(StandardCharsets.UTF_8);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            for (byte[] key : keys) {
+                connection.stringCommands().set(key, value);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(keys);
+        }
+        connectionFactory.destroy();
+        clientResources.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VIRTUAL_THREADS * OPS_PER_THREAD)
+    public void get() throws Exception {
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                try (RedisConnection connection = connectionFactory.getConnection()) {
+                    connection.stringCommands().get(keys[(thread * OPS_PER_THREAD + i) % KEYS]);
+                }
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VIRTUAL_THREADS * PIPELINE_SIZE)
+    public void pipelinedSet() throws Exception {
+        runConcurrently(thread -> {
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                connection.openPipeline();
+                for (int i = 0; i < PIPELINE_SIZE; i++) {
+                    connection.stringCommands().set(keys[(thread * PIPELINE_SIZE + i) % KEYS], value);
+                }
+                connection.closePipeline();
+            }
+        });
+    }
+
+    private void runConcurrently(final ThreadTask task) throws InterruptedException, ExecutionException {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Callable<Void>> tasks = new ArrayList<>(VIRTUAL_THREADS);
+            for (int thread = 0; thread < VIRTUAL_THREADS; thread++) {
+                final int index = thread;
+                tasks.add(() -> {
+                    task.run(index);
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
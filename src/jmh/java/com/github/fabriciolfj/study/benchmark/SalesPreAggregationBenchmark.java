@@ -0,0 +1,127 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.SalesSerdes;
+import com.github.fabriciolfj.study.configuration.SalesWindowingOptions;
+import com.github.fabriciolfj.study.configuration.StreamsTopologyWindowing;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import com.github.fabriciolfj.study.loadgen.SalesLoadGenerator;
+import com.github.fabriciolfj.study.loadgen.SalesLoadProfile;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes e registros no tópico de repartição das sessões por usuário, com e sem o
+ * combine por usuário (SalesPreAggregationProcessor), e throughput da topologia inteira.
+ *
+ * Eventos do SalesLoadGenerator a 100 eventos/s de event time, com o wall clock do driver
+ * acompanhando; um flush de 1s junta ~100 eventos. Skew alto (poucos usuários quentes) é
+ * o caso em que o combine mais ajuda.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SalesPreAggregationBenchmark {
+
+    private static final String APPLICATION_ID = "pre-aggregation-bench";
+
+    // PT0S = sem pré-agregação
+    @Param({"PT0S", "PT1S"})
+    private String preAggregationInterval;
+
+    @Param({"100", "10000"})
+    private int distinctUsers;
+
+    @Param({"0.0", "1.1"})
+    private double userSkew;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, SalesEvent> input;
+    private TestOutputTopic<byte[], byte[]> repartition;
+    private List<TestOutputTopic<byte[], byte[]>> outputs;
+    private Path stateDir;
+    private SalesLoadGenerator generator;
+    private long wallClock;
+    private long events;
+    private long repartitionRecords;
+    private long repartitionBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        stateDir = Files.createTempDirectory("pre-aggregation-bench");
+
+        var options = SalesWindowingOptions.defaults().withPreAggregation(Duration.parse(preAggregationInterval));
+        var topology = new StreamsTopologyWindowing(options).buildTopology();
+
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, APPLICATION_ID);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+
+        driver = new TopologyTestDriver(topology, props);
+        input = driver.createInputTopic("sales-events", Serdes.String().serializer(), SalesSerdes.salesEvent().serializer());
+        // o driver também captura o que é escrito nos tópicos internos
+        repartition = output(APPLICATION_ID + "-sales-by-user-repartition");
+        outputs = List.of(output("sales-aggregated"), output("user-sessions"), output("sales-moving-average"),
+                output(StreamsTopologyWindowing.SALES_TOP_PRODUCTS), output(StreamsTopologyWindowing.SALES_EVENTS_DLQ));
+
+        var profile = SalesLoadProfile.defaults()
+                .withUsers(distinctUsers, userSkew)
+                .withRate(100)
+                .withLateness(0, Duration.ZERO);
+        generator = new SalesLoadGenerator(profile);
+        wallClock = profile.startEpochMillis();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        drain();
+        System.out.printf("%n[preAggregation=%s users=%d skew=%.1f] events=%d repartition records=%d bytes=%d (%.1f bytes/event)%n",
+                preAggregationInterval, distinctUsers, userSkew, events, repartitionRecords, repartitionBytes,
+                (double) repartitionBytes / Math.max(1, events));
+
+        driver.close();
+        try (var paths = Files.walk(stateDir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void pipeEvent() {
+        SalesEvent event = generator.next();
+        input.pipeInput(event.getStoreId(), event, event.getEventTime());
+
+        final long now = generator.currentTimeMillis();
+        if (now > wallClock) {
+            driver.advanceWallClockTime(Duration.ofMillis(now - wallClock));
+            wallClock = now;
+        }
+
+        if (++events % 10_000 == 0) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        for (var record : repartition.readRecordsToList()) {
+            repartitionRecords++;
+            repartitionBytes += record.key().length + (record.value() != null ? record.value().length : 0);
+        }
+        outputs.forEach(TestOutputTopic::readRecordsToList);
+    }
+
+    private TestOutputTopic<byte[], byte[]> output(String topic) {
+        return driver.createOutputTopic(topic, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+}
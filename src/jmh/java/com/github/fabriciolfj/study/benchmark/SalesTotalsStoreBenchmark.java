@@ -0,0 +1,120 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.SalesProcessor;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import com.github.fabriciolfj.study.store.SalesTotalsStoreType;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.LogContext;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.processor.api.MockProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.internals.ProcessorRecordContext;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.internals.ThreadCache;
+import org.apache.kafka.test.InternalMockProcessorContext;
+import org.apache.kafka.test.MockRecordCollector;
+import org.apache.kafka.test.MockStreamsMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o SalesProcessor com os três tipos de store do "sales-totals".
+ *
+ * Throughput = eventos/s; SampleTime fornece p99 do process().
+ * O commit é simulado com flush() a cada commitEvery eventos, como o
+ * Kafka Streams faria no commit.interval.ms.
+ *
+ * O store é inicializado com um InternalMockProcessorContext (com ThreadCache de
+ * cacheMaxBytes), porque o CachingKeyValueStore do CACHED exige um contexto interno; o
+ * MockProcessorContext continua servindo o SalesProcessor. Não dá para usar o
+ * TopologyTestDriver aqui: ele faz commit a cada registro e esvaziaria o cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SalesTotalsStoreBenchmark {
+
+    @Param({"ROCKSDB", "CACHED", "LRU_FRONTED"})
+    private SalesTotalsStoreType storeType;
+
+    @Param({"10000", "1000000"})
+    private int distinctUsers;
+
+    @Param({"1000"})
+    private int commitEvery;
+
+    // statestore.cache.max.bytes padrão do Kafka Streams
+    @Param({"10485760"})
+    private long cacheMaxBytes;
+
+    private MockProcessorContext<String, Double> context;
+    private InternalMockProcessorContext<String, Double> storeContext;
+    private KeyValueStore<String, Double> store;
+    private SalesProcessor processor;
+    private Record<String, SalesEvent>[] records;
+    private int index;
+    private Path stateDir;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        stateDir = Files.createTempDirectory("sales-totals-bench");
+
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "sales-totals-bench");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.DoubleSerde.class);
+        context = new MockProcessorContext<>(props);
+
+        store = SalesProcessor.salesTotalsStoreBuilder(storeType, SalesProcessor.DEFAULT_LRU_MAX_BYTES)
+                .withLoggingDisabled()
+                .build();
+        var cache = new ThreadCache(new LogContext("sales-totals-bench "), cacheMaxBytes,
+                new MockStreamsMetrics(new Metrics()));
+        storeContext = new InternalMockProcessorContext<>(stateDir.toFile(), Serdes.String(), Serdes.Double(),
+                new MockRecordCollector(), cache);
+        storeContext.setRecordContext(new ProcessorRecordContext(0, 0, 0, "sales-events", new RecordHeaders()));
+        store.init(storeContext, store);
+        context.addStateStore(store);
+
+        processor = new SalesProcessor();
+        processor.init(context);
+
+        var random = new SplittableRandom(42);
+        var now = LocalDateTime.now();
+        records = new Record[1 << 16];
+        for (int i = 0; i < records.length; i++) {
+            var event = new SalesEvent("user-" + random.nextInt(distinctUsers), "product-" + random.nextInt(1000),
+                    random.nextDouble(1, 500), now);
+            records[i] = new Record<>(event.getUserId(), event, i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.close();
+        try (var paths = Files.walk(stateDir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void process() {
+        processor.process(records[index & (records.length - 1)]);
+
+        if (++index % commitEvery == 0) {
+            store.flush();
+            context.resetForwards();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.StreamsTuningPreset;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Produced;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência fim-a-fim e throughput de cada StreamsTuningPreset contra um broker
+ * KRaft embarcado, com EXACTLY_ONCE_V2 e consumidor read_committed.
+ *
+ * Cada invocação publica eventsPerInvocation eventos e espera todos saírem no
+ * tópico de saída; a latência é (recebimento - timestamp do evento de entrada).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class StreamsTuningPresetBenchmark {
+
+    private static final String INPUT = "bench-sales-events";
+    private static final String OUTPUT = "bench-sales-enriched";
+    private static final String COUNTS = "bench-sales-counts";
+    private static final int PARTITIONS = 6;
+
+    @Param({"DEFAULT", "LATENCY", "THROUGHPUT"})
+    private StreamsTuningPreset preset;
+
+    @Param({"20000"})
+    private int eventsPerInvocation;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaStreams streams;
+    private KafkaProducer<String, String> producer;
+    private KafkaConsumer<String, String> consumer;
+    private Histogram latency;
+    private Path stateDir;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, INPUT, OUTPUT, COUNTS);
+        broker.afterPropertiesSet();
+        stateDir = Files.createTempDirectory("tuning-bench");
+
+        var builder = new StreamsBuilder();
+        var events = builder.stream(INPUT, Consumed.with(Serdes.String(), Serdes.String()));
+        events.mapValues(value -> value + ";processed")
+                .to(OUTPUT, Produced.with(Serdes.String(), Serdes.String()));
+        events.groupByKey()
+                .count()
+                .toStream()
+                .to(COUNTS, Produced.with(Serdes.String(), Serdes.Long()));
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "tuning-bench-" + preset);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, StreamsConfig.EXACTLY_ONCE_V2);
+        props.put(StreamsConfig.REPLICATION_FACTOR_CONFIG, 1);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        preset.applyTo(props, Runtime.getRuntime().availableProcessors());
+        // um único broker: standby não tem onde rodar
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, 0);
+
+        streams = new KafkaStreams(builder.build(), new StreamsConfig(props));
+        streams.start();
+
+        producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.ACKS_CONFIG, "all"),
+                new StringSerializer(), new StringSerializer());
+
+        consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "tuning-bench-reader-" + preset,
+                ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest",
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2000),
+                new StringDeserializer(), new StringDeserializer());
+        consumer.subscribe(List.of(OUTPUT));
+        while (consumer.assignment().isEmpty()) {
+            consumer.poll(Duration.ofMillis(100));
+        }
+
+        latency = new Histogram(TimeUnit.MINUTES.toMillis(5), 3);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.out.printf("%n[%s] e2e latency ms p50=%d p99=%d p999=%d max=%d (n=%d)%n", preset,
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(99),
+                latency.getValueAtPercentile(99.9), latency.getMaxValue(), latency.getTotalCount());
+
+        consumer.close();
+        producer.close();
+        streams.close(Duration.ofSeconds(30));
+        streams.cleanUp();
+        broker.destroy();
+        try (var paths = Files.walk(stateDir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int produceAndAwait() {
+        for (int i = 0; i < eventsPerInvocation; i++) {
+            var key = "user-" + (i % 1000);
+            producer.send(new ProducerRecord<>(INPUT, null, System.currentTimeMillis(), key, "amount=" + i));
+        }
+        producer.flush();
+
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (received < eventsPerInvocation && System.nanoTime() < deadline) {
+            for (var record : consumer.poll(Duration.ofMillis(50))) {
+                latency.recordValue(Math.max(0, System.currentTimeMillis() - record.timestamp()));
+                received++;
+            }
+        }
+        return received;
+    }
+}
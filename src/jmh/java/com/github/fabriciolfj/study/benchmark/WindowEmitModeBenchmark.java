@@ -0,0 +1,122 @@
+package com.github.fabriciolfj.study.benchmark;
+
+import com.github.fabriciolfj.study.configuration.SalesSerdes;
+import com.github.fabriciolfj.study.configuration.SalesWindowingOptions;
+import com.github.fabriciolfj.study.configuration.StreamsTopologyWindowing;
+import com.github.fabriciolfj.study.configuration.WindowEmitMode;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Volume do tópico sales-aggregated (registros e bytes que o consumidor
+ * downstream precisa ler) por modo de emissão da janela de 1 minuto.
+ *
+ * Os eventos avançam 10ms de event time cada, ~6000 eventos por janela.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class WindowEmitModeBenchmark {
+
+    @Param({"EVERY_UPDATE", "SUPPRESS_FINAL", "ON_WINDOW_CLOSE"})
+    private WindowEmitMode emitMode;
+
+    @Param({"50"})
+    private int stores;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, SalesEvent> input;
+    private TestOutputTopic<byte[], byte[]> aggregated;
+    private List<TestOutputTopic<byte[], byte[]>> otherOutputs;
+    private Path stateDir;
+    private SplittableRandom random;
+    private LocalDateTime eventTime;
+    private long events;
+    private long outputRecords;
+    private long outputBytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        stateDir = Files.createTempDirectory("window-emit-bench");
+
+        var options = emitMode == WindowEmitMode.EVERY_UPDATE
+                ? SalesWindowingOptions.defaults()
+                : SalesWindowingOptions.finalResults(emitMode);
+        var topology = new StreamsTopologyWindowing(options).buildTopology();
+
+        var props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "window-emit-bench");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, 0);
+
+        driver = new TopologyTestDriver(topology, props);
+        input = driver.createInputTopic("sales-events", Serdes.String().serializer(), SalesSerdes.salesEvent().serializer());
+        aggregated = output("sales-aggregated");
+        otherOutputs = List.of(output("user-sessions"), output("sales-moving-average"),
+                output(StreamsTopologyWindowing.SALES_EVENTS_DLQ), output(StreamsTopologyWindowing.SALES_TOP_PRODUCTS));
+
+        random = new SplittableRandom(11);
+        eventTime = LocalDateTime.now(ZoneOffset.UTC).withNano(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        drain();
+        System.out.printf("%n[%s] events=%d sales-aggregated records=%d bytes=%d (%.4f records/event)%n",
+                emitMode, events, outputRecords, outputBytes, (double) outputRecords / Math.max(1, events));
+
+        driver.close();
+        try (var paths = Files.walk(stateDir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void pipeEvent() {
+        eventTime = eventTime.plusNanos(10_000_000);
+        var store = "store-" + random.nextInt(stores);
+        var event = SalesEvent.builder()
+                .eventId(Long.toString(events))
+                .userId("user-" + random.nextInt(10_000))
+                .productId("product-" + random.nextInt(1_000))
+                .amount(random.nextDouble(1, 500))
+                .quantity(1)
+                .eventTime(eventTime)
+                .storeId(store)
+                .category("cat-" + random.nextInt(20))
+                .build();
+        input.pipeInput(store, event);
+
+        if (++events % 10_000 == 0) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        for (var record : aggregated.readRecordsToList()) {
+            outputRecords++;
+            outputBytes += record.key().length + (record.value() != null ? record.value().length : 0);
+        }
+        otherOutputs.forEach(TestOutputTopic::readRecordsToList);
+    }
+
+    private TestOutputTopic<byte[], byte[]> output(String topic) {
+        return driver.createOutputTopic(topic, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+}
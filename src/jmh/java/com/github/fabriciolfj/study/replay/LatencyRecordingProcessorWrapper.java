@@ -0,0 +1,123 @@
+package com.github.fabriciolfj.study.replay;
+
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorSupplier;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.ProcessorWrapper;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.api.WrappedFixedKeyProcessorSupplier;
+import org.apache.kafka.streams.processor.api.WrappedProcessorSupplier;
+import org.apache.kafka.streams.state.StoreBuilder;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ProcessorWrapper (processor.wrapper.class) que mede cada process() da topologia no
+ * ProcessorLatencyRecorder passado em RECORDER_CONFIG. Vale para DSL e PAPI desde que a
+ * topologia seja criada com TopologyConfig.
+ */
+public class LatencyRecordingProcessorWrapper implements ProcessorWrapper {
+
+    public static final String RECORDER_CONFIG = "replay.processor.latency.recorder";
+
+    private ProcessorLatencyRecorder recorder;
+
+    @Override
+    public void configure(final Map<String, ?> configs) {
+        if (!(configs.get(RECORDER_CONFIG) instanceof ProcessorLatencyRecorder configured)) {
+            throw new ConfigException(RECORDER_CONFIG + " must be a " + ProcessorLatencyRecorder.class.getName());
+        }
+        this.recorder = configured;
+    }
+
+    @Override
+    public <KIn, VIn, KOut, VOut> WrappedProcessorSupplier<KIn, VIn, KOut, VOut> wrapProcessorSupplier(
+            final String processorName, final ProcessorSupplier<KIn, VIn, KOut, VOut> processorSupplier) {
+        final Histogram histogram = recorder.histogram(processorName);
+        return new WrappedProcessorSupplier<>() {
+            @Override
+            public Processor<KIn, VIn, KOut, VOut> get() {
+                return new TimedProcessor<>(processorSupplier.get(), recorder, histogram);
+            }
+
+            @Override
+            public Set<StoreBuilder<?>> stores() {
+                return processorSupplier.stores();
+            }
+        };
+    }
+
+    @Override
+    public <KIn, VIn, VOut> WrappedFixedKeyProcessorSupplier<KIn, VIn, VOut> wrapFixedKeyProcessorSupplier(
+            final String processorName, final FixedKeyProcessorSupplier<KIn, VIn, VOut> processorSupplier) {
+        final Histogram histogram = recorder.histogram(processorName);
+        return new WrappedFixedKeyProcessorSupplier<>() {
+            @Override
+            public FixedKeyProcessor<KIn, VIn, VOut> get() {
+                return new TimedFixedKeyProcessor<>(processorSupplier.get(), recorder, histogram);
+            }
+
+            @Override
+            public Set<StoreBuilder<?>> stores() {
+                return processorSupplier.stores();
+            }
+        };
+    }
+
+    private record TimedProcessor<KIn, VIn, KOut, VOut>(Processor<KIn, VIn, KOut, VOut> delegate,
+                                                        ProcessorLatencyRecorder recorder,
+                                                        Histogram histogram) implements Processor<KIn, VIn, KOut, VOut> {
+
+        @Override
+        public void init(final ProcessorContext<KOut, VOut> context) {
+            delegate.init(context);
+        }
+
+        @Override
+        public void process(final Record<KIn, VIn> record) {
+            recorder.enter();
+            try {
+                delegate.process(record);
+            } finally {
+                recorder.exit(histogram);
+            }
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+
+    private record TimedFixedKeyProcessor<KIn, VIn, VOut>(FixedKeyProcessor<KIn, VIn, VOut> delegate,
+                                                          ProcessorLatencyRecorder recorder,
+                                                          Histogram histogram) implements FixedKeyProcessor<KIn, VIn, VOut> {
+
+        @Override
+        public void init(final FixedKeyProcessorContext<KIn, VOut> context) {
+            delegate.init(context);
+        }
+
+        @Override
+        public void process(final FixedKeyRecord<KIn, VIn> record) {
+            recorder.enter();
+            try {
+                delegate.process(record);
+            } finally {
+                recorder.exit(histogram);
+            }
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.fabriciolfj.study.replay;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Histogramas de latência por processador (nanos), com tempo próprio: o forward é síncrono,
+ * então o tempo dos filhos é descontado do pai para não contar a topologia inteira no source.
+ *
+ * Não é thread-safe; o TopologyTestDriver processa tudo na thread do replay.
+ */
+public class ProcessorLatencyRecorder {
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private long[] starts = new long[16];
+    private long[] childNanos = new long[16];
+    private int depth;
+
+    public Histogram histogram(final String processorName) {
+        return histograms.computeIfAbsent(processorName, name -> new Histogram(3));
+    }
+
+    public Map<String, Histogram> histograms() {
+        return histograms;
+    }
+
+    void enter() {
+        if (depth == starts.length) {
+            starts = Arrays.copyOf(starts, depth * 2);
+            childNanos = Arrays.copyOf(childNanos, depth * 2);
+        }
+        starts[depth] = System.nanoTime();
+        childNanos[depth] = 0;
+        depth++;
+    }
+
+    void exit(final Histogram histogram) {
+        depth--;
+        final long total = System.nanoTime() - starts[depth];
+        histogram.recordValue(Math.max(0, total - childNanos[depth]));
+        if (depth > 0) {
+            childNanos[depth - 1] += total;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.github.fabriciolfj.study.replay;
+
+import com.github.fabriciolfj.study.configuration.SalesProcessor;
+import com.github.fabriciolfj.study.configuration.SalesWindowingOptions;
+import com.github.fabriciolfj.study.configuration.StreamsTopologyWindowing;
+import com.github.fabriciolfj.study.configuration.WindowEmitMode;
+import com.github.fabriciolfj.study.store.SalesTotalsStoreType;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyConfig;
+import org.apache.kafka.streams.TopologyDescription;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replay offline de um arquivo de SalesEvent nas topologias de vendas com TopologyTestDriver.
+ *
+ * - speed 0 = máxima velocidade; speed N = N vezes o ritmo do event time do arquivo
+ * - o wall clock do driver acompanha o event time, então punctuations (flush da
+ *   pré-agregação, emissão do SalesProcessor) disparam como em produção
+ * - relatório: throughput, latência própria por processador (p50/p99/p999/max),
+ *   registros por tópico de saída e tamanho final de cada store
+ *
+ * ./gradlew replaySales --args="--file=sales.ndjson --topology=WINDOWING --speed=0"
+ */
+public class SalesTopologyReplay {
+
+    private static final String APPLICATION_ID = "sales-replay";
+    private static final int DRAIN_EVERY = 10_000;
+
+    public enum Target { WINDOWING, SALES_PROCESSOR }
+
+    public record Options(Path file,
+                          SalesEventFileFormat format,
+                          boolean mmap,
+                          double speed,
+                          Target target,
+                          SalesWindowingOptions windowing,
+                          SalesTotalsStoreType storeType) {
+    }
+
+    public record StoreSize(long entries, long diskBytes) {
+    }
+
+    public record Report(long records,
+                         long elapsedNanos,
+                         Map<String, Histogram> processorLatency,
+                         Map<String, Long> outputRecords,
+                         Map<String, StoreSize> stores) {
+
+        public double recordsPerSecond() {
+            return records / Math.max(1e-9, elapsedNanos / 1e9);
+        }
+
+        public void print(final PrintStream out) {
+            out.printf("%nreplay: %d records in %.2fs (%.0f records/s)%n",
+                    records, elapsedNanos / 1e9, recordsPerSecond());
+
+            out.printf("%nprocessor latency (self, µs)%n");
+            out.printf("  %-50s %10s %8s %8s %8s %8s%n", "processor", "count", "p50", "p99", "p999", "max");
+            processorLatency.forEach((name, histogram) -> out.printf("  %-50s %10d %8.1f %8.1f %8.1f %8.1f%n",
+                    name, histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMaxValue() / 1e3));
+
+            out.printf("%noutput topics%n");
+            outputRecords.forEach((topic, count) -> out.printf("  %-50s %10d%n", topic, count));
+
+            out.printf("%nstores (entries = -1 quando o tipo não é contável)%n");
+            stores.forEach((name, size) -> out.printf("  %-50s %10d entries %12d bytes on disk%n",
+                    name, size.entries(), size.diskBytes()));
+        }
+    }
+
+    private final Options options;
+
+    public SalesTopologyReplay(final Options options) {
+        this.options = options;
+    }
+
+    public Report run() throws IOException {
+        final Path stateDir = Files.createTempDirectory("sales-replay");
+        final ProcessorLatencyRecorder recorder = new ProcessorLatencyRecorder();
+
+        final Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, APPLICATION_ID);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.ByteArraySerde.class);
+        props.put(StreamsConfig.PROCESSOR_WRAPPER_CLASS_CONFIG, LatencyRecordingProcessorWrapper.class);
+        props.put(LatencyRecordingProcessorWrapper.RECORDER_CONFIG, recorder);
+
+        final Topology topology = buildTopology(new TopologyConfig(new StreamsConfig(props)));
+
+        long records = 0;
+        final long elapsedNanos;
+        final long start = System.nanoTime();
+        final Map<String, Long> outputRecords = new LinkedHashMap<>();
+        final Map<String, StoreSize> stores;
+
+        try (var driver = new TopologyTestDriver(topology, props);
+             var reader = SalesEventFileReader.open(options.file(), options.format(), options.mmap())) {
+
+            final TestInputTopic<String, byte[]> input =
+                    driver.createInputTopic("sales-events", new StringSerializer(), new ByteArraySerializer());
+            final Map<String, TestOutputTopic<byte[], byte[]>> outputs = outputTopics(driver, topology);
+            outputs.keySet().forEach(topic -> outputRecords.put(topic, 0L));
+
+            long firstTimestamp = -1;
+            long lastTimestamp = -1;
+            while (reader.hasNext()) {
+                final ReplayRecord record = reader.next();
+                if (firstTimestamp < 0) {
+                    firstTimestamp = record.timestamp();
+                    lastTimestamp = record.timestamp();
+                }
+                pace(start, record.timestamp() - firstTimestamp);
+
+                input.pipeInput(record.key(), record.value(), record.timestamp());
+                if (record.timestamp() > lastTimestamp) {
+                    driver.advanceWallClockTime(Duration.ofMillis(record.timestamp() - lastTimestamp));
+                    lastTimestamp = record.timestamp();
+                }
+
+                if (++records % DRAIN_EVERY == 0) {
+                    drain(outputs, outputRecords);
+                }
+            }
+            drain(outputs, outputRecords);
+            elapsedNanos = System.nanoTime() - start;
+
+            stores = storeSizes(driver.getAllStateStores(), stateDir);
+        } finally {
+            deleteRecursively(stateDir);
+        }
+
+        return new Report(records, elapsedNanos, recorder.histograms(), outputRecords, stores);
+    }
+
+    private Topology buildTopology(final TopologyConfig topologyConfig) {
+        return switch (options.target()) {
+            case WINDOWING -> {
+                final StreamsBuilder builder = new StreamsBuilder(topologyConfig);
+                new StreamsTopologyWindowing(options.windowing()).build(builder);
+                yield builder.build();
+            }
+            case SALES_PROCESSOR -> SalesProcessor.processorTopology(new Topology(topologyConfig),
+                    options.storeType(), SalesProcessor.DEFAULT_LRU_MAX_BYTES);
+        };
+    }
+
+    // espera até o instante de wall clock correspondente ao event time (speed > 0)
+    private void pace(final long startNanos, final long eventOffsetMillis) {
+        if (options.speed() <= 0) {
+            return;
+        }
+        final long due = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(eventOffsetMillis) / options.speed());
+        final long wait = due - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static Map<String, TestOutputTopic<byte[], byte[]>> outputTopics(final TopologyTestDriver driver,
+                                                                             final Topology topology) {
+        final Map<String, TestOutputTopic<byte[], byte[]>> outputs = new LinkedHashMap<>();
+        for (var subtopology : topology.describe().subtopologies()) {
+            for (var node : subtopology.nodes()) {
+                if (node instanceof TopologyDescription.Sink sink && sink.topic() != null
+                        && !sink.topic().endsWith("-repartition")) {
+                    outputs.computeIfAbsent(sink.topic(), topic ->
+                            driver.createOutputTopic(topic, new ByteArrayDeserializer(), new ByteArrayDeserializer()));
+                }
+            }
+        }
+        return outputs;
+    }
+
+    // o driver guarda tudo que foi produzido até ser lido
+    private static void drain(final Map<String, TestOutputTopic<byte[], byte[]>> outputs,
+                              final Map<String, Long> outputRecords) {
+        outputs.forEach((topic, output) -> {
+            final long size = output.getQueueSize();
+            if (size > 0) {
+                output.readRecordsToList();
+                outputRecords.merge(topic, size, Long::sum);
+            }
+        });
+    }
+
+    private static Map<String, StoreSize> storeSizes(final Map<String, StateStore> stateStores, final Path stateDir)
+            throws IOException {
+        final Map<String, Long> diskBytes = new HashMap<>();
+        try (var paths = Files.walk(stateDir)) {
+            paths.filter(Files::isRegularFile).forEach(file -> stateStores.keySet().forEach(store -> {
+                if (file.toString().contains("/" + store + "/") || file.toString().contains("/" + store + ".")) {
+                    diskBytes.merge(store, file.toFile().length(), Long::sum);
+                }
+            }));
+        }
+
+        final Map<String, StoreSize> sizes = new LinkedHashMap<>();
+        stateStores.forEach((name, store) ->
+                sizes.put(name, new StoreSize(entries(store), diskBytes.getOrDefault(name, 0L))));
+        return sizes;
+    }
+
+    private static long entries(final StateStore store) {
+        if (store instanceof KeyValueStore<?, ?> keyValueStore) {
+            return keyValueStore.approximateNumEntries();
+        }
+        if (store instanceof WindowStore<?, ?> windowStore) {
+            long count = 0;
+            try (var iterator = windowStore.all()) {
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    count++;
+                }
+            }
+            return count;
+        }
+        return -1;
+    }
+
+    private static void deleteRecursively(final Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            final String[] parts = arg.replaceFirst("^--", "").split("=", 2);
+            arguments.put(parts[0], parts.length > 1 ? parts[1] : "true");
+        }
+        if (!arguments.containsKey("file")) {
+            System.err.println("usage: --file=<path> [--format=NDJSON|BINARY] [--mmap] [--speed=0]"
+                    + " [--topology=WINDOWING|SALES_PROCESSOR] [--emit-mode=EVERY_UPDATE|SUPPRESS_FINAL|ON_WINDOW_CLOSE]"
+                    + " [--pre-aggregation=PT0S] [--store-type=ROCKSDB|CACHED|LRU_FRONTED]");
+            System.exit(2);
+        }
+
+        final Path file = Path.of(arguments.get("file"));
+        final WindowEmitMode emitMode = WindowEmitMode.valueOf(arguments.getOrDefault("emit-mode", "EVERY_UPDATE"));
+        final SalesWindowingOptions windowing = (emitMode == WindowEmitMode.EVERY_UPDATE
+                ? SalesWindowingOptions.defaults()
+                : SalesWindowingOptions.finalResults(emitMode))
+                .withPreAggregation(Duration.parse(arguments.getOrDefault("pre-aggregation", "PT0S")));
+
+        final Options options = new Options(
+                file,
+                arguments.containsKey("format")
+                        ? SalesEventFileFormat.valueOf(arguments.get("format"))
+                        : SalesEventFileFormat.fromPath(file),
+                Boolean.parseBoolean(arguments.getOrDefault("mmap", "false")),
+                Double.parseDouble(arguments.getOrDefault("speed", "0")),
+                Target.valueOf(arguments.getOrDefault("topology", "WINDOWING")),
+                windowing,
+                SalesTotalsStoreType.valueOf(arguments.getOrDefault("store-type", "ROCKSDB")));
+
+        new SalesTopologyReplay(options).run().print(System.out);
+    }
+}
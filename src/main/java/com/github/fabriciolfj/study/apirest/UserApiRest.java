@@ -1,6 +1,7 @@
 package com.github.fabriciolfj.study.apirest;
 
 
+import com.github.fabriciolfj.study.dto.BulkDTO;
 import com.github.fabriciolfj.study.entity.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,6 +10,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 
 public interface UserApiRest {
 
@@ -16,8 +19,23 @@ public interface UserApiRest {
     @ResponseStatus(HttpStatus.CREATED)
     void create(@RequestBody final User user);
 
+    @PostMapping("/bulk")
+    @Operation(summary = "gravar usuarios em lote")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "usuarios gravados em um pipeline"),
+            @ApiResponse(responseCode = "400", description = "mais usuarios que o limite do lote")
+    })
+    ResponseEntity<Void> createAll(@RequestBody final List<User> users);
 
     @GetMapping("/{id}")
     @Operation(summary = "buscar usuario por id")
     ResponseEntity<User> getUser(@PathVariable final Long id);
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "buscar usuarios por ids, em lote")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "usuarios encontrados e ids ausentes do cache"),
+            @ApiResponse(responseCode = "400", description = "mais ids que o limite do lote")
+    })
+    ResponseEntity<BulkDTO<User>> getUsers(@RequestParam final List<Long> ids);
 }
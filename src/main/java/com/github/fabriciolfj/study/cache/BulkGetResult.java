@@ -0,0 +1,13 @@
+package com.github.fabriciolfj.study.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de um RedisBulkCache.getAll.
+ *
+ * @param found   valores encontrados, na ordem das chaves pedidas
+ * @param missing chaves sem valor no cache, para o chamador carregar e gravar com putAll
+ */
+public record BulkGetResult<K, V>(Map<K, V> found, List<K> missing) {
+}
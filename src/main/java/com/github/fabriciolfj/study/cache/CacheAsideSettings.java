@@ -0,0 +1,21 @@
+package com.github.fabriciolfj.study.cache;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do RedisCacheAside.
+ *
+ * @param ttl              idade a partir da qual o valor fica stale
+ * @param staleTtl         quanto tempo depois do ttl o valor stale ainda é servido enquanto recarrega
+ * @param negativeTtl      TTL das falhas cacheadas (ex.: não encontrado)
+ * @param earlyRefreshBeta beta do refresh probabilístico antecipado (XFetch); 0 desliga, > 1 antecipa mais
+ * @param lockTtl          validade do lock distribuído; deve cobrir a carga mais lenta esperada
+ * @param lockWait         quanto quem não pegou o lock espera o valor antes de carregar por conta própria
+ */
+public record CacheAsideSettings(Duration ttl,
+                                 Duration staleTtl,
+                                 Duration negativeTtl,
+                                 double earlyRefreshBeta,
+                                 Duration lockTtl,
+                                 Duration lockWait) {
+}
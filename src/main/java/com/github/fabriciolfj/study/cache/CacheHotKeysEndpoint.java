@@ -0,0 +1,45 @@
+package com.github.fabriciolfj.study.cache;
+
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * GET /actuator/cachehotkeys?top=N e /actuator/cachehotkeys/{cache}?top=N: chaves mais
+ * acessadas de cada cache neste pod, nas duas últimas janelas do HotKeySketch. count é
+ * estimado (amostragem * sampleRate); o valor real fica entre count - error e count.
+ */
+@Endpoint(id = "cachehotkeys")
+public class CacheHotKeysEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final CacheInstrumentation instrumentation;
+
+    public CacheHotKeysEndpoint(final CacheInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @ReadOperation
+    public Map<String, List<SpaceSaving.Entry>> hotKeys(@Nullable final Integer top) {
+        final Map<String, List<SpaceSaving.Entry>> result = new TreeMap<>();
+        instrumentation.hotKeys().forEach((cache, sketch) -> result.put(cache, sketch.top(limit(top))));
+        return result;
+    }
+
+    @ReadOperation
+    public List<SpaceSaving.Entry> hotKeys(@Selector final String cache, @Nullable final Integer top) {
+        final HotKeySketch sketch = instrumentation.hotKeys().get(cache);
+        return sketch != null ? sketch.top(limit(top)) : null;
+    }
+
+    private int limit(final Integer top) {
+        return top != null && top > 0 ? top : DEFAULT_TOP;
+    }
+}
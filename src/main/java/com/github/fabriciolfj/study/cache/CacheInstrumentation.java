@@ -0,0 +1,114 @@
+package com.github.fabriciolfj.study.cache;
+
+import com.github.fabriciolfj.study.cache.serializer.MeteredRedisSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas compartilhadas pelos cache managers do ConfigCache.
+ *
+ * Por cache (tag cache):
+ * - cache.gets{result=hit|miss}, cache.puts, cache.evictions e cache.latency{op, result}
+ *   medidos pelo InstrumentedCache (e pelo RedisBulkCache, por chave, sem latência);
+ *   histogramas de latência via
+ *   management.metrics.distribution.percentiles-histogram.cache.latency
+ * - cache.redis.gets{result}, cache.redis.puts, cache.redis.deletes e
+ *   cache.redis.lock.wait: o enableStatistics() do RedisCacheManager, só o L2
+ * - cache.value.size{op=write|read}: bytes por valor no Redis
+ * - top N chaves por HotKeySketch, no endpoint cachehotkeys
+ */
+public class CacheInstrumentation {
+
+    private final MeterRegistry meterRegistry;
+    private final int hotKeySampleRate;
+    private final int hotKeyCapacity;
+    private final Duration hotKeyWindow;
+    private final Map<String, HotKeySketch> hotKeys = new ConcurrentHashMap<>();
+
+    public CacheInstrumentation(final MeterRegistry meterRegistry,
+                                final int hotKeySampleRate,
+                                final int hotKeyCapacity,
+                                final Duration hotKeyWindow) {
+        // composite vazio devolve meters no-op, o decorator não precisa testar null
+        this.meterRegistry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+        this.hotKeySampleRate = hotKeySampleRate;
+        this.hotKeyCapacity = hotKeyCapacity;
+        this.hotKeyWindow = hotKeyWindow;
+    }
+
+    public InstrumentedCache instrument(final Cache target) {
+        final Tags tags = Tags.of("cache", target.getName());
+        final HotKeySketch sketch = hotKeys.computeIfAbsent(target.getName(),
+                name -> new HotKeySketch(hotKeySampleRate, hotKeyCapacity, hotKeyWindow));
+
+        return new InstrumentedCache(target, sketch,
+                counter("cache.gets", tags.and("result", "hit")),
+                counter("cache.gets", tags.and("result", "miss")),
+                counter("cache.puts", tags),
+                counter("cache.evictions", tags),
+                timer(tags.and("op", "get", "result", "hit")),
+                timer(tags.and("op", "get", "result", "miss")),
+                timer(tags.and("op", "put", "result", "none")),
+                timer(tags.and("op", "evict", "result", "none")));
+    }
+
+    // as funções consultam getStatistics() a cada leitura: o reset do collector troca a instância
+    public void bindStatistics(final RedisCache cache) {
+        final Tags tags = Tags.of("cache", cache.getName());
+        statistic("cache.redis.gets", cache, tags.and("result", "hit"), redis -> redis.getStatistics().getHits());
+        statistic("cache.redis.gets", cache, tags.and("result", "miss"), redis -> redis.getStatistics().getMisses());
+        statistic("cache.redis.puts", cache, tags, redis -> redis.getStatistics().getPuts());
+        statistic("cache.redis.deletes", cache, tags, redis -> redis.getStatistics().getDeletes());
+        FunctionCounter.builder("cache.redis.lock.wait", cache,
+                        redis -> redis.getStatistics().getLockWaitDuration(TimeUnit.NANOSECONDS) / 1e9)
+                .tags(tags)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public <T> RedisSerializer<T> meterValues(final String cacheName, final RedisSerializer<T> serializer) {
+        return new MeteredRedisSerializer<>(serializer, valueSize(cacheName, "write"), valueSize(cacheName, "read"));
+    }
+
+    public Map<String, HotKeySketch> hotKeys() {
+        return Map.copyOf(hotKeys);
+    }
+
+    private Counter counter(final String name, final Tags tags) {
+        return Counter.builder(name).tags(tags).register(meterRegistry);
+    }
+
+    private Timer timer(final Tags tags) {
+        return Timer.builder("cache.latency").tags(tags).register(meterRegistry);
+    }
+
+    private void statistic(final String name, final RedisCache cache, final Tags tags,
+                           final ToDoubleFunction<RedisCache> count) {
+        FunctionCounter.builder(name, cache, count).tags(tags).register(meterRegistry);
+    }
+
+    private DistributionSummary valueSize(final String cacheName, final String op) {
+        return DistributionSummary.builder("cache.value.size")
+                .tag("cache", cacheName)
+                .tag("op", op)
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(16.0)
+                .maximumExpectedValue(1_048_576.0)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.fabriciolfj.study.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Invalidação dos L1 entre pods via Redis pub/sub.
+ *
+ * Mensagem: instanceId|cacheName|K|key para uma chave, instanceId|cacheName|M|keys para um
+ * lote (chaves separadas por U+001F) ou instanceId|cacheName|C| para o cache inteiro.
+ * Mensagens do próprio pod são ignoradas: o L1 local já foi atualizado por quem escreveu.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final String SEPARATOR = "|";
+    private static final String KEY = "K";
+    private static final String KEYS = "M";
+    private static final String CLEAR = "C";
+    private static final String KEYS_SEPARATOR = "\u001F";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    // managers diferentes podem ter caches com o mesmo nome; todos são invalidados
+    private final Map<String, List<TwoLevelCache>> caches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(final StringRedisTemplate redisTemplate, final String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void register(final TwoLevelCache cache) {
+        caches.computeIfAbsent(cache.getName(), name -> new CopyOnWriteArrayList<>()).add(cache);
+    }
+
+    /*
+     * key null invalida o cache inteiro. Falha no publish não derruba a escrita: o L2 já
+     * está correto e os outros pods convergem pelo TTL do L1.
+     */
+    public void publish(final String cacheName, final String key) {
+        send(cacheName, key != null ? KEY + SEPARATOR + key : CLEAR + SEPARATOR);
+    }
+
+    // uma mensagem para o lote inteiro, em vez de um publish por chave
+    public void publishAll(final String cacheName, final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        send(cacheName, KEYS + SEPARATOR + String.join(KEYS_SEPARATOR, keys));
+    }
+
+    private void send(final String cacheName, final String operation) {
+        final String message = instanceId + SEPARATOR + cacheName + SEPARATOR + operation;
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish invalidation for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        final String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        // a chave pode conter o separador: só os três primeiros campos são fixos
+        final String[] parts = body.split("\\|", 4);
+        if (parts.length < 4) {
+            log.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+
+        for (var cache : caches.getOrDefault(parts[1], List.of())) {
+            switch (parts[2]) {
+                case CLEAR -> cache.invalidateLocalAll();
+                case KEYS -> {
+                    for (var key : parts[3].split(KEYS_SEPARATOR)) {
+                        cache.invalidateLocal(key);
+                    }
+                }
+                default -> cache.invalidateLocal(parts[3]);
+            }
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+}
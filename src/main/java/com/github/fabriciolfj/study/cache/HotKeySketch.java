@@ -0,0 +1,93 @@
+package com.github.fabriciolfj.study.cache;
+
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chaves mais acessadas de um cache, por amostragem: 1 a cada sampleRate acessos entra em
+ * um SpaceSaving. Quem não é amostrado paga só um ThreadLocalRandom; o amostrado usa
+ * tryLock e descarta a amostra se o sketch estiver ocupado, nunca bloqueia o get.
+ *
+ * Duas janelas (atual e anterior, de window cada) para o top refletir o tráfego recente;
+ * as contagens do top são estimativas escaladas pelo sampleRate.
+ */
+public class HotKeySketch {
+
+    private final int sampleMask;
+    private final int sampleRate;
+    private final int capacity;
+    private final long windowNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder dropped = new LongAdder();
+
+    private SpaceSaving current;
+    private SpaceSaving previous;
+    private long windowEnd;
+
+    public HotKeySketch(final int sampleRate, final int capacity, final Duration window) {
+        if (sampleRate <= 0 || Integer.bitCount(sampleRate) != 1) {
+            throw new IllegalArgumentException("Hot key sample rate must be a power of two, got " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.sampleMask = sampleRate - 1;
+        this.capacity = capacity;
+        this.windowNanos = window.toNanos();
+        this.current = new SpaceSaving(capacity);
+        this.previous = new SpaceSaving(capacity);
+        this.windowEnd = System.nanoTime() + windowNanos;
+    }
+
+    public void offer(final Object key) {
+        if ((ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return;
+        }
+        if (!lock.tryLock()) {
+            dropped.increment();
+            return;
+        }
+        try {
+            rotate(System.nanoTime());
+            current.add(TwoLevelCache.localKey(key), 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SpaceSaving.Entry> top(final int k) {
+        final SpaceSaving merged;
+        lock.lock();
+        try {
+            rotate(System.nanoTime());
+            merged = previous.merge(current);
+        } finally {
+            lock.unlock();
+        }
+        return merged.top(k).stream()
+                .map(entry -> new SpaceSaving.Entry(entry.item(), entry.count() * sampleRate,
+                        entry.error() * sampleRate))
+                .toList();
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // chamado com o lock; uma janela inteira sem acesso descarta as duas
+    private void rotate(final long now) {
+        if (now - windowEnd < 0) {
+            return;
+        }
+        previous = now - windowEnd < windowNanos ? current : new SpaceSaving(capacity);
+        current = new SpaceSaving(capacity);
+        windowEnd = now + windowNanos;
+    }
+}
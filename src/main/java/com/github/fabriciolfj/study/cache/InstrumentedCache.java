@@ -0,0 +1,170 @@
+package com.github.fabriciolfj.study.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator de métricas na frente de um cache (TwoLevelCache ou RedisCache).
+ *
+ * Por operação: dois System.nanoTime, um Timer e um Counter já resolvidos na construção
+ * (sem lookup de tags no caminho) e a amostragem do HotKeySketch. Hit e miss do get são
+ * vistos de fora, ou seja, L1 + L2 juntos; a divisão por nível fica em cache.near.gets.
+ *
+ * O RedisBulkCache não passa por aqui, mas registra nos mesmos counters e no mesmo sketch
+ * (recordBulk*), por chave; a latência do lote não entra em cache.latency, que é por chave.
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache target;
+    private final HotKeySketch hotKeys;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Timer hitLatency;
+    private final Timer missLatency;
+    private final Timer putLatency;
+    private final Timer evictLatency;
+
+    InstrumentedCache(final Cache target, final HotKeySketch hotKeys,
+                      final Counter hits, final Counter misses, final Counter puts, final Counter evictions,
+                      final Timer hitLatency, final Timer missLatency, final Timer putLatency,
+                      final Timer evictLatency) {
+        this.target = target;
+        this.hotKeys = hotKeys;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+        this.hitLatency = hitLatency;
+        this.missLatency = missLatency;
+        this.putLatency = putLatency;
+        this.evictLatency = evictLatency;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    public Cache getTargetCache() {
+        return target;
+    }
+
+    public HotKeySketch getHotKeys() {
+        return hotKeys;
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final long start = System.nanoTime();
+        final ValueWrapper wrapper = target.get(key);
+        recordGet(key, wrapper != null, start);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        final long start = System.nanoTime();
+        final T value = target.get(key, type);
+        recordGet(key, value != null, start);
+        return value;
+    }
+
+    @Override
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final long start = System.nanoTime();
+        final boolean[] loaded = new boolean[1];
+        final T value = target.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        recordGet(key, !loaded[0], start);
+        return value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final long start = System.nanoTime();
+        target.put(key, value);
+        putLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final long start = System.nanoTime();
+        final ValueWrapper existing = target.putIfAbsent(key, value);
+        putLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(final Object key) {
+        final long start = System.nanoTime();
+        target.evict(key);
+        evictLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        evictions.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final long start = System.nanoTime();
+        final boolean evicted = target.evictIfPresent(key);
+        evictLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (evicted) {
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return target.invalidate();
+    }
+
+    void recordBulkGets(final Collection<?> found, final Collection<?> missing) {
+        hits.increment(found.size());
+        misses.increment(missing.size());
+        found.forEach(hotKeys::offer);
+        missing.forEach(hotKeys::offer);
+    }
+
+    void recordBulkPuts(final int count) {
+        puts.increment(count);
+    }
+
+    void recordBulkEvictions(final int count) {
+        evictions.increment(count);
+    }
+
+    private void recordGet(final Object key, final boolean hit, final long start) {
+        final long elapsed = System.nanoTime() - start;
+        if (hit) {
+            hitLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            hits.increment();
+        } else {
+            missLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            misses.increment();
+        }
+        hotKeys.offer(key);
+    }
+}
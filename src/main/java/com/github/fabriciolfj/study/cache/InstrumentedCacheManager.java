@@ -0,0 +1,49 @@
+package com.github.fabriciolfj.study.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Envolve cada cache do delegate (RedisCacheManager ou TwoLevelCacheManager) em um
+ * InstrumentedCache e liga as estatísticas do RedisCache correspondente.
+ *
+ * É o manager mais externo: o transactionAware fica aqui, para o decorator transacional
+ * envolver as métricas e os dois níveis juntos.
+ */
+public class InstrumentedCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager delegate;
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInstrumentation instrumentation;
+
+    public InstrumentedCacheManager(final CacheManager delegate,
+                                    final RedisCacheManager redisCacheManager,
+                                    final CacheInstrumentation instrumentation) {
+        this.delegate = delegate;
+        this.redisCacheManager = redisCacheManager;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(final String name) {
+        final Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        if (redisCacheManager.getCache(name) instanceof RedisCache redisCache) {
+            instrumentation.bindStatistics(redisCache);
+        }
+        return instrumentation.instrument(cache);
+    }
+}
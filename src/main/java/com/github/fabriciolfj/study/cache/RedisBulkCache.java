@@ -0,0 +1,240 @@
+package com.github.fabriciolfj.study.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e escrita em lote de um cache Redis: um MGET para N chaves e N SET EX em pipeline,
+ * uma ida ao Redis em vez de N.
+ *
+ * Usa as mesmas chaves (prefixo + chave), serializers e TTL do RedisCacheManager do cache,
+ * então enxerga e grava as mesmas entradas que cache.get/cache.put. Quando o cache do
+ * manager é um TwoLevelCache, o L1 é consultado antes do MGET, populado com o resultado, e
+ * o putAll publica uma única invalidação para o lote.
+ *
+ * Hits, misses, puts, evictions e hot keys vão para o InstrumentedCache do manager, por
+ * chave, como se fossem operações unitárias; countPresent é sonda e não conta como get.
+ *
+ * putAll não participa de transação: grava na hora, mesmo com o manager transactionAware.
+ * putAllIfAbsent e countPresent falam só com o Redis, para cargas em massa como o warm-up.
+ */
+public class RedisBulkCache<K, V> {
+
+    private final String name;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisCacheConfiguration cacheConfiguration;
+    private final Duration ttl;
+    private final CacheManager cacheManager;
+
+    public RedisBulkCache(final String name,
+                          final RedisConnectionFactory connectionFactory,
+                          final RedisCacheConfiguration cacheConfiguration,
+                          final Duration ttl,
+                          final CacheManager cacheManager) {
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+        this.cacheConfiguration = cacheConfiguration;
+        this.ttl = ttl;
+        this.cacheManager = cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    public BulkGetResult<K, V> getAll(final Collection<K> keys) {
+        final List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        final Map<K, V> values = new LinkedHashMap<>();
+        final Cache cache = managedCache();
+        final TwoLevelCache near = nearCache(cache);
+
+        final List<K> remoteKeys = new ArrayList<>(distinct.size());
+        for (var key : distinct) {
+            final Object value = near != null ? near.localGet(TwoLevelCache.localKey(key)) : null;
+            if (value != null) {
+                values.put(key, (V) value);
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+
+        if (!remoteKeys.isEmpty()) {
+            final long generation = near != null ? near.generation() : 0;
+            final byte[][] rawKeys = remoteKeys.stream().map(this::rawKey).toArray(byte[][]::new);
+            final List<byte[]> rawValues;
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                rawValues = connection.stringCommands().mGet(rawKeys);
+            }
+
+            for (int i = 0; i < remoteKeys.size(); i++) {
+                final K key = remoteKeys.get(i);
+                final byte[] raw = rawValues != null ? rawValues.get(i) : null;
+                final V value = raw != null
+                        ? (V) cacheConfiguration.getValueSerializationPair().read(ByteBuffer.wrap(raw))
+                        : null;
+                if (value != null) {
+                    values.put(key, value);
+                }
+                if (near != null) {
+                    near.remoteResult(TwoLevelCache.localKey(key), value, generation);
+                }
+            }
+        }
+
+        final Map<K, V> found = new LinkedHashMap<>();
+        final List<K> missing = new ArrayList<>();
+        for (var key : distinct) {
+            final V value = values.get(key);
+            if (value != null) {
+                found.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (cache instanceof InstrumentedCache instrumented) {
+            instrumented.recordBulkGets(found.keySet(), missing);
+        }
+        return new BulkGetResult<>(found, missing);
+    }
+
+    public void putAll(final Map<K, ? extends V> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // valida antes do pipeline para não gravar metade do lote
+        if (entries.containsValue(null)) {
+            throw new IllegalArgumentException("Cache '" + name + "' does not allow 'null' values");
+        }
+
+        final Expiration expiration = expiration();
+        final Map<String, Object> local = new LinkedHashMap<>();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                entries.forEach((key, value) -> {
+                    connection.stringCommands().set(rawKey(key),
+                            ByteUtils.getBytes(cacheConfiguration.getValueSerializationPair().write(value)),
+                            expiration, RedisStringCommands.SetOption.upsert());
+                    local.put(TwoLevelCache.localKey(key), value);
+                });
+            } finally {
+                connection.closePipeline();
+            }
+        }
+
+        final Cache cache = managedCache();
+        final TwoLevelCache near = nearCache(cache);
+        if (near != null) {
+            near.localPutAll(local);
+        }
+        if (cache instanceof InstrumentedCache instrumented) {
+            instrumented.recordBulkPuts(entries.size());
+        }
+    }
+
+    // um DEL com todas as chaves, depois L1 e uma única invalidação para o lote
+    public void evictAll(final Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        final List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(distinct.stream().map(this::rawKey).toArray(byte[][]::new));
+        }
+
+        final Cache cache = managedCache();
+        final TwoLevelCache near = nearCache(cache);
+        if (near != null) {
+            near.localEvictAll(distinct.stream().map(TwoLevelCache::localKey).toList());
+        }
+        if (cache instanceof InstrumentedCache instrumented) {
+            instrumented.recordBulkEvictions(distinct.size());
+        }
+    }
+
+    /*
+     * SET NX EX em pipeline: só preenche chaves ausentes, então nunca sobrescreve um valor
+     * mais novo gravado durante a carga. Não toca no L1 nem publica invalidação.
+     * Devolve quantas chaves foram gravadas.
+     */
+    public int putAllIfAbsent(final Map<K, ? extends V> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        if (entries.containsValue(null)) {
+            throw new IllegalArgumentException("Cache '" + name + "' does not allow 'null' values");
+        }
+
+        final List<Object> results;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                entries.forEach((key, value) -> connection.stringCommands().set(rawKey(key),
+                        ByteUtils.getBytes(cacheConfiguration.getValueSerializationPair().write(value)),
+                        expiration(), RedisStringCommands.SetOption.ifAbsent()));
+            } finally {
+                results = connection.closePipeline();
+            }
+        }
+
+        int written = 0;
+        for (var result : results) {
+            if (Boolean.TRUE.equals(result)) {
+                written++;
+            }
+        }
+        if (managedCache() instanceof InstrumentedCache instrumented) {
+            instrumented.recordBulkPuts(written);
+        }
+        return written;
+    }
+
+    // um EXISTS com todas as chaves; lê só o Redis, ignora o L1
+    public long countPresent(final Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        final byte[][] rawKeys = new LinkedHashSet<>(keys).stream().map(this::rawKey).toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            final Long present = connection.keyCommands().exists(rawKeys);
+            return present != null ? present : 0;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private Expiration expiration() {
+        return ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+
+    private byte[] rawKey(final Object key) {
+        final String cacheKey = cacheConfiguration.getKeyPrefixFor(name) + TwoLevelCache.localKey(key);
+        return ByteUtils.getBytes(cacheConfiguration.getKeySerializationPair().write(cacheKey));
+    }
+
+    // cache do manager sem o decorator de transação: InstrumentedCache, TwoLevelCache ou RedisCache
+    private Cache managedCache() {
+        final Cache cache = cacheManager.getCache(name);
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    private static TwoLevelCache nearCache(final Cache managed) {
+        final Cache cache = managed instanceof InstrumentedCache instrumented ? instrumented.getTargetCache() : managed;
+        return cache instanceof TwoLevelCache near ? near : null;
+    }
+}
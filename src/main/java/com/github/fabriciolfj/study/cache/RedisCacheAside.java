@@ -0,0 +1,359 @@
+package com.github.fabriciolfj.study.cache;
+
+import com.github.fabriciolfj.study.cache.serializer.CompactInput;
+import com.github.fabriciolfj.study.cache.serializer.CompactOutput;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache-aside em Redis com proteção contra stampede entre pods.
+ *
+ * - miss: só quem pega o lock distribuído (SET NX PX) chama o loader; os demais fazem
+ *   polling do valor até lockWait e, se ele não aparecer, carregam por conta própria
+ * - refresh antecipado probabilístico (XFetch): perto do ttl, uma fração crescente das
+ *   leituras dispara a recarga em background, proporcional ao tempo da última carga
+ * - stale-while-revalidate: depois do ttl o valor continua sendo servido por até staleTtl
+ *   enquanto uma virtual thread recarrega
+ * - falhas aceitas por negativeFailure (ex.: não encontrado) são cacheadas por negativeTtl e
+ *   relançadas via negativeException
+ *
+ * Envelope no Redis: [version][kind][createdAt][ttl][tempo de carga][valor | mensagem]. O TTL
+ * físico da chave é ttl + staleTtl; o lógico fica no envelope.
+ */
+@Slf4j
+public class RedisCacheAside<V> {
+
+    private static final byte VERSION = 1;
+    private static final byte VALUE = 0;
+    private static final byte NEGATIVE = 1;
+    private static final long POLL_MILLIS = 20;
+
+    private static final byte[] UNLOCK_SCRIPT = """
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final String name;
+    private final String keyPrefix;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisSerializer<V> serializer;
+    private final CacheAsideSettings settings;
+    private final Predicate<RuntimeException> negativeFailure;
+    private final Function<String, RuntimeException> negativeException;
+
+    // evita várias virtual threads recarregando a mesma chave no mesmo pod
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder loads = new LongAdder();
+    private final Counters counters;
+
+    public RedisCacheAside(final String name,
+                           final String keyPrefix,
+                           final RedisConnectionFactory connectionFactory,
+                           final RedisSerializer<V> serializer,
+                           final CacheAsideSettings settings,
+                           final Predicate<RuntimeException> negativeFailure,
+                           final Function<String, RuntimeException> negativeException,
+                           final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.keyPrefix = keyPrefix;
+        this.connectionFactory = connectionFactory;
+        this.serializer = serializer;
+        this.settings = settings;
+        this.negativeFailure = negativeFailure;
+        this.negativeException = negativeException;
+        this.counters = new Counters(name, meterRegistry);
+    }
+
+    public V get(final String key, final Supplier<V> loader) {
+        final String cacheKey = keyPrefix + key;
+        final Entry entry = read(cacheKey);
+        if (entry != null) {
+            return serve(cacheKey, entry, loader);
+        }
+
+        counters.miss.increment();
+        final String token = tryLock(cacheKey);
+        if (token != null) {
+            try {
+                // outro pod pode ter gravado entre o GET e o lock
+                final Entry loaded = read(cacheKey);
+                if (loaded != null) {
+                    return unwrap(loaded);
+                }
+                return load(cacheKey, loader, counters.syncLoad);
+            } finally {
+                unlock(cacheKey, token);
+            }
+        }
+
+        counters.lockWait.increment();
+        final long deadline = System.nanoTime() + settings.lockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            sleep();
+            final Entry loaded = read(cacheKey);
+            if (loaded != null) {
+                return unwrap(loaded);
+            }
+        }
+        // dono do lock lento ou morto: carrega sem lock para não travar a requisição
+        return load(cacheKey, loader, counters.fallbackLoad);
+    }
+
+    public void evict(final String key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.keyCommands().del(raw(keyPrefix + key));
+        }
+    }
+
+    // chamadas ao loader neste pod (sync, background e fallback)
+    public long loads() {
+        return loads.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private V serve(final String cacheKey, final Entry entry, final Supplier<V> loader) {
+        final long now = System.currentTimeMillis();
+        final long expiresAt = entry.createdAt + entry.ttlMillis;
+
+        if (now >= expiresAt) {
+            counters.stale.increment();
+            refreshInBackground(cacheKey, entry.createdAt, loader);
+        } else if (shouldRefreshEarly(entry, now, expiresAt)) {
+            counters.earlyRefresh.increment();
+            refreshInBackground(cacheKey, entry.createdAt, loader);
+        } else {
+            counters.fresh.increment();
+        }
+        return unwrap(entry);
+    }
+
+    /*
+     * XFetch (Vattani et al.): refresh se now - delta * beta * ln(rand) >= expiresAt, com
+     * delta = tempo da última carga. Cargas lentas começam a ser renovadas mais cedo.
+     */
+    private boolean shouldRefreshEarly(final Entry entry, final long now, final long expiresAt) {
+        if (settings.earlyRefreshBeta() <= 0 || entry.kind == NEGATIVE) {
+            return false;
+        }
+        final double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        final double gap = -entry.computeMillis * settings.earlyRefreshBeta() * Math.log(random);
+        return now + gap >= expiresAt;
+    }
+
+    private void refreshInBackground(final String cacheKey, final long seenCreatedAt, final Supplier<V> loader) {
+        if (!refreshing.add(cacheKey)) {
+            return;
+        }
+        Thread.ofVirtual().name("cache-aside-refresh-" + name).start(() -> {
+            try {
+                final String token = tryLock(cacheKey);
+                if (token == null) {
+                    // outro pod já está recarregando
+                    return;
+                }
+                try {
+                    // outro pod pode ter renovado entre a leitura e o lock
+                    final Entry current = read(cacheKey);
+                    if (current != null && current.createdAt > seenCreatedAt) {
+                        return;
+                    }
+                    load(cacheKey, loader, counters.backgroundLoad);
+                } catch (RuntimeException e) {
+                    if (!negativeFailure.test(e)) {
+                        log.warn("Background refresh of {} failed, serving stale value: {}", cacheKey, e.getMessage());
+                    }
+                } finally {
+                    unlock(cacheKey, token);
+                }
+            } finally {
+                refreshing.remove(cacheKey);
+            }
+        });
+    }
+
+    private V load(final String cacheKey, final Supplier<V> loader, final LongAdder counter) {
+        counter.increment();
+        loads.increment();
+        final long start = System.nanoTime();
+        final V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            if (negativeFailure.test(e)) {
+                write(cacheKey, NEGATIVE, null, e.getMessage(), elapsedMillis(start));
+            }
+            throw e;
+        }
+        if (value != null) {
+            write(cacheKey, VALUE, value, null, elapsedMillis(start));
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unwrap(final Entry entry) {
+        if (entry.kind == NEGATIVE) {
+            counters.negative.increment();
+            throw negativeException.apply(entry.message);
+        }
+        return (V) entry.value;
+    }
+
+    private Entry read(final String cacheKey) {
+        final byte[] bytes;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            bytes = connection.stringCommands().get(raw(cacheKey));
+        }
+        if (bytes == null) {
+            return null;
+        }
+
+        final CompactInput input = new CompactInput(bytes, 0, bytes.length);
+        if (input.readByte() != VERSION) {
+            // formato desconhecido: tratado como miss e sobrescrito na próxima carga
+            return null;
+        }
+        final byte kind = (byte) input.readByte();
+        final long createdAt = input.readVarLong();
+        final long ttlMillis = input.readVarLong();
+        final long computeMillis = input.readVarLong();
+        return kind == NEGATIVE
+                ? new Entry(kind, createdAt, ttlMillis, computeMillis, null, input.readString())
+                : new Entry(kind, createdAt, ttlMillis, computeMillis, serializer.deserialize(input.readByteArray()), null);
+    }
+
+    private void write(final String cacheKey, final byte kind, final V value, final String message,
+                       final long computeMillis) {
+        final Duration ttl = kind == NEGATIVE ? settings.negativeTtl() : settings.ttl();
+        // negativos não têm janela stale: expiram de fato no negativeTtl
+        final Duration physicalTtl = kind == NEGATIVE ? ttl : ttl.plus(settings.staleTtl());
+
+        final CompactOutput output = new CompactOutput(64)
+                .writeByte(VERSION)
+                .writeByte(kind)
+                .writeVarLong(System.currentTimeMillis())
+                .writeVarLong(ttl.toMillis())
+                .writeVarLong(computeMillis);
+        if (kind == NEGATIVE) {
+            output.writeString(message);
+        } else {
+            output.writeByteArray(serializer.serialize(value));
+        }
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(raw(cacheKey), output.toByteArray(),
+                    Expiration.from(physicalTtl), RedisStringCommands.SetOption.upsert());
+        }
+    }
+
+    private String tryLock(final String cacheKey) {
+        final String token = UUID.randomUUID().toString();
+        final Boolean acquired;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            acquired = connection.stringCommands().set(raw(lockKey(cacheKey)), raw(token),
+                    Expiration.from(settings.lockTtl()), RedisStringCommands.SetOption.ifAbsent());
+        }
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    // só remove o lock se ainda for nosso (pode ter expirado e sido pego por outro pod)
+    private void unlock(final String cacheKey, final String token) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.scriptingCommands().eval(UNLOCK_SCRIPT, ReturnType.INTEGER, 1,
+                    raw(lockKey(cacheKey)), raw(token));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release lock of {}, it expires in {}: {}", cacheKey, settings.lockTtl(), e.getMessage());
+        }
+    }
+
+    private static String lockKey(final String cacheKey) {
+        return cacheKey + ":lock";
+    }
+
+    private static byte[] raw(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for cache load", e);
+        }
+    }
+
+    private record Entry(byte kind, long createdAt, long ttlMillis, long computeMillis, Object value, String message) {
+    }
+
+    /**
+     * cache.aside.requests{result} e cache.aside.loads{mode}, quando há MeterRegistry.
+     */
+    private static final class Counters {
+        private final LongAdder fresh = new LongAdder();
+        private final LongAdder earlyRefresh = new LongAdder();
+        private final LongAdder stale = new LongAdder();
+        private final LongAdder negative = new LongAdder();
+        private final LongAdder miss = new LongAdder();
+        private final LongAdder lockWait = new LongAdder();
+        private final LongAdder syncLoad = new LongAdder();
+        private final LongAdder backgroundLoad = new LongAdder();
+        private final LongAdder fallbackLoad = new LongAdder();
+
+        private Counters(final String name, final MeterRegistry meterRegistry) {
+            if (meterRegistry == null) {
+                return;
+            }
+            request(meterRegistry, name, "fresh", fresh);
+            request(meterRegistry, name, "early_refresh", earlyRefresh);
+            request(meterRegistry, name, "stale", stale);
+            request(meterRegistry, name, "negative", negative);
+            request(meterRegistry, name, "miss", miss);
+            request(meterRegistry, name, "lock_wait", lockWait);
+            load(meterRegistry, name, "sync", syncLoad);
+            load(meterRegistry, name, "background", backgroundLoad);
+            load(meterRegistry, name, "fallback", fallbackLoad);
+        }
+
+        private static void request(final MeterRegistry registry, final String name, final String result,
+                                    final LongAdder adder) {
+            FunctionCounter.builder("cache.aside.requests", adder, LongAdder::sum)
+                    .tag("cache", name).tag("result", result)
+                    .register(registry);
+        }
+
+        private static void load(final MeterRegistry registry, final String name, final String mode,
+                                 final LongAdder adder) {
+            FunctionCounter.builder("cache.aside.loads", adder, LongAdder::sum)
+                    .tag("cache", name).tag("mode", mode)
+                    .register(registry);
+        }
+    }
+}
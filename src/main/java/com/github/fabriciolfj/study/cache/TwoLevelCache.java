@@ -0,0 +1,277 @@
+package com.github.fabriciolfj.study.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de dois níveis: L1 Caffeine em processo na frente do cache Redis (L2).
+ *
+ * - leitura: L1, depois L2; o que vem do L2 popula o L1
+ * - escrita/evict: L2 primeiro, depois L1, e publica a invalidação para os L1 dos outros pods
+ * - invalidações recebidas só limpam o L1; o L2 já foi atualizado por quem publicou
+ * - o pub/sub não é confiável (mensagens perdidas em reconexão), então o TTL do L1 é o
+ *   limite de staleness entre pods
+ * - o L1 devolve a mesma instância a todos os chamadores: os valores devem ser tratados
+ *   como imutáveis
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+
+    // incrementado a cada escrita ou invalidação (local ou remota), depois do L2 e antes do L1;
+    // leitura do L2 que cruzou uma delas não popula o L1 (o bus ignora as próprias mensagens)
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+
+    public TwoLevelCache(final String name,
+                         final com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         final Cache remote,
+                         final CacheInvalidationBus invalidationBus) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final String localKey = localKey(key);
+        final Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        l1Misses.increment();
+
+        final long generation = invalidations.get();
+        final ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        populate(localKey, wrapper.get(), generation);
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        final ValueWrapper wrapper = get(key);
+        final Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final String localKey = localKey(key);
+        final Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return (T) value;
+        }
+        l1Misses.increment();
+
+        // o L2 sincroniza o loader por chave dentro do pod; o flag separa hit de carga
+        final long generation = invalidations.get();
+        final boolean[] loaded = new boolean[1];
+        final T result = remote.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            l2Misses.increment();
+            invalidationBus.publish(name, localKey);
+        } else {
+            l2Hits.increment();
+        }
+        populate(localKey, result, generation);
+        return result;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final String localKey = localKey(key);
+        remote.put(key, value);
+        invalidations.incrementAndGet();
+        if (value != null) {
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        invalidationBus.publish(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final String localKey = localKey(key);
+        final ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            invalidations.incrementAndGet();
+            if (value != null) {
+                local.put(localKey, value);
+            }
+            invalidationBus.publish(name, localKey);
+        } else if (existing.get() != null) {
+            local.put(localKey, existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(final Object key) {
+        final String localKey = localKey(key);
+        remote.evict(key);
+        invalidations.incrementAndGet();
+        local.invalidate(localKey);
+        invalidationBus.publish(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final String localKey = localKey(key);
+        final boolean evicted = remote.evictIfPresent(key);
+        invalidations.incrementAndGet();
+        local.invalidate(localKey);
+        invalidationBus.publish(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidations.incrementAndGet();
+        local.invalidateAll();
+        invalidationBus.publish(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        final boolean invalidated = remote.invalidate();
+        invalidations.incrementAndGet();
+        local.invalidateAll();
+        invalidationBus.publish(name, null);
+        return invalidated;
+    }
+
+    // chamados pelo CacheInvalidationBus ao receber a invalidação de outro pod
+    void invalidateLocal(final String localKey) {
+        invalidations.incrementAndGet();
+        local.invalidate(localKey);
+    }
+
+    void invalidateLocalAll() {
+        invalidations.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    // usados pelo RedisBulkCache, que lê e escreve o L2 em lote
+
+    long generation() {
+        return invalidations.get();
+    }
+
+    Object localGet(final String localKey) {
+        final Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+        } else {
+            l1Misses.increment();
+        }
+        return value;
+    }
+
+    void remoteResult(final String localKey, final Object value, final long generation) {
+        if (value == null) {
+            l2Misses.increment();
+            return;
+        }
+        l2Hits.increment();
+        populate(localKey, value, generation);
+    }
+
+    void localPutAll(final Map<String, ?> values) {
+        invalidations.incrementAndGet();
+        local.putAll(values);
+        invalidationBus.publishAll(name, values.keySet());
+    }
+
+    // o incremento impede que uma leitura do L2 anterior ao DEL devolva o valor removido ao L1
+    void localEvictAll(final Collection<String> localKeys) {
+        invalidations.incrementAndGet();
+        local.invalidateAll(localKeys);
+        invalidationBus.publishAll(name, localKeys);
+    }
+
+    public long localSize() {
+        return local.estimatedSize();
+    }
+
+    public long l1Hits() {
+        return l1Hits.sum();
+    }
+
+    public long l1Misses() {
+        return l1Misses.sum();
+    }
+
+    public long l2Hits() {
+        return l2Hits.sum();
+    }
+
+    public long l2Misses() {
+        return l2Misses.sum();
+    }
+
+    public double l1HitRatio() {
+        return ratio(l1Hits.sum(), l1Misses.sum());
+    }
+
+    // entre as leituras que chegaram ao L2
+    public double l2HitRatio() {
+        return ratio(l2Hits.sum(), l2Misses.sum());
+    }
+
+    private void populate(final String localKey, final Object value, final long generation) {
+        if (value != null && invalidations.get() == generation) {
+            local.put(localKey, value);
+        }
+    }
+
+    private static double ratio(final long hits, final long misses) {
+        final long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // mesma forma que a chave vai para o Redis (StringRedisSerializer), para bater com a invalidação
+    static String localKey(final Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.fabriciolfj.study.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * CacheManager que envolve cada cache do manager Redis em um TwoLevelCache.
+ *
+ * O manager Redis deve ser construído sem transactionAware: o decorator transacional é
+ * aplicado por fora (aqui ou no InstrumentedCacheManager), sobre os dois níveis, para que
+ * L1, L2 e a invalidação só aconteçam no commit.
+ *
+ * Métricas por cache (tag cache):
+ * - cache.near.gets{level=l1|l2, result=hit|miss}
+ * - cache.near.hit.ratio{level=l1|l2}; o ratio do l2 é sobre as leituras que chegaram ao L2
+ * - cache.near.size, entradas estimadas do L1
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheManager remote;
+    private final long maximumSize;
+    private final Duration ttl;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(final CacheManager remote,
+                                final long maximumSize,
+                                final Duration ttl,
+                                final CacheInvalidationBus invalidationBus,
+                                final MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(final String name) {
+        final Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+
+        final com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        final TwoLevelCache cache = new TwoLevelCache(name, local, remoteCache, invalidationBus);
+        invalidationBus.register(cache);
+        bindMetrics(cache);
+        return cache;
+    }
+
+    private void bindMetrics(final TwoLevelCache cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        final Tags tags = Tags.of("cache", cache.getName());
+        gets(cache, tags, "l1", "hit", TwoLevelCache::l1Hits);
+        gets(cache, tags, "l1", "miss", TwoLevelCache::l1Misses);
+        gets(cache, tags, "l2", "hit", TwoLevelCache::l2Hits);
+        gets(cache, tags, "l2", "miss", TwoLevelCache::l2Misses);
+
+        Gauge.builder("cache.near.hit.ratio", cache, TwoLevelCache::l1HitRatio)
+                .tags(tags).tag("level", "l1")
+                .register(meterRegistry);
+        Gauge.builder("cache.near.hit.ratio", cache, TwoLevelCache::l2HitRatio)
+                .tags(tags).tag("level", "l2")
+                .register(meterRegistry);
+        Gauge.builder("cache.near.size", cache, TwoLevelCache::localSize)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private void gets(final TwoLevelCache cache, final Tags tags, final String level, final String result,
+                      final ToDoubleFunction<TwoLevelCache> count) {
+        FunctionCounter.builder("cache.near.gets", cache, count)
+                .tags(tags).tag("level", level).tag("result", result)
+                .register(meterRegistry);
+    }
+}
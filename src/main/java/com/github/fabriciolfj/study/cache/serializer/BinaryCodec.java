@@ -0,0 +1,16 @@
+package com.github.fabriciolfj.study.cache.serializer;
+
+/**
+ * Esquema binário de um tipo cacheado.
+ *
+ * version() é gravado em cada valor; read recebe a versão lida para continuar aceitando
+ * entradas antigas quando o esquema evoluir (novos campos no fim, com default).
+ */
+public interface BinaryCodec<T> {
+
+    int version();
+
+    void write(T value, CompactOutput output);
+
+    T read(int version, CompactInput input);
+}
@@ -0,0 +1,72 @@
+package com.github.fabriciolfj.study.cache.serializer;
+
+import com.github.fabriciolfj.study.dto.CarDTO;
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import com.github.fabriciolfj.study.entity.User;
+
+/**
+ * Codecs dos valores dos caches users, cars-by-place e product. Os campos são gravados na
+ * ordem da declaração; novos campos entram no fim com versão nova.
+ */
+public final class CacheCodecs {
+
+    public static final BinaryCodec<User> USER = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(final User value, final CompactOutput output) {
+            output.writeNullableLong(value.getId())
+                    .writeString(value.getName());
+        }
+
+        @Override
+        public User read(final int version, final CompactInput input) {
+            return new User(input.readNullableLong(), input.readString());
+        }
+    };
+
+    public static final BinaryCodec<CarDTO> CAR = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(final CarDTO value, final CompactOutput output) {
+            output.writeString(value.type())
+                    .writeString(value.value());
+        }
+
+        @Override
+        public CarDTO read(final int version, final CompactInput input) {
+            return new CarDTO(input.readString(), input.readString());
+        }
+    };
+
+    public static final BinaryCodec<ProductDTO> PRODUCT = new BinaryCodec<>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void write(final ProductDTO value, final CompactOutput output) {
+            output.writeNullableLong(value.getId())
+                    .writeString(value.getName())
+                    .writeString(value.getDescription())
+                    .writeDecimal(value.getCost());
+        }
+
+        @Override
+        public ProductDTO read(final int version, final CompactInput input) {
+            return new ProductDTO(input.readNullableLong(), input.readString(), input.readString(),
+                    input.readDecimal());
+        }
+    };
+
+    private CacheCodecs() {
+    }
+}
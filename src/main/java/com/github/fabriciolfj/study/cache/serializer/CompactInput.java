@@ -0,0 +1,103 @@
+package com.github.fabriciolfj.study.cache.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitura do formato escrito por CompactOutput.
+ */
+public final class CompactInput {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public CompactInput(final byte[] buffer, final int offset, final int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    public byte[] readByteArray() {
+        final int length = lengthOf(readVarLong());
+        final byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint at offset " + position);
+    }
+
+    public long readZigZag() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public String readString() {
+        final long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        final int bytes = lengthOf(length - 1);
+        final String value = new String(buffer, position, bytes, StandardCharsets.UTF_8);
+        position += bytes;
+        return value;
+    }
+
+    public Long readNullableLong() {
+        return readByte() == 0 ? null : readZigZag();
+    }
+
+    public BigDecimal readDecimal() {
+        final int kind = readByte();
+        if (kind == CompactOutput.DECIMAL_NULL) {
+            return null;
+        }
+        final int scale = (int) readZigZag();
+        if (kind == CompactOutput.DECIMAL_LONG) {
+            return BigDecimal.valueOf(readZigZag(), scale);
+        }
+        if (kind == CompactOutput.DECIMAL_BIG) {
+            final int bytes = lengthOf(readVarLong());
+            final var unscaled = new BigInteger(buffer, position, bytes);
+            position += bytes;
+            return new BigDecimal(unscaled, scale);
+        }
+        throw new SerializationException("Unknown decimal encoding " + kind);
+    }
+
+    int position() {
+        return position;
+    }
+
+    private int lengthOf(final long length) {
+        if (length < 0 || length > limit - position) {
+            throw new SerializationException("Invalid length " + length + " at offset " + position);
+        }
+        return (int) length;
+    }
+
+    private void require(final int bytes) {
+        if (position + bytes > limit) {
+            throw new SerializationException("Truncated payload at offset " + position);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.fabriciolfj.study.cache.serializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer de escrita dos codecs binários: varints (LEB128), zigzag para números com sinal
+ * e marcador de nulo em strings, longs e BigDecimal.
+ */
+public final class CompactOutput {
+
+    static final byte DECIMAL_NULL = 0;
+    static final byte DECIMAL_LONG = 1;
+    static final byte DECIMAL_BIG = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    public CompactOutput(final int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public CompactOutput writeByte(final int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public CompactOutput writeBytes(final byte[] bytes, final int offset, final int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    // comprimento + bytes
+    public CompactOutput writeByteArray(final byte[] bytes) {
+        writeVarLong(bytes.length);
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+    public CompactOutput writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public CompactOutput writeZigZag(final long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    // comprimento + 1; 0 é null
+    public CompactOutput writeString(final String value) {
+        if (value == null) {
+            return writeVarLong(0);
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+    public CompactOutput writeNullableLong(final Long value) {
+        if (value == null) {
+            return writeByte(0);
+        }
+        return writeByte(1).writeZigZag(value);
+    }
+
+    /*
+     * unscaled como long + scale; valores que não cabem em 64 bits (raros em custo)
+     * vão como bytes do BigInteger.
+     */
+    public CompactOutput writeDecimal(final BigDecimal value) {
+        if (value == null) {
+            return writeByte(DECIMAL_NULL);
+        }
+        final var unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            return writeByte(DECIMAL_LONG)
+                    .writeZigZag(value.scale())
+                    .writeZigZag(unscaled.longValue());
+        }
+        final byte[] bytes = unscaled.toByteArray();
+        writeByte(DECIMAL_BIG)
+                .writeZigZag(value.scale())
+                .writeVarLong(bytes.length);
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensure(final int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.fabriciolfj.study.cache.serializer;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * RedisSerializer binário a partir de um BinaryCodec.
+ *
+ * Formato: [header][payload], header = version << 1 | lz4. Payloads com
+ * compressionThreshold bytes ou mais vão comprimidos com LZ4 ([varint tamanho original][lz4])
+ * quando isso de fato reduz o tamanho; threshold <= 0 desliga a compressão.
+ *
+ * Valores que começam com '{' são JSON gravados antes da troca de serializer e vão para o
+ * legacy (quando configurado), então a troca não exige limpar o Redis. Por isso a versão vai
+ * até 60: a 61 comprimida daria o header 0x7B, o próprio '{'.
+ */
+public class CompactRedisSerializer<T> implements RedisSerializer<T> {
+
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+
+    private static final int COMPRESSED = 0x01;
+    // ('{' >>> 1) - 1: nenhum header binário pode ser confundido com JSON
+    private static final int MAX_VERSION = ('{' >>> 1) - 1;
+    private static final byte[] EMPTY = new byte[0];
+
+    // compressão com a implementação mais rápida; descompressão sempre pela variante safe,
+    // que valida os limites do buffer mesmo com payload corrompido
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.safeInstance().safeDecompressor();
+
+    private final BinaryCodec<T> codec;
+    private final int compressionThreshold;
+    private final RedisSerializer<T> legacy;
+
+    public CompactRedisSerializer(final BinaryCodec<T> codec) {
+        this(codec, DEFAULT_COMPRESSION_THRESHOLD, null);
+    }
+
+    public CompactRedisSerializer(final BinaryCodec<T> codec, final int compressionThreshold,
+                                  final RedisSerializer<T> legacy) {
+        if (codec.version() <= 0 || codec.version() > MAX_VERSION) {
+            throw new IllegalArgumentException("Codec version must be in [1, " + MAX_VERSION + "], got " + codec.version());
+        }
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
+        this.legacy = legacy;
+    }
+
+    @Override
+    public byte[] serialize(final T value) {
+        if (value == null) {
+            return EMPTY;
+        }
+
+        final CompactOutput output = new CompactOutput(64);
+        output.writeByte(0);
+        codec.write(value, output);
+        final int payloadLength = output.size() - 1;
+
+        if (compressionThreshold > 0 && payloadLength >= compressionThreshold) {
+            final byte[] compressed = COMPRESSOR.compress(output.buffer(), 1, payloadLength);
+            // varint do tamanho original ocupa até 5 bytes
+            if (compressed.length + 5 < payloadLength) {
+                return new CompactOutput(compressed.length + 6)
+                        .writeByte(codec.version() << 1 | COMPRESSED)
+                        .writeVarLong(payloadLength)
+                        .writeBytes(compressed, 0, compressed.length)
+                        .toByteArray();
+            }
+        }
+
+        output.buffer()[0] = (byte) (codec.version() << 1);
+        return output.toByteArray();
+    }
+
+    @Override
+    public T deserialize(final byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == '{' && legacy != null) {
+            return legacy.deserialize(bytes);
+        }
+
+        final int header = bytes[0] & 0xFF;
+        final int version = header >>> 1;
+        if (version == 0 || version > codec.version()) {
+            throw new SerializationException("Unsupported cache payload version " + version
+                    + " (codec version " + codec.version() + ")");
+        }
+
+        if ((header & COMPRESSED) == 0) {
+            return codec.read(version, new CompactInput(bytes, 1, bytes.length - 1));
+        }
+
+        final CompactInput lengthInput = new CompactInput(bytes, 1, bytes.length - 1);
+        final long rawLength = lengthInput.readVarLong();
+        if (rawLength <= 0 || rawLength > Integer.MAX_VALUE - 8) {
+            throw new SerializationException("Invalid uncompressed length " + rawLength);
+        }
+        final int offset = lengthInput.position();
+        final byte[] raw = new byte[(int) rawLength];
+        final int decompressed;
+        try {
+            decompressed = DECOMPRESSOR.decompress(bytes, offset, bytes.length - offset, raw, 0, raw.length);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Corrupted LZ4 cache payload", e);
+        }
+        if (decompressed != raw.length) {
+            throw new SerializationException("Expected " + raw.length + " bytes after LZ4, got " + decompressed);
+        }
+        return codec.read(version, new CompactInput(raw, 0, raw.length));
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.fabriciolfj.study.cache.serializer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Registra o tamanho em bytes de cada valor gravado (serialize) e lido (deserialize) do
+ * Redis; fica só no caminho do L2, que já paga uma ida à rede.
+ */
+public class MeteredRedisSerializer<T> implements RedisSerializer<T> {
+
+    private final RedisSerializer<T> delegate;
+    private final DistributionSummary written;
+    private final DistributionSummary read;
+
+    public MeteredRedisSerializer(final RedisSerializer<T> delegate,
+                                  final DistributionSummary written,
+                                  final DistributionSummary read) {
+        this.delegate = delegate;
+        this.written = written;
+        this.read = read;
+    }
+
+    @Override
+    public byte[] serialize(final T value) {
+        final byte[] bytes = delegate.serialize(value);
+        if (bytes != null && bytes.length > 0) {
+            written.record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public T deserialize(final byte[] bytes) {
+        if (bytes != null && bytes.length > 0) {
+            read.record(bytes.length);
+        }
+        return delegate.deserialize(bytes);
+    }
+
+    @Override
+    public boolean canSerialize(final Class<?> type) {
+        return delegate.canSerialize(type);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return delegate.getTargetType();
+    }
+}
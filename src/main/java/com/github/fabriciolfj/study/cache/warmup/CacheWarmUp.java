@@ -0,0 +1,210 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Repopula um cache Redis a partir de uma CacheWarmUpSource.
+ *
+ * Cada tentativa começa medindo: lê as chaves da origem sem gravar, guarda uma amostra
+ * uniforme (reservoir sampling) e conta quantas já estão no Redis com um EXISTS. A amostra é
+ * tirada antes de qualquer escrita da tentativa, então o hit ratio é o que as requisições
+ * teriam encontrado, e não reflete a própria carga.
+ *
+ * Abaixo do alvo, a passada de carga grava até parallelism lotes ao mesmo tempo, em virtual
+ * threads, com RedisBulkCache.putAllIfAbsent: o que já está no Redis (inclusive o que a
+ * aplicação gravou durante a carga) não é sobrescrito, e o L1 dos outros pods não é
+ * invalidado.
+ *
+ * - hit ratio >= alvo: READY (com o Redis já quente, sem gravar nada)
+ * - abaixo do alvo: carga e nova medição depois de retryDelay; a medição seguinte confirma
+ *   que a carga ficou no Redis (maxmemory/TTL podem ter removido parte dela)
+ * - falha: nova tentativa depois de retryDelay, até maxWait
+ * - maxWait estourado: GAVE_UP; o pod segue com o cache frio em vez de nunca ficar pronto
+ */
+@Slf4j
+public class CacheWarmUp<K, V> {
+
+    public enum State {
+        PENDING, LOADING, PROBING, READY, GAVE_UP;
+
+        public boolean isFinished() {
+            return this == READY || this == GAVE_UP;
+        }
+    }
+
+    private final String cacheName;
+    private final CacheWarmUpSource<K, V> source;
+    private final RedisBulkCache<K, V> cache;
+    private final CacheWarmUpSettings settings;
+
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile State state = State.PENDING;
+    private volatile int attempt;
+    private volatile long expected = -1;
+    private volatile double hitRatio = -1;
+    private volatile String lastError;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    public CacheWarmUp(final RedisBulkCache<K, V> cache,
+                       final CacheWarmUpSource<K, V> source,
+                       final CacheWarmUpSettings settings,
+                       final MeterRegistry meterRegistry) {
+        this.cacheName = cache.getName();
+        this.cache = cache;
+        this.source = source;
+        this.settings = settings;
+
+        if (meterRegistry != null) {
+            Gauge.builder("cache.warmup.loaded", loaded, AtomicLong::get)
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+            Gauge.builder("cache.warmup.hit.ratio", this, warmUp -> warmUp.hitRatio)
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+            Gauge.builder("cache.warmup.ready", this, warmUp -> warmUp.state.isFinished() ? 1 : 0)
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+        }
+    }
+
+    // bloqueia até READY ou GAVE_UP; o runner chama em uma virtual thread
+    public void run() {
+        startedNanos = System.nanoTime();
+        final long deadline = startedNanos + settings.maxWait().toNanos();
+
+        while (true) {
+            attempt++;
+            try {
+                final List<K> sample = probePass();
+                hitRatio = sample.isEmpty() ? 1.0 : (double) cache.countPresent(sample) / sample.size();
+                if (hitRatio >= settings.targetHitRatio()) {
+                    finish(State.READY);
+                    return;
+                }
+                log.info("cache warm-up {}: hit ratio {} below target {} on attempt {}, loading",
+                        cacheName, hitRatio, settings.targetHitRatio(), attempt);
+                loadPass();
+            } catch (RuntimeException e) {
+                lastError = e.toString();
+                log.warn("cache warm-up {}: attempt {} failed", cacheName, attempt, e);
+            }
+
+            if (System.nanoTime() + settings.retryDelay().toNanos() >= deadline) {
+                finish(State.GAVE_UP);
+                return;
+            }
+            try {
+                Thread.sleep(settings.retryDelay());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(State.GAVE_UP);
+                return;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return state.isFinished();
+    }
+
+    public CacheWarmUpProgress progress() {
+        final long started = startedNanos;
+        final long end = state.isFinished() ? finishedNanos : System.nanoTime();
+        return new CacheWarmUpProgress(cacheName, source.description(), state, attempt, loaded.get(),
+                written.get(), expected, batches.get(), hitRatio, settings.targetHitRatio(),
+                started == 0 ? 0 : (end - started) / 1_000_000, lastError);
+    }
+
+    private List<K> probePass() {
+        state = State.PROBING;
+        expected = source.estimatedSize();
+
+        final List<K> sample = new ArrayList<>(settings.probeSample());
+        final long[] seen = {0};
+        source.load(settings.batchSize(), batch -> {
+            for (var key : batch.keySet()) {
+                sample(sample, key, ++seen[0]);
+            }
+        });
+        return sample;
+    }
+
+    private void loadPass() {
+        state = State.LOADING;
+        loaded.set(0);
+        written.set(0);
+        batches.set(0);
+
+        final Semaphore permits = new Semaphore(settings.parallelism());
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            source.load(settings.batchSize(), batch -> {
+                if (failure.get() != null) {
+                    // para de ler a origem, o close do executor espera os lotes em voo
+                    throw failure.get();
+                }
+                acquire(permits);
+                executor.execute(() -> {
+                    try {
+                        written.addAndGet(cache.putAllIfAbsent(batch));
+                        loaded.addAndGet(batch.size());
+                        batches.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            });
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        log.info("cache warm-up {}: {} entries from {} ({} written, {} already cached)",
+                cacheName, loaded.get(), source.description(), written.get(), loaded.get() - written.get());
+    }
+
+    private void sample(final List<K> sample, final K key, final long seen) {
+        if (sample.size() < settings.probeSample()) {
+            sample.add(key);
+            return;
+        }
+        final long slot = ThreadLocalRandom.current().nextLong(seen);
+        if (slot < sample.size()) {
+            sample.set((int) slot, key);
+        }
+    }
+
+    private void acquire(final Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("cache warm-up " + cacheName + " interrupted", e);
+        }
+    }
+
+    private void finish(final State finalState) {
+        finishedNanos = System.nanoTime();
+        state = finalState;
+        log.info("cache warm-up {}: {} after {} attempt(s), {} ms, hit ratio {}",
+                cacheName, finalState, attempt, (finishedNanos - startedNanos) / 1_000_000, hitRatio);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+/**
+ * GET /actuator/cachewarmup e /actuator/cachewarmup/{cache}: progresso de cada warm-up.
+ */
+@Endpoint(id = "cachewarmup")
+public class CacheWarmUpEndpoint {
+
+    private final List<CacheWarmUp<?, ?>> warmUps;
+
+    public CacheWarmUpEndpoint(final List<CacheWarmUp<?, ?>> warmUps) {
+        this.warmUps = warmUps;
+    }
+
+    @ReadOperation
+    public List<CacheWarmUpProgress> warmUps() {
+        return warmUps.stream().map(CacheWarmUp::progress).toList();
+    }
+
+    @ReadOperation
+    public CacheWarmUpProgress warmUp(@Selector final String cache) {
+        return warmUps.stream()
+                .map(CacheWarmUp::progress)
+                .filter(progress -> progress.cache().equals(cache))
+                .findFirst()
+                .orElse(null);
+    }
+}
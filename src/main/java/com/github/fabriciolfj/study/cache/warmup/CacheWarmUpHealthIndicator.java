@@ -0,0 +1,31 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+
+import java.util.List;
+
+/**
+ * OUT_OF_SERVICE enquanto algum warm-up não terminou (READY ou GAVE_UP). Entra no grupo
+ * readiness, então o pod só recebe tráfego com o cache aquecido ou depois do maxWait.
+ */
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final List<CacheWarmUp<?, ?>> warmUps;
+
+    public CacheWarmUpHealthIndicator(final List<CacheWarmUp<?, ?>> warmUps) {
+        this.warmUps = warmUps;
+    }
+
+    @Override
+    public Health health() {
+        final Health.Builder builder = warmUps.stream().allMatch(CacheWarmUp::isReady)
+                ? Health.up()
+                : Health.outOfService();
+        for (var warmUp : warmUps) {
+            final CacheWarmUpProgress progress = warmUp.progress();
+            builder.withDetail(progress.cache(), progress);
+        }
+        return builder.build();
+    }
+}
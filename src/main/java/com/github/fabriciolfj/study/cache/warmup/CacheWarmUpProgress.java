@@ -0,0 +1,21 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+/**
+ * Retrato de um CacheWarmUp para o endpoint e o health do Actuator.
+ *
+ * @param expected entradas esperadas na passada atual, -1 quando desconhecido
+ * @param hitRatio fração da amostra presente no Redis na última medição, -1 antes da primeira
+ */
+public record CacheWarmUpProgress(String cache,
+                                  String source,
+                                  CacheWarmUp.State state,
+                                  int attempt,
+                                  long loaded,
+                                  long written,
+                                  long expected,
+                                  long batches,
+                                  double hitRatio,
+                                  double targetHitRatio,
+                                  long elapsedMillis,
+                                  String lastError) {
+}
@@ -0,0 +1,28 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.List;
+
+/**
+ * Dispara os warm-ups no ApplicationReadyEvent, cada um em uma virtual thread, sem segurar
+ * o evento; até terminarem o CacheWarmUpHealthIndicator mantém o readiness OUT_OF_SERVICE.
+ */
+public class CacheWarmUpRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final List<CacheWarmUp<?, ?>> warmUps;
+
+    public CacheWarmUpRunner(final List<CacheWarmUp<?, ?>> warmUps) {
+        this.warmUps = warmUps;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        for (var warmUp : warmUps) {
+            if (warmUp.progress().state() == CacheWarmUp.State.PENDING) {
+                Thread.ofVirtual().name("cache-warmup-" + warmUp.progress().cache()).start(warmUp::run);
+            }
+        }
+    }
+}
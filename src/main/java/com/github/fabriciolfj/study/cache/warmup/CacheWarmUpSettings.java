@@ -0,0 +1,21 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do CacheWarmUp.
+ *
+ * @param batchSize      entradas por putAllIfAbsent (um pipeline)
+ * @param parallelism    lotes gravando no Redis ao mesmo tempo; não deve passar do pool do Lettuce
+ * @param targetHitRatio fração da amostra que precisa estar no Redis, antes da carga, para o pod ficar pronto
+ * @param probeSample    tamanho da amostra de chaves da origem usada na medição
+ * @param maxWait        depois disso o pod fica pronto mesmo sem atingir o alvo
+ * @param retryDelay     pausa entre uma passada que não atingiu o alvo e a próxima
+ */
+public record CacheWarmUpSettings(int batchSize,
+                                  int parallelism,
+                                  double targetHitRatio,
+                                  int probeSample,
+                                  Duration maxWait,
+                                  Duration retryDelay) {
+}
@@ -0,0 +1,20 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Origem dos valores de um warm-up: entrega as entradas em lotes de até batchSize, na ordem
+ * em que lê. Uma chave não deve aparecer em dois lotes, os lotes são gravados em paralelo.
+ */
+public interface CacheWarmUpSource<K, V> {
+
+    String description();
+
+    // total esperado de entradas, -1 quando a origem não sabe antes de ler
+    default long estimatedSize() {
+        return -1;
+    }
+
+    void load(int batchSize, Consumer<Map<K, V>> batches);
+}
@@ -0,0 +1,57 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lê a tabela product por keyset (id > último id lido), um SELECT por lote, para não
+ * carregar a tabela toda nem depender de OFFSET. A tabela não tem descrição, então os
+ * ProductDTO saem com description nula; a origem topic traz a descrição do tópico de detalhes.
+ */
+public class ProductTableWarmUpSource implements CacheWarmUpSource<Long, ProductDTO> {
+
+    private static final String SELECT_BATCH =
+            "select id, name, price from product where id > ? order by id limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductTableWarmUpSource(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String description() {
+        return "table:product";
+    }
+
+    @Override
+    public long estimatedSize() {
+        final Long count = jdbcTemplate.queryForObject("select count(*) from product", Long.class);
+        return count != null ? count : -1;
+    }
+
+    @Override
+    public void load(final int batchSize, final Consumer<Map<Long, ProductDTO>> batches) {
+        long lastId = 0;
+        while (true) {
+            final Map<Long, ProductDTO> batch = new LinkedHashMap<>();
+            jdbcTemplate.query(SELECT_BATCH, rs -> {
+                final long id = rs.getLong("id");
+                batch.put(id, new ProductDTO(id, rs.getString("name"), null, rs.getBigDecimal("price")));
+            }, lastId, batchSize);
+
+            if (batch.isEmpty()) {
+                return;
+            }
+            batches.accept(batch);
+            if (batch.size() < batchSize) {
+                return;
+            }
+            lastId = batch.keySet().stream().reduce((first, second) -> second).orElseThrow();
+        }
+    }
+}
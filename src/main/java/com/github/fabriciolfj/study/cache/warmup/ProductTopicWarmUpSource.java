@@ -0,0 +1,123 @@
+package com.github.fabriciolfj.study.cache.warmup;
+
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import com.study.details.Detalhes;
+import com.study.produto.Produto;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.BiConsumer;
+
+/**
+ * Reconstrói os ProductDTO lendo do início os tópicos compactados de produto e de detalhes,
+ * ambos com o id como chave, até os end offsets do momento da leitura.
+ *
+ * A compactação não é imediata, então a mesma chave pode aparecer várias vezes: vale o último
+ * registro, e tombstone remove. Por isso o catálogo inteiro fica em memória antes dos lotes
+ * saírem. O consumer usa assign, sem commit, e não mexe nos offsets do grupo da aplicação.
+ */
+@Slf4j
+public class ProductTopicWarmUpSource implements CacheWarmUpSource<Long, ProductDTO> {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final String productTopic;
+    private final String detailsTopic;
+
+    public ProductTopicWarmUpSource(final ConsumerFactory<String, Object> consumerFactory,
+                                    final String productTopic,
+                                    final String detailsTopic) {
+        this.consumerFactory = consumerFactory;
+        this.productTopic = productTopic;
+        this.detailsTopic = detailsTopic;
+    }
+
+    @Override
+    public String description() {
+        return "topic:" + productTopic + "+" + detailsTopic;
+    }
+
+    @Override
+    public void load(final int batchSize, final java.util.function.Consumer<Map<Long, ProductDTO>> batches) {
+        final Map<Long, Produto> products = new HashMap<>();
+        final Map<Long, String> descriptions = new HashMap<>();
+
+        readToEnd(productTopic, (id, value) -> {
+            if (value instanceof Produto produto) {
+                products.put(id, produto);
+            } else {
+                products.remove(id);
+            }
+        });
+        readToEnd(detailsTopic, (id, value) -> {
+            if (value instanceof Detalhes detalhes) {
+                descriptions.put(id, detalhes.getDescricao());
+            } else {
+                descriptions.remove(id);
+            }
+        });
+
+        Map<Long, ProductDTO> batch = new LinkedHashMap<>();
+        for (var product : products.values()) {
+            batch.put(product.getId(), new ProductDTO(product.getId(), product.getNome(),
+                    descriptions.get(product.getId()), product.getCusto()));
+            if (batch.size() == batchSize) {
+                batches.accept(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.accept(batch);
+        }
+    }
+
+    private void readToEnd(final String topic, final BiConsumer<Long, Object> records) {
+        final Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2000);
+
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(null, null, "-cache-warmup", overrides)) {
+            final List<TopicPartition> partitions = new ArrayList<>();
+            consumer.partitionsFor(topic).forEach(info -> partitions.add(new TopicPartition(topic, info.partition())));
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+
+            final Map<TopicPartition, Long> endOffsets = new HashMap<>(consumer.endOffsets(partitions));
+            endOffsets.entrySet().removeIf(end -> consumer.position(end.getKey()) >= end.getValue());
+
+            long count = 0;
+            while (!endOffsets.isEmpty()) {
+                for (ConsumerRecord<String, Object> record : consumer.poll(POLL_TIMEOUT)) {
+                    final Long id = parseId(record.key());
+                    if (id != null) {
+                        records.accept(id, record.value());
+                    }
+                    count++;
+                }
+                endOffsets.entrySet().removeIf(end -> consumer.position(end.getKey()) >= end.getValue());
+            }
+            log.info("cache warm-up read {} records from {}", count, topic);
+        }
+    }
+
+    private Long parseId(final String key) {
+        try {
+            return key != null ? Long.valueOf(key) : null;
+        } catch (NumberFormatException e) {
+            log.warn("cache warm-up skipping record with key {}", key);
+            return null;
+        }
+    }
+}
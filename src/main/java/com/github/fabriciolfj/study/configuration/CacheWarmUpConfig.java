@@ -0,0 +1,105 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
+import com.github.fabriciolfj.study.cache.warmup.CacheWarmUp;
+import com.github.fabriciolfj.study.cache.warmup.CacheWarmUpEndpoint;
+import com.github.fabriciolfj.study.cache.warmup.CacheWarmUpHealthIndicator;
+import com.github.fabriciolfj.study.cache.warmup.CacheWarmUpRunner;
+import com.github.fabriciolfj.study.cache.warmup.CacheWarmUpSettings;
+import com.github.fabriciolfj.study.cache.warmup.CacheWarmUpSource;
+import com.github.fabriciolfj.study.cache.warmup.ProductTableWarmUpSource;
+import com.github.fabriciolfj.study.cache.warmup.ProductTopicWarmUpSource;
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Warm-up do cache de produto depois do deploy.
+ *
+ * cache.warmup.product.source:
+ * - topic: product-topic + details, compactados; traz a descrição
+ * - table: tabela product pela réplica de leitura; sem descrição
+ *
+ * O cache de usuários não tem origem persistente (só existe no Redis), então fica de fora.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmUpConfig {
+
+    @Value("${cache.warmup.product.source:topic}")
+    private String productSource;
+
+    @Value("${cache.warmup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache.warmup.parallelism:8}")
+    private int parallelism;
+
+    @Value("${cache.warmup.target-hit-ratio:0.95}")
+    private double targetHitRatio;
+
+    @Value("${cache.warmup.probe-sample:1000}")
+    private int probeSample;
+
+    @Value("${cache.warmup.max-wait:2m}")
+    private Duration maxWait;
+
+    @Value("${cache.warmup.retry-delay:5s}")
+    private Duration retryDelay;
+
+    @Value("${topic.product}")
+    private String topicProduct;
+
+    @Value("${topic.details}")
+    private String topicDetails;
+
+    @Bean
+    public CacheWarmUp<Long, ProductDTO> productCacheWarmUp(RedisBulkCache<Long, ProductDTO> productBulkCache,
+                                                            ConsumerFactory<String, Object> consumerFactory,
+                                                            @Qualifier("readDataSource") DataSource readDataSource,
+                                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        CacheWarmUpSettings settings = new CacheWarmUpSettings(batchSize, parallelism, targetHitRatio,
+                probeSample, maxWait, retryDelay);
+        return new CacheWarmUp<>(productBulkCache, productSource(consumerFactory, readDataSource), settings,
+                meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public CacheWarmUpHealthIndicator cacheWarmUpHealthIndicator(List<CacheWarmUp<?, ?>> warmUps) {
+        return new CacheWarmUpHealthIndicator(warmUps);
+    }
+
+    @Bean
+    public CacheWarmUpEndpoint cacheWarmUpEndpoint(List<CacheWarmUp<?, ?>> warmUps) {
+        return new CacheWarmUpEndpoint(warmUps);
+    }
+
+    @Bean
+    public CacheWarmUpRunner cacheWarmUpRunner(List<CacheWarmUp<?, ?>> warmUps) {
+        return new CacheWarmUpRunner(warmUps);
+    }
+
+    private CacheWarmUpSource<Long, ProductDTO> productSource(ConsumerFactory<String, Object> consumerFactory,
+                                                              DataSource readDataSource) {
+        return switch (productSource.toLowerCase()) {
+            case "topic" -> new ProductTopicWarmUpSource(consumerFactory, topicProduct, topicDetails);
+            case "table" -> {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(readDataSource);
+                jdbcTemplate.setFetchSize(batchSize);
+                yield new ProductTableWarmUpSource(jdbcTemplate);
+            }
+            default -> throw new IllegalArgumentException("Unknown cache warm-up source " + productSource);
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.fabriciolfj.study.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita as conexões em uso de uma rota com um Semaphore justo na frente do pool.
+ *
+ * Com virtual threads milhares de requisições chegam ao pool ao mesmo tempo; aqui elas
+ * esperam em fila FIFO num Semaphore (AQS, estaciona a virtual thread sem prender o carrier)
+ * e desistem depois de acquireTimeout com SQLTransientConnectionException. A permissão
+ * volta no close da conexão.
+ *
+ * Métricas (tag route): datasource.limiter.wait, datasource.limiter.waiting,
+ * datasource.limiter.in.use e datasource.limiter.timeouts.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final String route;
+    private final int maxConcurrency;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    public ConcurrencyLimitedDataSource(final DataSource target,
+                                        final String route,
+                                        final int maxConcurrency,
+                                        final Duration acquireTimeout,
+                                        final MeterRegistry meterRegistry) {
+        super(target);
+        this.route = route;
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrency, true);
+
+        final MeterRegistry registry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+        this.waitTimer = Timer.builder("datasource.limiter.wait")
+                .tag("route", route)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.timeouts = Counter.builder("datasource.limiter.timeouts")
+                .tag("route", route)
+                .register(registry);
+        Gauge.builder("datasource.limiter.waiting", permits, Semaphore::getQueueLength)
+                .tag("route", route)
+                .register(registry);
+        Gauge.builder("datasource.limiter.in.use", permits, semaphore -> maxConcurrency - semaphore.availablePermits())
+                .tag("route", route)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        acquire();
+        return limited(() -> super.getConnection(username, password));
+    }
+
+    private void acquire() throws SQLException {
+        final long start = System.nanoTime();
+        final boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a " + route + " connection", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException("Timed out after " + acquireTimeoutNanos / 1_000_000
+                    + "ms waiting for one of " + maxConcurrency + " " + route + " connections");
+        }
+    }
+
+    private Connection limited(final ConnectionSupplier supplier) throws SQLException {
+        final Connection target;
+        try {
+            target = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTargetConnection" -> {
+                            return target;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "close" -> {
+                            try {
+                                target.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        }
+                        default -> {
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -1,10 +1,24 @@
 package com.github.fabriciolfj.study.configuration;
 
+import com.github.fabriciolfj.study.cache.CacheAsideSettings;
+import com.github.fabriciolfj.study.cache.CacheHotKeysEndpoint;
+import com.github.fabriciolfj.study.cache.CacheInstrumentation;
+import com.github.fabriciolfj.study.cache.CacheInvalidationBus;
+import com.github.fabriciolfj.study.cache.InstrumentedCacheManager;
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
+import com.github.fabriciolfj.study.cache.RedisCacheAside;
+import com.github.fabriciolfj.study.cache.TwoLevelCacheManager;
+import com.github.fabriciolfj.study.cache.serializer.BinaryCodec;
+import com.github.fabriciolfj.study.cache.serializer.CacheCodecs;
+import com.github.fabriciolfj.study.cache.serializer.CompactRedisSerializer;
 import com.github.fabriciolfj.study.dto.CarDTO;
 import com.github.fabriciolfj.study.dto.ProductDTO;
 import com.github.fabriciolfj.study.entity.User;
-import io.lettuce.core.ClientOptions;
-import io.lettuce.core.SocketOptions;
+import com.github.fabriciolfj.study.exceptions.CarNotFoundException;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -15,10 +29,13 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import tools.jackson.databind.ObjectMapper;
 
@@ -40,6 +57,33 @@ public class    ConfigCache {
     @Value("${spring.data.redis.database}")
     private int redisDatabase;
 
+    @Value("${redis.client.share-native-connection:true}")
+    private boolean redisShareNativeConnection;
+
+    @Value("${redis.client.pool.enabled:false}")
+    private boolean redisPoolEnabled;
+
+    @Value("${spring.data.redis.lettuce.pool.max-active:8}")
+    private int redisPoolMaxActive;
+
+    @Value("${spring.data.redis.lettuce.pool.max-idle:8}")
+    private int redisPoolMaxIdle;
+
+    @Value("${spring.data.redis.lettuce.pool.min-idle:0}")
+    private int redisPoolMinIdle;
+
+    @Value("${spring.data.redis.lettuce.pool.max-wait:-1ms}")
+    private Duration redisPoolMaxWait;
+
+    @Value("${redis.client.pipeline-flush:flush-each-command}")
+    private String redisPipelineFlush;
+
+    @Value("${redis.client.transport:auto}")
+    private String redisTransport;
+
+    @Value("${redis.client.io-threads:0}")
+    private int redisIoThreads;
+
     @Value("${cache.user.ttl}")
     private long userCacheTtl;
 
@@ -52,8 +96,58 @@ public class    ConfigCache {
     @Value("${cache.product.prefix}")
     private String productCachePrefix;
 
+    @Value("${cache.car.ttl:5s}")
+    private Duration carCacheTtl;
+
+    @Value("${cache.car.stale-ttl:30s}")
+    private Duration carStaleTtl;
+
+    @Value("${cache.car.negative-ttl:1s}")
+    private Duration carNegativeTtl;
+
+    @Value("${cache.car.early-refresh-beta:1.0}")
+    private double carEarlyRefreshBeta;
+
+    @Value("${cache.car.lock-ttl:5s}")
+    private Duration carLockTtl;
+
+    @Value("${cache.car.lock-wait:2s}")
+    private Duration carLockWait;
+
+    @Value("${cache.serializer:json}")
+    private String cacheSerializer;
+
+    @Value("${cache.compression-threshold:512}")
+    private int cacheCompressionThreshold;
+
+    @Value("${cache.near.enabled:true}")
+    private boolean nearCacheEnabled;
+
+    @Value("${cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${cache.near.ttl:30s}")
+    private Duration nearCacheTtl;
+
+    @Value("${cache.near.invalidation-channel:cache:invalidation}")
+    private String nearCacheChannel;
+
+    @Value("${cache.metrics.hot-keys.sample-rate:64}")
+    private int hotKeySampleRate;
+
+    @Value("${cache.metrics.hot-keys.capacity:128}")
+    private int hotKeyCapacity;
+
+    @Value("${cache.metrics.hot-keys.window:1m}")
+    private Duration hotKeyWindow;
+
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources redisClientResources() {
+        return LettuceClientTuning.clientResources(redisClientOptions());
+    }
+
     @Bean
-    public LettuceConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources redisClientResources) {
         RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration();
         redisConfig.setHostName(redisHost);
         redisConfig.setPort(redisPort);
@@ -63,22 +157,8 @@ public class    ConfigCache {
             redisConfig.setPassword(redisPassword);
         }
 
-        SocketOptions socketOptions = SocketOptions.builder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .keepAlive(true)
-                .build();
-
-        ClientOptions clientOptions = ClientOptions.builder()
-                .socketOptions(socketOptions)
-                .autoReconnect(true)
-                .build();
-
-        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
-                .clientOptions(clientOptions)
-                .commandTimeout(Duration.ofSeconds(5))
-                .build();
-
-        LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfig, clientConfig);
+        LettuceConnectionFactory factory =
+                LettuceClientTuning.connectionFactory(redisConfig, redisClientResources, redisClientOptions());
         factory.afterPropertiesSet();
 
         return factory;
@@ -93,67 +173,149 @@ public class    ConfigCache {
     @Primary
     @Bean(name = "userCacheManager")
     public CacheManager userCacheManager(RedisConnectionFactory connectionFactory,
-                                         ObjectMapper redisObjectMapper) {
-        final JacksonJsonRedisSerializer<User> serializer =
-                new JacksonJsonRedisSerializer<>(redisObjectMapper, User.class);
+                                         ObjectMapper redisObjectMapper,
+                                         CacheInvalidationBus cacheInvalidationBus,
+                                         CacheInstrumentation cacheInstrumentation,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return nearCache(connectionFactory, userCacheConfiguration(redisObjectMapper, cacheInstrumentation),
+                Duration.ofSeconds(userCacheTtl), cacheInvalidationBus, cacheInstrumentation, meterRegistry);
+    }
 
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofSeconds(userCacheTtl))
-                .prefixCacheNameWith(userCachePrefix)
-                .serializeKeysWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(serializer))
-                .disableCachingNullValues();
+    @Bean(name = "productCacheManager")
+    public CacheManager productCacheManager(RedisConnectionFactory connectionFactory,
+                                            ObjectMapper redisObjectMapper,
+                                            CacheInvalidationBus cacheInvalidationBus,
+                                            CacheInstrumentation cacheInstrumentation,
+                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        return nearCache(connectionFactory, productCacheConfiguration(redisObjectMapper, cacheInstrumentation),
+                Duration.ofSeconds(productCacheTtl), cacheInvalidationBus, cacheInstrumentation, meterRegistry);
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .transactionAware()
-                .enableStatistics()
-                .build();
+    @Bean
+    public RedisBulkCache<Long, User> userBulkCache(RedisConnectionFactory connectionFactory,
+                                                    ObjectMapper redisObjectMapper,
+                                                    CacheInstrumentation cacheInstrumentation,
+                                                    @Qualifier("userCacheManager") CacheManager userCacheManager) {
+        return new RedisBulkCache<>("users", connectionFactory, userCacheConfiguration(redisObjectMapper, cacheInstrumentation),
+                Duration.ofSeconds(userCacheTtl), userCacheManager);
     }
 
-    @Bean(name = "carCacheManager")
-    public CacheManager carCacheManager(RedisConnectionFactory connectionFactory,
-                                         ObjectMapper redisObjectMapper) {
-        final JacksonJsonRedisSerializer<CarDTO> serializer =
-                new JacksonJsonRedisSerializer<>(redisObjectMapper, CarDTO.class);
+    @Bean
+    public RedisBulkCache<Long, ProductDTO> productBulkCache(RedisConnectionFactory connectionFactory,
+                                                             ObjectMapper redisObjectMapper,
+                                                             CacheInstrumentation cacheInstrumentation,
+                                                             @Qualifier("productCacheManager") CacheManager productCacheManager) {
+        return new RedisBulkCache<>("product", connectionFactory, productCacheConfiguration(redisObjectMapper, cacheInstrumentation),
+                Duration.ofSeconds(productCacheTtl), productCacheManager);
+    }
 
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofSeconds(5))
-                .prefixCacheNameWith("car")
-                .serializeKeysWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(serializer))
-                .disableCachingNullValues();
+    @Bean
+    public RedisCacheAside<CarDTO> carCacheAside(RedisConnectionFactory connectionFactory,
+                                                 ObjectMapper redisObjectMapper,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        CacheAsideSettings settings = new CacheAsideSettings(carCacheTtl, carStaleTtl, carNegativeTtl,
+                carEarlyRefreshBeta, carLockTtl, carLockWait);
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .transactionAware()
-                .enableStatistics()
-                .build();
+        return new RedisCacheAside<>("cars-by-place", "car:aside:cars-by-place::", connectionFactory,
+                valueSerializer(CacheCodecs.CAR, CarDTO.class, redisObjectMapper), settings,
+                CarNotFoundException.class::isInstance, CarNotFoundException::new, meterRegistry.getIfAvailable());
     }
 
-    @Bean(name = "productCacheManager")
-    public CacheManager productCacheManager(RedisConnectionFactory connectionFactory,
-                                            ObjectMapper redisObjectMapper) {
-        final JacksonJsonRedisSerializer<ProductDTO> serializer =
-                new JacksonJsonRedisSerializer<>(redisObjectMapper, ProductDTO.class);
+    @Bean
+    public CacheInstrumentation cacheInstrumentation(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CacheInstrumentation(meterRegistry.getIfAvailable(), hotKeySampleRate, hotKeyCapacity, hotKeyWindow);
+    }
 
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofSeconds(productCacheTtl))
-                .prefixCacheNameWith(productCachePrefix)
+    @Bean
+    public CacheHotKeysEndpoint cacheHotKeysEndpoint(CacheInstrumentation cacheInstrumentation) {
+        return new CacheHotKeysEndpoint(cacheInstrumentation);
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(RedisConnectionFactory connectionFactory) {
+        return new CacheInvalidationBus(new StringRedisTemplate(connectionFactory), nearCacheChannel);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        return container;
+    }
+
+    private RedisCacheConfiguration userCacheConfiguration(ObjectMapper redisObjectMapper,
+                                                           CacheInstrumentation cacheInstrumentation) {
+        return cacheConfiguration(Duration.ofSeconds(userCacheTtl), userCachePrefix, cacheInstrumentation.meterValues("users",
+                valueSerializer(CacheCodecs.USER, User.class, redisObjectMapper)));
+    }
+
+    private RedisCacheConfiguration productCacheConfiguration(ObjectMapper redisObjectMapper,
+                                                              CacheInstrumentation cacheInstrumentation) {
+        return cacheConfiguration(Duration.ofSeconds(productCacheTtl), productCachePrefix, cacheInstrumentation.meterValues("product",
+                valueSerializer(CacheCodecs.PRODUCT, ProductDTO.class, redisObjectMapper)));
+    }
+
+    // as mesmas chaves/serializers/TTL servem ao manager e ao RedisBulkCache do cache
+    private RedisCacheConfiguration cacheConfiguration(Duration ttl, String prefix, RedisSerializer<?> serializer) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .prefixCacheNameWith(prefix)
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(serializer))
                 .disableCachingNullValues();
+    }
+
+    private LettuceClientTuning.RedisClientOptions redisClientOptions() {
+        return new LettuceClientTuning.RedisClientOptions(redisShareNativeConnection, redisPoolEnabled,
+                redisPoolMaxActive, redisPoolMaxIdle, redisPoolMinIdle, redisPoolMaxWait, redisPipelineFlush,
+                redisTransport, redisIoThreads, Duration.ofSeconds(5));
+    }
+
+    /*
+     * binary grava com o codec do tipo e continua lendo o JSON já existente no Redis;
+     * json mantém o formato anterior.
+     */
+    private <T> RedisSerializer<T> valueSerializer(BinaryCodec<T> codec, Class<T> type, ObjectMapper redisObjectMapper) {
+        JacksonJsonRedisSerializer<T> json = new JacksonJsonRedisSerializer<>(redisObjectMapper, type);
+        if (!"binary".equalsIgnoreCase(cacheSerializer)) {
+            return json;
+        }
+        return new CompactRedisSerializer<>(codec, cacheCompressionThreshold, json);
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
+    /*
+     * RedisCacheManager -> TwoLevelCacheManager (near cache ligado) -> InstrumentedCacheManager.
+     * Só o mais externo é transactionAware, para o commit aplicar métricas, L1, L2 e a
+     * invalidação juntos; o TTL do L1 nunca passa do TTL do Redis.
+     */
+    private CacheManager nearCache(RedisConnectionFactory connectionFactory,
+                                   RedisCacheConfiguration config,
+                                   Duration redisTtl,
+                                   CacheInvalidationBus cacheInvalidationBus,
+                                   CacheInstrumentation cacheInstrumentation,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
-                .transactionAware()
                 .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        CacheManager cacheManager = redisCacheManager;
+        if (nearCacheEnabled) {
+            Duration ttl = redisTtl.compareTo(nearCacheTtl) < 0 ? redisTtl : nearCacheTtl;
+            TwoLevelCacheManager twoLevelCacheManager = new TwoLevelCacheManager(redisCacheManager,
+                    nearCacheMaximumSize, ttl, cacheInvalidationBus, meterRegistry.getIfAvailable());
+            twoLevelCacheManager.afterPropertiesSet();
+            cacheManager = twoLevelCacheManager;
+        }
+
+        InstrumentedCacheManager instrumentedCacheManager =
+                new InstrumentedCacheManager(cacheManager, redisCacheManager, cacheInstrumentation);
+        instrumentedCacheManager.setTransactionAware(true);
+        return instrumentedCacheManager;
     }
-}
\ No newline at end of file
+}
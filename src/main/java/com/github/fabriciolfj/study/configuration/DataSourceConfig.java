@@ -1,7 +1,9 @@
 package com.github.fabriciolfj.study.configuration;
 
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
@@ -10,6 +12,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -18,6 +21,9 @@ import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -50,13 +56,17 @@ public class DataSourceConfig {
         return new DataSourceProperties();
     }
 
+    // sem binding de spring.datasource.hikari: ele rodaria depois do applyTo e o pool
+    // sairia do datasource.pool.write (e do limite do ConcurrencyLimitedDataSource)
     @Bean(name = "writeDataSource")
-    @ConfigurationProperties(prefix = "spring.datasource.hikari")
     public DataSource businessDataSource(
-            @Qualifier("businessDataSource") DataSourceProperties properties) {
-        return properties.initializeDataSourceBuilder()
+            @Qualifier("businessDataSource") DataSourceProperties properties,
+            DataSourcePoolProperties pools) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
                 .type(HikariDataSource.class)
                 .build();
+        pools.getWrite().applyTo(dataSource, ReplicaRouter.PRIMARY);
+        return dataSource;
     }
 
     @Bean
@@ -65,32 +75,83 @@ public class DataSourceConfig {
         return new DataSourceProperties();
     }
 
+    // pool próprio, dimensionado em datasource.pool.read e não herdado do write
     @Bean("readDataSource")
-    public DataSource readDataSource() {
-        return readDataSourceProperties()
+    public DataSource readDataSource(DataSourcePoolProperties pools) {
+        HikariDataSource dataSource = readDataSourceProperties()
                 .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
                 .build();
+        pools.getRead().applyTo(dataSource, "read");
+        return dataSource;
+    }
+
+    /*
+     * Réplicas de leitura: readDataSource ("read") + datasource.routing.replicas. As extras
+     * não são beans, o ReplicaRouter fecha os pools delas no shutdown.
+     */
+    @Bean
+    public ReplicaRouter replicaRouter(@Qualifier("readDataSource") DataSource read,
+                                       ReplicaRoutingProperties properties,
+                                       DataSourcePoolProperties pools,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReplicaTarget> targets = new ArrayList<>();
+        targets.add(new ReplicaTarget("read", read, properties.getReadWeight(), false));
+        for (var replica : properties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            pools.getReplicas().applyTo(dataSource, replica.getName());
+            targets.add(new ReplicaTarget(replica.getName(), dataSource, replica.getWeight(), true));
+        }
+
+        ReplicaRouter router = new ReplicaRouter(targets, properties, meterRegistry.getIfAvailable());
+        router.start();
+        return router;
     }
 
     // ── ROUTING — decide qual usar com base no @Transactional
+    // Cada rota passa por um ConcurrencyLimitedDataSource; Flyway, warm-up e o monitor de
+    // lag usam os pools direto e ficam fora do limite.
     @Primary
     @Bean("dataSource")
     @DependsOn({"writeDataSource", "readDataSource"}) // garante ordem
     public DataSource routingDataSource(
             @Qualifier("writeDataSource") DataSource write,
-            @Qualifier("readDataSource")  DataSource read) {
-
-        var routing = new ReadWriteRoutingDataSource();
-
-        routing.setTargetDataSources(Map.of(
-                "write", write,
-                "read",  read
-        ));
-        routing.setDefaultTargetDataSource(write);
+            ReplicaRouter replicaRouter,
+            DataSourcePoolProperties pools,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+
+        var routing = new ReadWriteRoutingDataSource(replicaRouter);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+
+        DataSource limitedWrite = limited(write, ReplicaRouter.PRIMARY, pools.getWrite(), registry);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRouter.PRIMARY, limitedWrite);
+        for (var target : replicaRouter.getTargets()) {
+            var route = "read".equals(target.getName()) ? pools.getRead() : pools.getReplicas();
+            targets.put(target.getName(), limited(target.getDataSource(), target.getName(), route, registry));
+        }
+
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(limitedWrite);
         routing.afterPropertiesSet();
         return new LazyConnectionDataSourceProxy(routing);
     }
 
+    // permissões pelo tamanho real do pool, não pelo configurado
+    private static DataSource limited(DataSource dataSource, String name,
+                                      DataSourcePoolProperties.Route route, MeterRegistry registry) {
+        int poolSize = dataSource instanceof HikariDataSource hikari
+                ? hikari.getMaximumPoolSize()
+                : route.getMaximumPoolSize();
+        return new ConcurrencyLimitedDataSource(dataSource, name, route.effectiveMaxConcurrency(poolSize),
+                route.getAcquireTimeout(), registry);
+    }
+
     /**
      * TransactionManager para dados de negócio.
      * Usa o dataSource principal (PostgreSQL/MySQL).
@@ -106,22 +167,32 @@ public class DataSourceConfig {
         return jpaTransactionManager;
     }
 
+    // schemaMigrator só garante que o Flyway já começou; o validate fica no SchemaStartupVerifier
     @Bean
-    @DependsOn({"flywayWrite", "flywayRead"})
+    @DependsOn("schemaMigrator")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(
-            @Qualifier("dataSource") DataSource dataSource) {
+            @Qualifier("dataSource") DataSource dataSource,
+            SchemaStartupProperties schemaStartup) {
 
         var factory = new LocalContainerEntityManagerFactoryBean();
         factory.setDataSource(dataSource);
         factory.setPackagesToScan("com.github.fabriciolfj.study.entity");
+        if (schemaStartup.isParallelBootstrap()) {
+            var bootstrap = new SimpleAsyncTaskExecutor("jpa-bootstrap-");
+            bootstrap.setVirtualThreads(true);
+            factory.setBootstrapExecutor(bootstrap);
+        }
 
         var adapter = new HibernateJpaVendorAdapter();
         adapter.setDatabase(Database.POSTGRESQL);
         factory.setJpaVendorAdapter(adapter);
 
         var props = new Properties();
-        props.put("hibernate.hbm2ddl.auto", "validate");
+        props.put("hibernate.hbm2ddl.auto", "none");
         props.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        // group commit (GroupCommitConfig): saveAll de um lote sai em batches JDBC
+        props.put("hibernate.jdbc.batch_size", "50");
+        props.put("hibernate.order_inserts", "true");
         factory.setJpaProperties(props);
 
         return factory;
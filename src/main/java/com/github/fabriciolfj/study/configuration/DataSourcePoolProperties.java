@@ -0,0 +1,63 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Pool e driver de cada rota do ReadWriteRoutingDataSource: write, read (spring.datasource-read)
+ * e replicas (padrão das réplicas extras de datasource.routing.replicas).
+ *
+ * É a única fonte do pool dessas rotas: spring.datasource(-read).hikari não é ligado aos
+ * HikariDataSource. As propriedades do driver só vão para URLs jdbc:postgresql.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.pool")
+public class DataSourcePoolProperties {
+
+    private Route write = new Route();
+    private Route read = new Route();
+    private Route replicas = new Route();
+
+    @Data
+    public static class Route {
+        private int maximumPoolSize = 10;
+        // -1 mantém o padrão do Hikari (igual ao maximumPoolSize)
+        private int minimumIdle = -1;
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        // execuções até o pgjdbc passar a usar prepared statement no servidor; 0 desliga
+        private int prepareThreshold = 5;
+        private int preparedStatementCacheQueries = 256;
+        private int preparedStatementCacheSizeMb = 5;
+        // reescreve batches de INSERT em INSERT multi-values
+        private boolean reWriteBatchedInserts = false;
+        // permissões do ConcurrencyLimitedDataSource; 0 usa o maximumPoolSize
+        private int maxConcurrency = 0;
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+
+        public int effectiveMaxConcurrency(final int poolSize) {
+            return maxConcurrency > 0 ? maxConcurrency : poolSize;
+        }
+
+        public void applyTo(final HikariDataSource dataSource, final String poolName) {
+            dataSource.setPoolName(poolName);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            if (minimumIdle >= 0) {
+                dataSource.setMinimumIdle(minimumIdle);
+            }
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+
+            final String url = dataSource.getJdbcUrl();
+            if (url != null && url.startsWith("jdbc:postgresql:")) {
+                dataSource.addDataSourceProperty("prepareThreshold", prepareThreshold);
+                dataSource.addDataSourceProperty("preparedStatementCacheQueries", preparedStatementCacheQueries);
+                dataSource.addDataSourceProperty("preparedStatementCacheSizeMiB", preparedStatementCacheSizeMb);
+                dataSource.addDataSourceProperty("reWriteBatchedInserts", reWriteBatchedInserts);
+            }
+        }
+    }
+}
@@ -1,38 +1,68 @@
 package com.github.fabriciolfj.study.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Os beans Flyway só são configurados aqui; quem migra é o SchemaMigrator, disparado na
+ * criação do bean e em paralelo com o resto do contexto (modos em SchemaStartupProperties).
+ */
 @Configuration
 public class FlywayConfig {
 
     // Flyway no banco WRITE
     @Bean
     public Flyway flywayWrite(@Qualifier("writeDataSource") DataSource datasource) {
-        var flyway = Flyway.configure()
-                .dataSource(datasource)
-                .locations("classpath:db/migration")
-                .baselineOnMigrate(true)
-                .load();
-
-        flyway.migrate();
-        return flyway;
+        return flyway(datasource);
     }
 
     // Flyway no banco READ
     @Bean
     public Flyway flywayRead(@Qualifier("readDataSource") DataSource read) {
-        var flyway = Flyway.configure()
-                .dataSource(read)
-                .locations("classpath:db/migration") // mesma pasta de scripts
+        return flyway(read); // mesma pasta de scripts
+    }
+
+    @Bean
+    public SchemaMigrator schemaMigrator(@Qualifier("flywayWrite") Flyway flywayWrite,
+                                         @Qualifier("flywayRead") Flyway flywayRead,
+                                         ReplicaRouter replicaRouter,
+                                         SchemaStartupProperties properties,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, Flyway> replicas = new LinkedHashMap<>();
+        for (var target : replicaRouter.getTargets()) {
+            replicas.put(target.getName(), "read".equals(target.getName())
+                    ? flywayRead
+                    : flyway(target.getDataSource()));
+        }
+
+        var migrator = new SchemaMigrator(flywayWrite, replicas, properties, meterRegistry.getIfAvailable());
+        migrator.start();
+        return migrator;
+    }
+
+    @Bean
+    public SchemaStartupVerifier schemaStartupVerifier(SchemaMigrator schemaMigrator,
+                                                       EntityManagerFactory entityManagerFactory,
+                                                       SchemaStartupProperties properties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SchemaStartupVerifier(schemaMigrator, entityManagerFactory, properties,
+                meterRegistry.getIfAvailable());
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
                 .baselineOnMigrate(true)
                 .load();
-
-        flyway.migrate();
-        return flyway;
     }
-}
\ No newline at end of file
+}
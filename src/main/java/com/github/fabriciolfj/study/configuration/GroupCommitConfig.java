@@ -0,0 +1,65 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.entity.Car;
+import com.github.fabriciolfj.study.entity.Employee;
+import com.github.fabriciolfj.study.entity.Sales;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitBatcher;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitSettings;
+import com.github.fabriciolfj.study.service.CarsService;
+import com.github.fabriciolfj.study.service.EmployeeService;
+import com.github.fabriciolfj.study.service.SalesService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Group commit dos POSTs de employees, cars e sales: cada requisição espera o commit do
+ * lote em que entrou. write.group-commit.enabled=false volta a uma transação por requisição.
+ */
+@Configuration
+public class GroupCommitConfig {
+
+    @Value("${write.group-commit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${write.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${write.group-commit.max-wait:2ms}")
+    private Duration maxWait;
+
+    @Value("${write.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${write.group-commit.flushers:2}")
+    private int flushers;
+
+    @Bean
+    public GroupCommitBatcher<Employee> employeeGroupCommit(EmployeeService employeeService,
+                                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new GroupCommitBatcher<>("employee", employees -> {
+            employeeService.executeSaveAll(employees);
+            return employees; // o BeforeConvertCallback preenche o id na própria instância
+        }, settings(), meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public GroupCommitBatcher<Car> carGroupCommit(CarsService carsService,
+                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        return new GroupCommitBatcher<>("car", carsService::createAll, settings(), meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public GroupCommitBatcher<Sales> salesGroupCommit(SalesService salesService,
+                                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        return new GroupCommitBatcher<>("sales", salesService::createAll, settings(), meterRegistry.getIfAvailable());
+    }
+
+    private GroupCommitSettings settings() {
+        return new GroupCommitSettings(enabled, maxBatchSize, maxWait, queueCapacity, flushers);
+    }
+}
@@ -26,6 +26,7 @@ import org.springframework.util.backoff.BackOff;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.net.SocketTimeoutException;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -58,6 +59,12 @@ public class KafkaConfiguration {
     @Value(value = "${kafka.backoff.max_failure}")
     private Long maxAttempts;
 
+    @Value("${cache.coherence.window:200ms}")
+    private Duration cacheCoherenceWindow;
+
+    @Value("${cache.coherence.max-poll-records:2000}")
+    private int cacheCoherenceMaxPollRecords;
+
     @Autowired
     private MeterRegistry meterRegistry;
 
@@ -123,6 +130,28 @@ public class KafkaConfiguration {
         return factory;
     }
 
+    /*
+     * Listener em lote do ProductCacheCoherenceListener: a pausa entre polls acumula a
+     * rajada da janela em um único lote, e o commit (AckMode.BATCH) só sai depois do lote
+     * aplicado no cache.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> productCacheListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setIdleBetweenPolls(cacheCoherenceWindow.toMillis());
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setMicrometerTags(Map.of("study-spring", "product-cache-coherence"));
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, cacheCoherenceMaxPollRecords);
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+        return factory;
+    }
+
     @Bean
     public KafkaTemplate<String, ?> kafkaTemplate() {
         KafkaTemplate<String, Object> t = new KafkaTemplate<>(producerFactory());
@@ -1,9 +1,14 @@
 package com.github.fabriciolfj.study.configuration;
 
+import com.github.fabriciolfj.study.store.BoundedMemoryRocksDBConfigSetter;
 import io.confluent.kafka.streams.serdes.avro.SpecificAvroSerde;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsConfig;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +16,8 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
 import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -35,6 +42,15 @@ public class KafkaStreamCustomConfiguration {
     @Value("${spring.kafka.streams.application-id}")
     private String applicationId;
 
+    @Value("${kafka.streams.tuning.preset:DEFAULT}")
+    private StreamsTuningPreset tuningPreset;
+
+    @Autowired
+    private RocksDBProperties rocksDBProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public Map<String, Object> kafkaStreamsProperties() {
         Map<String, Object> props = new HashMap<>();
@@ -48,22 +64,62 @@ public class KafkaStreamCustomConfiguration {
         props.put("schema.registry.url", schemaRegistryUrl);
         props.put("specific.avro.reader", true);
 
-        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, 2);
-        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 1000);
-        props.put(StreamsConfig.CACHE_MAX_BYTES_BUFFERING_CONFIG, 10 * 1024 * 1024L);
+        // threads, commit interval, cache, timeout da transação, linger/batch do producer e standby replicas
+        var cores = Runtime.getRuntime().availableProcessors();
+        tuningPreset.applyTo(props, cores);
+        log.info("kafka streams tuning preset {} ({} stream threads, {} cores)",
+                tuningPreset, tuningPreset.streamThreads(cores), cores);
 
         props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, StreamsConfig.EXACTLY_ONCE_V2);
         props.put(StreamsConfig.REPLICATION_FACTOR_CONFIG, 3);
 
+        // RocksDB: block cache e memtables compartilhados e limitados entre todos os stores
+        props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, BoundedMemoryRocksDBConfigSetter.class);
+        props.put(StreamsConfig.METRICS_RECORDING_LEVEL_CONFIG, rocksDBProperties.getMetricsRecordingLevel());
+        props.putAll(rocksDBProperties.toStreamsConfig());
+
         return props;
     }
 
+    // exporta as métricas do Kafka Streams (inclusive as de RocksDB por store) para o Micrometer
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer kafkaStreamsMetricsConfigurer() {
+        return factoryBean -> factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry));
+    }
+
+    // uso do block cache compartilhado (inclui memtables contabilizados pelo WriteBufferManager)
+    @Bean
+    public MeterBinder rocksDBSharedCacheMetrics() {
+        return registry -> {
+            Gauge.builder("kafka.streams.rocksdb.shared.block.cache.usage",
+                            () -> sharedCacheUsage(false))
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("kafka.streams.rocksdb.shared.block.cache.pinned.usage",
+                            () -> sharedCacheUsage(true))
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("kafka.streams.rocksdb.shared.block.cache.capacity",
+                            BoundedMemoryRocksDBConfigSetter::sharedCacheCapacity)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
     @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
     @Primary
     public KafkaStreamsConfiguration kStreamConfig() {
         return new KafkaStreamsConfiguration(kafkaStreamsProperties());
     }
 
+    private static long sharedCacheUsage(final boolean pinned) {
+        var cache = BoundedMemoryRocksDBConfigSetter.sharedCache();
+        if (cache == null) {
+            return 0;
+        }
+        return pinned ? cache.getPinnedUsage() : cache.getUsage();
+    }
+
     private List<String> getBootstrapServers() {
         return Arrays.asList(server1, server2, server3)
                 .stream()
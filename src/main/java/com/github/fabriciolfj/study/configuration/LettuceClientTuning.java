@@ -0,0 +1,145 @@
+package com.github.fabriciolfj.study.configuration;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.lettuce.core.resource.EpollProvider;
+import io.lettuce.core.resource.IOUringProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Monta o LettuceConnectionFactory a partir de RedisClientOptions; usado pelo ConfigCache e
+ * pelos benchmarks.
+ *
+ * - shareNativeConnection: uma conexão multiplexada para todos os comandos simples
+ * - pool (opt-in): conexões dedicadas para o que não pode ir na compartilhada, ou seja,
+ *   comandos bloqueantes, MULTI/EXEC e pipelines (RedisBulkCache). Sem pool cada pipeline
+ *   abre e fecha uma conexão TCP
+ * - pipelineFlush: flush-each-command, flush-on-close (um flush manual por pipeline) ou
+ *   buffered:N (flush a cada N comandos)
+ * - transport: auto, nio, epoll ou io_uring; precisa do artefato nativo do Netty no classpath
+ */
+@Slf4j
+public final class LettuceClientTuning {
+
+    private static final String EPOLL_PROPERTY = "io.lettuce.core.epoll";
+    private static final String IOURING_PROPERTY = "io.lettuce.core.iouring";
+
+    private LettuceClientTuning() {
+    }
+
+    public record RedisClientOptions(boolean shareNativeConnection,
+                                     boolean poolEnabled,
+                                     int poolMaxActive,
+                                     int poolMaxIdle,
+                                     int poolMinIdle,
+                                     Duration poolMaxWait,
+                                     String pipelineFlush,
+                                     String transport,
+                                     int ioThreads,
+                                     Duration commandTimeout) {
+
+        public static RedisClientOptions defaults() {
+            return new RedisClientOptions(true, false, 8, 8, 0, Duration.ofMillis(-1),
+                    "flush-each-command", "auto", 0, Duration.ofSeconds(5));
+        }
+    }
+
+    /*
+     * As propriedades de transporte são lidas na inicialização estática dos providers do
+     * Lettuce, então precisam ser definidas antes do primeiro ClientResources do processo.
+     */
+    public static ClientResources clientResources(final RedisClientOptions options) {
+        switch (options.transport().toLowerCase(Locale.ROOT)) {
+            case "nio" -> {
+                System.setProperty(EPOLL_PROPERTY, "false");
+                System.setProperty(IOURING_PROPERTY, "false");
+            }
+            case "epoll" -> {
+                System.setProperty(EPOLL_PROPERTY, "true");
+                System.setProperty(IOURING_PROPERTY, "false");
+            }
+            case "io_uring" -> {
+                System.setProperty(EPOLL_PROPERTY, "false");
+                System.setProperty(IOURING_PROPERTY, "true");
+            }
+            case "auto" -> {
+                // Lettuce escolhe io_uring, epoll ou nio conforme o que estiver disponível
+            }
+            default -> throw new IllegalArgumentException("Unknown Redis transport " + options.transport());
+        }
+
+        final DefaultClientResources.Builder builder = DefaultClientResources.builder();
+        if (options.ioThreads() > 0) {
+            builder.ioThreadPoolSize(options.ioThreads());
+        }
+        final ClientResources resources = builder.build();
+        log.info("Redis transport requested={} io_uring={} epoll={}",
+                options.transport(), IOUringProvider.isAvailable(), EpollProvider.isAvailable());
+        return resources;
+    }
+
+    public static LettuceConnectionFactory connectionFactory(final RedisStandaloneConfiguration redisConfig,
+                                                             final ClientResources clientResources,
+                                                             final RedisClientOptions options) {
+        final SocketOptions socketOptions = SocketOptions.builder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .keepAlive(true)
+                .build();
+
+        final ClientOptions clientOptions = ClientOptions.builder()
+                .socketOptions(socketOptions)
+                .autoReconnect(true)
+                .build();
+
+        final LettuceClientConfiguration clientConfig;
+        if (options.poolEnabled()) {
+            final GenericObjectPoolConfig<Object> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(options.poolMaxActive());
+            poolConfig.setMaxIdle(options.poolMaxIdle());
+            poolConfig.setMinIdle(options.poolMinIdle());
+            poolConfig.setMaxWait(options.poolMaxWait());
+            clientConfig = LettucePoolingClientConfiguration.builder()
+                    .poolConfig(poolConfig)
+                    .clientOptions(clientOptions)
+                    .clientResources(clientResources)
+                    .commandTimeout(options.commandTimeout())
+                    .build();
+        } else {
+            clientConfig = LettuceClientConfiguration.builder()
+                    .clientOptions(clientOptions)
+                    .clientResources(clientResources)
+                    .commandTimeout(options.commandTimeout())
+                    .build();
+        }
+
+        final LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfig, clientConfig);
+        factory.setShareNativeConnection(options.shareNativeConnection());
+        factory.setPipeliningFlushPolicy(pipeliningFlushPolicy(options.pipelineFlush()));
+        return factory;
+    }
+
+    static LettuceConnection.PipeliningFlushPolicy pipeliningFlushPolicy(final String pipelineFlush) {
+        final String policy = pipelineFlush.toLowerCase(Locale.ROOT);
+        if (policy.equals("flush-each-command")) {
+            return LettuceConnection.PipeliningFlushPolicy.flushEachCommand();
+        }
+        if (policy.equals("flush-on-close")) {
+            return LettuceConnection.PipeliningFlushPolicy.flushOnClose();
+        }
+        if (policy.startsWith("buffered:")) {
+            return LettuceConnection.PipeliningFlushPolicy.buffered(Integer.parseInt(policy.substring("buffered:".length())));
+        }
+        throw new IllegalArgumentException("Unknown pipeline flush policy " + pipelineFlush);
+    }
+}
@@ -1,14 +1,40 @@
 package com.github.fabriciolfj.study.configuration;
 
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+
+/**
+ * readOnly vai para a réplica escolhida pelo ReplicaRouter (ou para o primário quando
+ * nenhuma serve); o resto vai para o primário e, no commit, marca a escrita na sessão de
+ * ReadYourWrites.
+ */
 public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
 
+    private final ReplicaRouter replicaRouter;
+
+    public ReadWriteRoutingDataSource(final ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
     @Override
     protected Object determineCurrentLookupKey() {
         boolean isReadOnly = TransactionSynchronizationManager
                 .isCurrentTransactionReadOnly();
-        return isReadOnly ? "read" : "write";
+        if (isReadOnly) {
+            return replicaRouter.route();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadYourWrites.markWrite(Instant.now());
+                }
+            });
+        }
+        return ReplicaRouter.PRIMARY;
     }
-}
\ No newline at end of file
+}
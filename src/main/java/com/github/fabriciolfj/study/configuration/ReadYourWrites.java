@@ -0,0 +1,65 @@
+package com.github.fabriciolfj.study.configuration;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Sessão de read-your-writes da thread atual (uma requisição, aberta pelo
+ * ReadYourWritesFilter). Guarda o instante da última escrita confirmada da sessão; o
+ * ReplicaRouter só manda leituras para réplicas que já aplicaram até esse instante.
+ *
+ * Fora de uma sessão (listeners Kafka, jobs) nada é registrado e as leituras seguem só o
+ * limite de lag.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Session> SESSION = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void open(final Instant lastWrite, final Consumer<Instant> onWrite) {
+        SESSION.set(new Session(lastWrite, onWrite));
+    }
+
+    public static void close() {
+        SESSION.remove();
+    }
+
+    public static Instant lastWrite() {
+        final Session session = SESSION.get();
+        return session != null ? session.lastWrite : null;
+    }
+
+    // chamado no afterCommit de uma transação de escrita
+    static void markWrite(final Instant at) {
+        final Session session = SESSION.get();
+        if (session != null) {
+            session.mark(at);
+        }
+    }
+
+    /**
+     * Sessão da thread atual para marcar uma escrita que vai ser confirmada em outra thread
+     * (ex.: o flusher do group commit). Fora de sessão devolve um no-op.
+     */
+    public static Consumer<Instant> capture() {
+        final Session session = SESSION.get();
+        return session != null ? session::mark : at -> { };
+    }
+
+    private static final class Session {
+        private volatile Instant lastWrite;
+        private final Consumer<Instant> onWrite;
+
+        private Session(final Instant lastWrite, final Consumer<Instant> onWrite) {
+            this.lastWrite = lastWrite;
+            this.onWrite = onWrite;
+        }
+
+        private void mark(final Instant at) {
+            lastWrite = at;
+            onWrite.accept(at);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.fabriciolfj.study.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Abre a sessão de ReadYourWrites de cada requisição.
+ *
+ * O instante da última escrita do cliente vem do header X-Last-Write ou do cookie
+ * last-write (epoch millis) e volta nos dois quando a requisição faz uma escrita. O cookie
+ * vive maxLag: depois disso nenhuma réplica atrasada a ponto de não ter a escrita é usada.
+ */
+@Component
+@ConditionalOnProperty(prefix = "datasource.routing", name = "read-your-writes", havingValue = "true", matchIfMissing = true)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Last-Write";
+    public static final String COOKIE = "last-write";
+
+    private final int cookieMaxAge;
+
+    public ReadYourWritesFilter(final ReplicaRoutingProperties properties) {
+        this.cookieMaxAge = (int) Math.max(1, properties.getMaxLag().toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain chain) throws ServletException, IOException {
+        ReadYourWrites.open(lastWrite(request), at -> {
+            if (!response.isCommitted()) {
+                final String millis = Long.toString(at.toEpochMilli());
+                response.setHeader(HEADER, millis);
+                final Cookie cookie = new Cookie(COOKIE, millis);
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge(cookieMaxAge);
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.close();
+        }
+    }
+
+    private Instant lastWrite(final HttpServletRequest request) {
+        String value = request.getHeader(HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                }
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.fabriciolfj.study.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o lag de cada réplica a cada interval, uma tarefa por réplica para uma réplica lenta
+ * não atrasar a medição das outras.
+ *
+ * - fora de recovery (primário promovido ou stand-in local): lag 0
+ * - receive_lsn = replay_lsn: aplicou tudo o que recebeu, lag 0; sem isso um primário
+ *   ocioso faria pg_last_xact_replay_timestamp() envelhecer e parecer lag
+ * - senão: current_timestamp - pg_last_xact_replay_timestamp(), os dois no relógio do banco
+ * - erro, timeout ou replay_timestamp nulo: réplica fora da rotação até a próxima medição
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    static final String LAG_QUERY = "select pg_is_in_recovery(), pg_last_xact_replay_timestamp(), "
+            + "pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn(), current_timestamp";
+
+    private final List<ReplicaTarget> targets;
+    private final Duration interval;
+    private final int timeoutSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(final List<ReplicaTarget> targets, final Duration interval, final Duration timeout) {
+        this.targets = targets;
+        this.interval = interval;
+        this.timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, targets.size()),
+                Thread.ofVirtual().name("replica-lag-monitor-", 0).factory());
+    }
+
+    public void start() {
+        for (var target : targets) {
+            scheduler.scheduleWithFixedDelay(() -> check(target), 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void check(final ReplicaTarget target) {
+        final Instant checkedAt = Instant.now();
+        try (Connection connection = target.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                final Duration lag = lag(rs.getBoolean(1), rs.getTimestamp(2), rs.getObject(3), rs.getTimestamp(4));
+                if (lag == null) {
+                    markUnhealthy(target, "no replay timestamp yet");
+                } else {
+                    target.update(lag, checkedAt);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            markUnhealthy(target, e.toString());
+        }
+    }
+
+    static Duration lag(final boolean inRecovery, final Timestamp replayedAt, final Object caughtUp,
+                        final Timestamp now) {
+        if (!inRecovery || Boolean.TRUE.equals(caughtUp)) {
+            return Duration.ZERO;
+        }
+        if (replayedAt == null) {
+            return null;
+        }
+        final Duration lag = Duration.between(replayedAt.toInstant(), now.toInstant());
+        return lag.isNegative() ? Duration.ZERO : lag;
+    }
+
+    private void markUnhealthy(final ReplicaTarget target, final String reason) {
+        if (target.isHealthy()) {
+            log.warn("replica {} out of rotation: {}", target.getName(), reason);
+        }
+        target.markUnhealthy();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.fabriciolfj.study.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Escolhe a réplica de uma transação readOnly entre as elegíveis (saudável, lag <= maxLag
+ * e, com read-your-writes, já aplicou a última escrita da sessão).
+ *
+ * - WEIGHTED: sorteio proporcional ao peso
+ * - LEAST_CONNECTIONS: menor (conexões ativas + 1) / peso, pelo pool Hikari de cada réplica
+ * - nenhuma elegível: primário
+ *
+ * Métricas por alvo (tag target): datasource.routing.reads{reason}, datasource.replica.lag
+ * (segundos), datasource.replica.healthy e datasource.replica.active.connections.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    public static final String PRIMARY = "write";
+
+    private final ReplicaTarget[] targets;
+    private final ReplicaRoutingProperties.Balancing balancing;
+    private final long maxLagNanos;
+    private final boolean readYourWrites;
+    private final ReplicaLagMonitor monitor;
+    private final Counter primaryUnavailable;
+    private final Counter primaryReadYourWrites;
+
+    public ReplicaRouter(final List<ReplicaTarget> targets,
+                         final ReplicaRoutingProperties properties,
+                         final MeterRegistry meterRegistry) {
+        final Set<String> names = new HashSet<>();
+        for (var target : targets) {
+            if (PRIMARY.equals(target.getName()) || !names.add(target.getName())) {
+                throw new IllegalArgumentException("Duplicate or reserved replica name " + target.getName());
+            }
+        }
+        this.targets = targets.toArray(ReplicaTarget[]::new);
+        this.balancing = properties.getBalancing();
+        this.maxLagNanos = properties.getMaxLag().toNanos();
+        this.readYourWrites = properties.isReadYourWrites();
+        this.monitor = new ReplicaLagMonitor(targets, properties.getLagCheckInterval(), properties.getLagCheckTimeout());
+
+        final MeterRegistry registry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+        this.primaryUnavailable = Counter.builder("datasource.routing.reads")
+                .tag("target", PRIMARY).tag("reason", "unavailable")
+                .register(registry);
+        this.primaryReadYourWrites = Counter.builder("datasource.routing.reads")
+                .tag("target", PRIMARY).tag("reason", "read-your-writes")
+                .register(registry);
+        for (var target : this.targets) {
+            FunctionCounter.builder("datasource.routing.reads", target, ReplicaTarget::routed)
+                    .tag("target", target.getName()).tag("reason", "balanced")
+                    .register(registry);
+            Gauge.builder("datasource.replica.lag", target, ReplicaTarget::lagSeconds)
+                    .tag("target", target.getName())
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("datasource.replica.healthy", target, replica -> replica.isHealthy() ? 1 : 0)
+                    .tag("target", target.getName())
+                    .register(registry);
+            Gauge.builder("datasource.replica.active.connections", target, ReplicaTarget::activeConnections)
+                    .tag("target", target.getName())
+                    .register(registry);
+        }
+    }
+
+    public void start() {
+        monitor.start();
+    }
+
+    public List<ReplicaTarget> getTargets() {
+        return List.of(targets);
+    }
+
+    // chave de lookup do ReadWriteRoutingDataSource: nome da réplica ou PRIMARY
+    public String route() {
+        final Instant lastWrite = readYourWrites ? ReadYourWrites.lastWrite() : null;
+        final ReplicaTarget chosen = balancing == ReplicaRoutingProperties.Balancing.LEAST_CONNECTIONS
+                ? leastConnections(lastWrite)
+                : weighted(lastWrite);
+        if (chosen != null) {
+            chosen.markRouted();
+            return chosen.getName();
+        }
+
+        if (lastWrite != null && weighted(null) != null) {
+            primaryReadYourWrites.increment();
+        } else {
+            primaryUnavailable.increment();
+        }
+        return PRIMARY;
+    }
+
+    private ReplicaTarget weighted(final Instant lastWrite) {
+        int total = 0;
+        for (var target : targets) {
+            if (target.isEligible(maxLagNanos, lastWrite)) {
+                total += target.getWeight();
+            }
+        }
+        if (total == 0) {
+            return null;
+        }
+
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        ReplicaTarget last = null;
+        for (var target : targets) {
+            // o estado pode mudar entre as duas passadas; sem sorteado, fica a última elegível
+            if (target.isEligible(maxLagNanos, lastWrite)) {
+                last = target;
+                pick -= target.getWeight();
+                if (pick < 0) {
+                    return target;
+                }
+            }
+        }
+        return last;
+    }
+
+    private ReplicaTarget leastConnections(final Instant lastWrite) {
+        ReplicaTarget best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (var target : targets) {
+            if (!target.isEligible(maxLagNanos, lastWrite)) {
+                continue;
+            }
+            final double score = (target.activeConnections() + 1.0) / target.getWeight();
+            if (score < bestScore) {
+                best = target;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void close() {
+        monitor.close();
+        for (var target : targets) {
+            if (target.isOwned() && target.getDataSource() instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    log.warn("error closing replica {}", target.getName(), e);
+                }
+            }
+        }
+    }
+}
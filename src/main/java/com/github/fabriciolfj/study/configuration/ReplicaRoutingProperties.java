@@ -0,0 +1,42 @@
+package com.github.fabriciolfj.study.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roteamento das transações readOnly entre as réplicas.
+ *
+ * A réplica "read" (spring.datasource-read) sempre participa; datasource.routing.replicas
+ * acrescenta outras. Réplica fora do ar, sem medição ainda ou com lag acima de maxLag sai
+ * da rotação e a leitura vai para o primário.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+
+    public enum Balancing { WEIGHTED, LEAST_CONNECTIONS }
+
+    private Balancing balancing = Balancing.WEIGHTED;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    private Duration lagCheckTimeout = Duration.ofSeconds(2);
+    // leitura depois de escrita na mesma sessão só vai para réplica que já aplicou a escrita
+    private boolean readYourWrites = true;
+    private int readWeight = 1;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int weight = 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Uma réplica de leitura e o último estado medido pelo ReplicaLagMonitor.
+ *
+ * replayedUpTo está no relógio da aplicação (início da medição - lag), para comparar com o
+ * instante da escrita no read-your-writes sem depender do relógio do banco.
+ */
+public class ReplicaTarget {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final int weight;
+    private final boolean owned;
+    private final LongAdder routed = new LongAdder();
+
+    private volatile boolean healthy;
+    private volatile long lagNanos = -1;
+    private volatile Instant replayedUpTo = Instant.MIN;
+
+    public ReplicaTarget(final String name, final DataSource dataSource, final int weight, final boolean owned) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Replica " + name + " weight must be positive, got " + weight);
+        }
+        this.name = name;
+        this.dataSource = dataSource;
+        this.weight = weight;
+        this.owned = owned;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    // datasource criado pelo roteamento (não é bean), fechado junto com o ReplicaRouter
+    public boolean isOwned() {
+        return owned;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public double lagSeconds() {
+        return lagNanos < 0 ? Double.NaN : lagNanos / 1e9;
+    }
+
+    public Instant getReplayedUpTo() {
+        return replayedUpTo;
+    }
+
+    public long routed() {
+        return routed.sum();
+    }
+
+    // conexões em uso no pool; 0 quando o datasource não é Hikari
+    public int activeConnections() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            final HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+        return 0;
+    }
+
+    boolean isEligible(final long maxLagNanos, final Instant lastWrite) {
+        return healthy && lagNanos <= maxLagNanos
+                && (lastWrite == null || !replayedUpTo.isBefore(lastWrite));
+    }
+
+    void markRouted() {
+        routed.increment();
+    }
+
+    void update(final Duration lag, final Instant checkedAt) {
+        lagNanos = lag.toNanos();
+        replayedUpTo = checkedAt.minus(lag);
+        healthy = true;
+    }
+
+    void markUnhealthy() {
+        healthy = false;
+    }
+}
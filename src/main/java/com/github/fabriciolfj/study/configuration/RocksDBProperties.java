@@ -0,0 +1,67 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.store.BoundedMemoryRocksDBConfigSetter;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limites de memória do RocksDB aplicados a todas as topologias Kafka Streams.
+ *
+ * kafka.streams.rocksdb.stores.&lt;storeName&gt; permite sobrescrever memtable,
+ * bloom filter e block size de um store específico; o nome casa por prefixo com os
+ * stores internos (join stores e segmentos).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.streams.rocksdb")
+public class RocksDBProperties {
+
+    // orçamento total off-heap (block cache + memtables)
+    private long totalOffHeapBytes = 256 * 1024 * 1024L;
+    // parte do orçamento reservada para memtables
+    private long totalMemtableBytes = 64 * 1024 * 1024L;
+    // fração do cache com prioridade alta para index/filter
+    private double indexFilterBlockRatio = 0.1;
+    private double bloomBitsPerKey = 10;
+    // DEBUG habilita métricas de compactação/statistics do RocksDB (com custo)
+    private String metricsRecordingLevel = "INFO";
+    private Map<String, StoreOverride> stores = new HashMap<>();
+
+    public Map<String, Object> toStreamsConfig() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(BoundedMemoryRocksDBConfigSetter.TOTAL_OFF_HEAP_CONFIG, totalOffHeapBytes);
+        props.put(BoundedMemoryRocksDBConfigSetter.TOTAL_MEMTABLE_CONFIG, totalMemtableBytes);
+        props.put(BoundedMemoryRocksDBConfigSetter.INDEX_FILTER_RATIO_CONFIG, indexFilterBlockRatio);
+        props.put(BoundedMemoryRocksDBConfigSetter.BLOOM_BITS_PER_KEY_CONFIG, bloomBitsPerKey);
+
+        stores.forEach((storeName, override) -> {
+            var prefix = BoundedMemoryRocksDBConfigSetter.STORE_OVERRIDE_PREFIX + storeName + ".";
+            if (override.getWriteBufferSize() != null) {
+                props.put(prefix + BoundedMemoryRocksDBConfigSetter.WRITE_BUFFER_SIZE, override.getWriteBufferSize());
+            }
+            if (override.getMaxWriteBuffers() != null) {
+                props.put(prefix + BoundedMemoryRocksDBConfigSetter.MAX_WRITE_BUFFERS, override.getMaxWriteBuffers());
+            }
+            if (override.getBloomBitsPerKey() != null) {
+                props.put(prefix + BoundedMemoryRocksDBConfigSetter.BLOOM_BITS_PER_KEY, override.getBloomBitsPerKey());
+            }
+            if (override.getBlockSize() != null) {
+                props.put(prefix + BoundedMemoryRocksDBConfigSetter.BLOCK_SIZE, override.getBlockSize());
+            }
+        });
+
+        return props;
+    }
+
+    @Data
+    public static class StoreOverride {
+        private Long writeBufferSize;
+        private Integer maxWriteBuffers;
+        private Double bloomBitsPerKey;
+        private Long blockSize;
+    }
+}
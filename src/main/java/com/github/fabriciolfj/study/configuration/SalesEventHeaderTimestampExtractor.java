@@ -0,0 +1,49 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Extrai o event time do header "event_time_ms" (long big-endian de 8 bytes),
+ * sem tocar no valor do registro.
+ *
+ * Sem header válido cai para o event_time_ms do SalesEvent e, se também não
+ * houver, usa o timestamp do próprio registro. Eventos sem event time não
+ * vão para a janela 0: a topologia os separa e manda para o DLQ.
+ */
+public class SalesEventHeaderTimestampExtractor implements TimestampExtractor {
+
+    public static final String EVENT_TIME_HEADER = "event_time_ms";
+
+    @Override
+    public long extract(ConsumerRecord<Object, Object> record, long partitionTime) {
+        final long headerTime = readEventTime(record.headers());
+        if (headerTime >= 0) {
+            return headerTime;
+        }
+
+        if (record.value() instanceof SalesEvent salesEvent && salesEvent.hasEventTime()) {
+            return salesEvent.getEventTime();
+        }
+
+        return record.timestamp() >= 0 ? record.timestamp() : partitionTime;
+    }
+
+    public static long readEventTime(final Headers headers) {
+        final Header header = headers.lastHeader(EVENT_TIME_HEADER);
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return SalesEvent.NO_EVENT_TIME;
+        }
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    public static void writeEventTime(final Headers headers, final long eventTimeMillis) {
+        headers.remove(EVENT_TIME_HEADER);
+        headers.add(EVENT_TIME_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(eventTimeMillis).array());
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.entity.SalesAggregator;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Named;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+
+/**
+ * Combine do lado do mapa antes do groupBy por usuário.
+ *
+ * Em vez de republicar cada SalesEvent no tópico de repartição, acumula um SalesAggregator
+ * parcial por usuário e encaminha só os parciais a cada flushInterval (wall clock). A
+ * agregação final junta os parciais com SalesAggregator.merge.
+ *
+ * - o buffer é um store em memória com cache e changelog: parciais não encaminhados
+ *   sobrevivem a um crash, e o cache reduz o changelog a uma escrita por usuário por commit
+ * - um parcial cobre no máximo flushInterval de event time; um evento fora desse intervalo
+ *   encaminha o parcial anterior antes, para não deslocar janelas a jusante
+ * - o timestamp do parcial é o do último evento (como os agregados do Kafka Streams)
+ */
+public class SalesPreAggregationProcessor implements Processor<String, SalesEvent, String, SalesAggregator> {
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    public static final int DEFAULT_MAX_BUFFERED_USERS = 10_000;
+
+    private final String storeName;
+    private final Duration flushInterval;
+    private final int maxBufferedUsers;
+
+    private ProcessorContext<String, SalesAggregator> context;
+    private KeyValueStore<String, SalesAggregator> buffer;
+    private int bufferedUsers;
+
+    public SalesPreAggregationProcessor(final String storeName, final Duration flushInterval, final int maxBufferedUsers) {
+        this.storeName = storeName;
+        this.flushInterval = flushInterval;
+        this.maxBufferedUsers = maxBufferedUsers;
+    }
+
+    /*
+     * Parciais por usuário do stream de vendas. O key passa a ser o userId, então o
+     * groupByKey seguinte reparticiona só os parciais.
+     */
+    public static KStream<String, SalesAggregator> userPartials(final KStream<String, SalesEvent> salesStream,
+                                                                final String name,
+                                                                final Duration flushInterval) {
+        final String storeName = name + "-buffer";
+        final ProcessorSupplier<String, SalesEvent, String, SalesAggregator> supplier = new ProcessorSupplier<>() {
+            @Override
+            public Processor<String, SalesEvent, String, SalesAggregator> get() {
+                return new SalesPreAggregationProcessor(storeName, flushInterval, DEFAULT_MAX_BUFFERED_USERS);
+            }
+
+            @Override
+            public Set<StoreBuilder<?>> stores() {
+                return Set.of(bufferStoreBuilder(storeName));
+            }
+        };
+        return salesStream.process(supplier, Named.as(name));
+    }
+
+    public static StoreBuilder<KeyValueStore<String, SalesAggregator>> bufferStoreBuilder(final String storeName) {
+        return Stores.keyValueStoreBuilder(
+                        Stores.inMemoryKeyValueStore(storeName),
+                        Serdes.String(),
+                        SalesSerdes.salesAggregator())
+                .withCachingEnabled();
+    }
+
+    @Override
+    public void init(final ProcessorContext<String, SalesAggregator> context) {
+        this.context = context;
+        this.buffer = context.getStateStore(storeName);
+        // parciais restaurados do changelog saem no primeiro flush
+        this.bufferedUsers = (int) Math.min(Integer.MAX_VALUE, buffer.approximateNumEntries());
+        context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, timestamp -> flush());
+    }
+
+    @Override
+    public void process(final Record<String, SalesEvent> record) {
+        var salesEvent = record.value();
+        if (salesEvent == null || salesEvent.getUserId() == null) {
+            return;
+        }
+
+        final String userId = salesEvent.getUserId();
+        var partial = buffer.get(userId);
+        if (partial != null && exceedsSpan(partial, record.timestamp())) {
+            forward(userId, partial);
+            partial = null;
+        }
+        if (partial == null) {
+            partial = new SalesAggregator();
+            bufferedUsers++;
+        }
+
+        buffer.put(userId, partial.addSale(salesEvent.getAmount(), record.timestamp()));
+
+        if (bufferedUsers >= maxBufferedUsers) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        final var flushed = new ArrayList<KeyValue<String, SalesAggregator>>(bufferedUsers);
+        try (var iterator = buffer.all()) {
+            iterator.forEachRemaining(flushed::add);
+        }
+        flushed.forEach(entry -> forward(entry.key, entry.value));
+        bufferedUsers = 0;
+    }
+
+    // evento (inclusive atrasado) que esticaria o parcial além de flushInterval de event time
+    private boolean exceedsSpan(final SalesAggregator partial, final long timestamp) {
+        final long first = Math.min(partial.getFirstSaleTimestamp(), timestamp);
+        final long last = Math.max(partial.getLastSaleTimestamp(), timestamp);
+        return last - first >= flushInterval.toMillis();
+    }
+
+    private void forward(final String userId, final SalesAggregator partial) {
+        context.forward(new Record<>(userId, partial, partial.getLastSaleTimestamp()));
+        buffer.delete(userId);
+        bufferedUsers--;
+    }
+}
@@ -2,13 +2,17 @@ package com.github.fabriciolfj.study.configuration;
 
 
 import com.github.fabriciolfj.study.entity.SalesEvent;
+import com.github.fabriciolfj.study.store.LruFrontedKeyValueBytesStoreSupplier;
+import com.github.fabriciolfj.study.store.SalesTotalsStoreType;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.processor.PunctuationType;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
 import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
 import org.apache.kafka.streams.state.Stores;
 import org.springframework.context.annotation.Bean;
 
@@ -16,13 +20,17 @@ import java.time.Duration;
 
 public class SalesProcessor implements Processor<String, SalesEvent, String, Double> {
 
+    public static final String STORE_NAME = "sales-totals";
+    // orçamento padrão do front em heap quando LRU_FRONTED (64 MB)
+    public static final long DEFAULT_LRU_MAX_BYTES = 64 * 1024 * 1024L;
+
     private ProcessorContext<String, Double> context;
     private KeyValueStore<String, Double> stateStore;
 
     @Override
     public void init(ProcessorContext<String, Double> context) {
         this.context = context;
-        this.stateStore = context.getStateStore("sales-totals");
+        this.stateStore = context.getStateStore(STORE_NAME);
 
         // Schedule punctuation a cada 30 segundos
         context.schedule(Duration.ofSeconds(30), PunctuationType.WALL_CLOCK_TIME,
@@ -58,29 +66,53 @@ public class SalesProcessor implements Processor<String, SalesEvent, String, Dou
     // 2. Construção da Topologia
     @Bean
     public Topology processorTopology() {
-        Topology topology = new Topology();
+        return processorTopology(SalesTotalsStoreType.ROCKSDB, DEFAULT_LRU_MAX_BYTES);
+    }
 
-        // Source
-        topology.addSource("sales-source", "sales-events");
+    public static Topology processorTopology(final SalesTotalsStoreType storeType, final long lruMaxBytes) {
+        return processorTopology(new Topology(), storeType, lruMaxBytes);
+    }
 
-        // State Store
-        topology.addStateStore(
-                Stores.keyValueStoreBuilder(
-                        Stores.persistentKeyValueStore("sales-totals"),
-                        Serdes.String(),
-                        Serdes.Double()),
-                "sales-processor");
+    // Monta em uma Topology existente (criada com TopologyConfig, por exemplo, para o replay offline)
+    public static Topology processorTopology(final Topology topology, final SalesTotalsStoreType storeType,
+                                             final long lruMaxBytes) {
+        // Source
+        topology.addSource("sales-source",
+                Serdes.String().deserializer(),
+                SalesSerdes.salesEvent().deserializer(),
+                "sales-events");
 
         // Processor
         topology.addProcessor("sales-processor",
                 () -> new SalesProcessor(),
                 "sales-source");
 
+        // State Store
+        topology.addStateStore(salesTotalsStoreBuilder(storeType, lruMaxBytes), "sales-processor");
+
         // Sink
         topology.addSink("high-value-sink",
                 "high-value-customers",
+                Serdes.String().serializer(),
+                Serdes.Double().serializer(),
                 "sales-processor");
 
         return topology;
     }
+
+    public static StoreBuilder<KeyValueStore<String, Double>> salesTotalsStoreBuilder(final SalesTotalsStoreType storeType,
+                                                                                      final long lruMaxBytes) {
+        final KeyValueBytesStoreSupplier rocksDb = Stores.persistentKeyValueStore(STORE_NAME);
+
+        return switch (storeType) {
+            case ROCKSDB -> Stores.keyValueStoreBuilder(rocksDb, Serdes.String(), Serdes.Double());
+            case CACHED -> Stores.keyValueStoreBuilder(rocksDb, Serdes.String(), Serdes.Double())
+                    .withCachingEnabled();
+            case LRU_FRONTED -> Stores.keyValueStoreBuilder(
+                            new LruFrontedKeyValueBytesStoreSupplier(rocksDb, lruMaxBytes),
+                            Serdes.String(),
+                            Serdes.Double())
+                    .withCachingDisabled();
+        };
+    }
 }
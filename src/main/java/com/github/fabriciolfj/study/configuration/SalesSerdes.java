@@ -0,0 +1,81 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.fabriciolfj.study.entity.SalesAggregator;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import com.github.fabriciolfj.study.entity.TopProducts;
+import com.github.fabriciolfj.study.sketch.HyperLogLog;
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * Serdes JSON dos eventos de vendas usados pelas topologias.
+ *
+ * O ObjectMapper é thread-safe depois de configurado, então uma única
+ * instância é compartilhada em vez de criar uma por registro.
+ */
+public final class SalesSerdes {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private SalesSerdes() {}
+
+    public static Serde<SalesEvent> salesEvent() {
+        return json(SalesEvent.class);
+    }
+
+    public static Serde<SalesAggregator> salesAggregator() {
+        return json(SalesAggregator.class);
+    }
+
+    // binário compacto (esparso/denso), não JSON: o sketch vai inteiro para o store a cada update
+    public static Serde<HyperLogLog> hyperLogLog() {
+        return Serdes.serdeFrom(
+                (topic, data) -> data == null ? null : data.toBytes(),
+                (topic, data) -> data == null ? null : HyperLogLog.fromBytes(data));
+    }
+
+    public static Serde<SpaceSaving> spaceSaving() {
+        return Serdes.serdeFrom(
+                (topic, data) -> data == null ? null : data.toBytes(),
+                (topic, data) -> data == null ? null : SpaceSaving.fromBytes(data));
+    }
+
+    public static Serde<TopProducts> topProducts() {
+        return json(TopProducts.class);
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    private static <T> Serde<T> json(final Class<T> type) {
+        return Serdes.serdeFrom(
+                (topic, data) -> {
+                    if (data == null) {
+                        return null;
+                    }
+                    try {
+                        return MAPPER.writeValueAsBytes(data);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error serializing " + type.getSimpleName(), e);
+                    }
+                },
+                (topic, data) -> {
+                    if (data == null) {
+                        return null;
+                    }
+                    try {
+                        return MAPPER.readValue(data, type);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error deserializing " + type.getSimpleName(), e);
+                    }
+                }
+        );
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.sketch.HyperLogLog;
+
+import java.time.Duration;
+
+/**
+ * Opções da topologia de janelas de vendas.
+ *
+ * @param emitMode               emissão da janela de 1 minuto
+ * @param suppressBufferMaxBytes limite do buffer do suppress (SUPPRESS_FINAL); ao encher a task para
+ *                               em vez de emitir cedo, já que untilWindowCloses garante um único resultado
+ * @param binaryWindowKeys       chave de saída como Windowed&lt;String&gt; binário (chave + início da janela)
+ *                               em vez de "key@startTime"
+ * @param distinctBuyersPrecision precisão do HyperLogLog de compradores distintos por janela
+ *                                (2^precision bytes por janela, erro padrão ~1.04/sqrt(2^precision))
+ * @param topProductsK            produtos publicados por loja/janela em sales-top-products; o sketch
+ *                                guarda TOP_PRODUCTS_CAPACITY_FACTOR * K contadores, qualquer que seja o catálogo
+ * @param preAggregationInterval  combine por usuário antes do groupBy das sessões (ZERO desliga);
+ *                                só parciais vão para o tópico de repartição
+ */
+public record SalesWindowingOptions(WindowEmitMode emitMode,
+                                    long suppressBufferMaxBytes,
+                                    boolean binaryWindowKeys,
+                                    int distinctBuyersPrecision,
+                                    int topProductsK,
+                                    Duration preAggregationInterval) {
+
+    public static final int DEFAULT_TOP_PRODUCTS_K = 10;
+    public static final int TOP_PRODUCTS_CAPACITY_FACTOR = 8;
+
+    public static SalesWindowingOptions defaults() {
+        return new SalesWindowingOptions(WindowEmitMode.EVERY_UPDATE, 32 * 1024 * 1024L, false,
+                HyperLogLog.DEFAULT_PRECISION, DEFAULT_TOP_PRODUCTS_K, Duration.ZERO);
+    }
+
+    public static SalesWindowingOptions finalResults(final WindowEmitMode emitMode) {
+        return new SalesWindowingOptions(emitMode, 32 * 1024 * 1024L, true, HyperLogLog.DEFAULT_PRECISION,
+                DEFAULT_TOP_PRODUCTS_K, Duration.ZERO);
+    }
+
+    public SalesWindowingOptions withDistinctBuyersPrecision(final int precision) {
+        return new SalesWindowingOptions(emitMode, suppressBufferMaxBytes, binaryWindowKeys, precision, topProductsK,
+                preAggregationInterval);
+    }
+
+    public SalesWindowingOptions withTopProductsK(final int k) {
+        return new SalesWindowingOptions(emitMode, suppressBufferMaxBytes, binaryWindowKeys, distinctBuyersPrecision, k,
+                preAggregationInterval);
+    }
+
+    public SalesWindowingOptions withPreAggregation(final Duration interval) {
+        return new SalesWindowingOptions(emitMode, suppressBufferMaxBytes, binaryWindowKeys, distinctBuyersPrecision,
+                topProductsK, interval);
+    }
+
+    public int topProductsCapacity() {
+        return topProductsK * TOP_PRODUCTS_CAPACITY_FACTOR;
+    }
+}
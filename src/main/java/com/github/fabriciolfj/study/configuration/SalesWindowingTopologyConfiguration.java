@@ -0,0 +1,47 @@
+package com.github.fabriciolfj.study.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+ * Registra a topologia de janelas de vendas no StreamsBuilder da aplicação, para que os
+ * stores (compradores distintos, top produtos) fiquem disponíveis para interactive queries.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "topology.sales-windowing", name = "enabled", havingValue = "true")
+public class SalesWindowingTopologyConfiguration {
+
+    private final StreamsBuilder streamsBuilder;
+
+    @Value("${topology.sales-windowing.emit-mode:EVERY_UPDATE}")
+    private WindowEmitMode emitMode;
+    @Value("${topology.sales-windowing.distinct-buyers-precision:12}")
+    private int distinctBuyersPrecision;
+    @Value("${topology.sales-windowing.top-products-k:10}")
+    private int topProductsK;
+    @Value("${topology.sales-windowing.pre-aggregation-interval:PT0S}")
+    private Duration preAggregationInterval;
+
+    @Autowired
+    public void salesWindowingTopology() {
+        var options = (emitMode == WindowEmitMode.EVERY_UPDATE
+                ? SalesWindowingOptions.defaults()
+                : SalesWindowingOptions.finalResults(emitMode))
+                .withDistinctBuyersPrecision(distinctBuyersPrecision)
+                .withTopProductsK(topProductsK)
+                .withPreAggregation(preAggregationInterval);
+
+        log.info("sales windowing topology: emitMode={}, distinctBuyersPrecision={}, topProductsK={}, preAggregation={}",
+                emitMode, distinctBuyersPrecision, topProductsK, preAggregationInterval);
+        new StreamsTopologyWindowing(options).build(streamsBuilder);
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.fabriciolfj.study.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Migra o primário e resolve as réplicas (verify ou migrate) fora da thread do contexto.
+ *
+ * start() dispara tudo em virtual threads e devolve na hora; o SchemaStartupVerifier
+ * espera o resultado antes de validar o schema. O resultado é o fingerprint do histórico
+ * aplicado no primário, igual em todas as réplicas.
+ *
+ * Métrica schema.startup{phase=migrate|replicas}.
+ */
+@Slf4j
+public class SchemaMigrator {
+
+    private final Flyway primary;
+    private final Map<String, Flyway> replicas;
+    private final SchemaStartupProperties properties;
+    private final MeterRegistry meterRegistry;
+    private volatile CompletableFuture<String> result;
+
+    public SchemaMigrator(final Flyway primary, final Map<String, Flyway> replicas,
+                          final SchemaStartupProperties properties, final MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+    }
+
+    public synchronized CompletableFuture<String> start() {
+        if (result != null) {
+            return result;
+        }
+        final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        if (properties.getReplicaMode() == SchemaStartupProperties.ReplicaMode.MIGRATE) {
+            final CompletableFuture<String> primaryMigration = CompletableFuture.supplyAsync(this::migrate, executor);
+            final List<CompletableFuture<Void>> replicaMigrations = new ArrayList<>();
+            replicas.forEach((name, flyway) -> replicaMigrations.add(CompletableFuture.runAsync(
+                    () -> timed("replicas", flyway::migrate), executor)));
+            result = CompletableFuture.allOf(replicaMigrations.toArray(CompletableFuture[]::new))
+                    .thenCombine(primaryMigration, (ignored, fingerprint) -> fingerprint)
+                    .thenApplyAsync(fingerprint -> {
+                        replicas.forEach((name, flyway) -> awaitReplica(name, flyway, fingerprint));
+                        return fingerprint;
+                    }, executor);
+        } else {
+            result = CompletableFuture.supplyAsync(this::migrate, executor)
+                    .thenComposeAsync(fingerprint -> {
+                        final List<CompletableFuture<Void>> checks = new ArrayList<>();
+                        replicas.forEach((name, flyway) -> checks.add(CompletableFuture.runAsync(
+                                () -> timed("replicas", () -> awaitReplica(name, flyway, fingerprint)), executor)));
+                        return CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new))
+                                .thenApply(ignored -> fingerprint);
+                    }, executor);
+        }
+        result.whenComplete((fingerprint, error) -> executor.shutdown());
+        return result;
+    }
+
+    private String migrate() {
+        timed("migrate", () -> {
+            final var migration = primary.migrate();
+            log.info("flyway primary: {} migrations executed, schema version {}",
+                    migration.migrationsExecuted, migration.targetSchemaVersion);
+        });
+        return fingerprint(primary);
+    }
+
+    // a réplica pode estar atrás do primário até aplicar o WAL das migrations
+    private void awaitReplica(final String name, final Flyway flyway, final String expected) {
+        final long deadline = System.nanoTime() + properties.getReplicaTimeout().toNanos();
+        String actual = null;
+        RuntimeException lastError = null;
+        do {
+            try {
+                actual = fingerprint(flyway);
+                if (actual.equals(expected)) {
+                    log.info("flyway replica {}: schema matches primary", name);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                lastError = e;
+            }
+            try {
+                Thread.sleep(Duration.ofMillis(500));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        } while (System.nanoTime() < deadline);
+
+        throw new IllegalStateException("Replica " + name + " schema " + actual + " does not match primary "
+                + expected + " after " + properties.getReplicaTimeout(), lastError);
+    }
+
+    static String fingerprint(final Flyway flyway) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (MigrationInfo info : flyway.info().applied()) {
+                final String line = info.getVersion() + "|" + info.getDescription() + "|"
+                        + info.getChecksum() + "|" + info.getState().isFailed() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void timed(final String phase, final Runnable action) {
+        Timer.builder("schema.startup")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(action);
+    }
+}
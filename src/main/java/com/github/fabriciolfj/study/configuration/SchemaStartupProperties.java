@@ -0,0 +1,35 @@
+package com.github.fabriciolfj.study.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Como o schema fica pronto no startup (SchemaMigrator + SchemaStartupVerifier).
+ *
+ * - replicaMode VERIFY: Flyway migra só o primário; nas réplicas (read e
+ *   datasource.routing.replicas) confere em paralelo o histórico do Flyway contra o do
+ *   primário, esperando até replicaTimeout pelo replay. É o modo de réplica física
+ *   (read-only), onde o migrate falharia.
+ * - replicaMode MIGRATE: cada réplica roda o próprio migrate, em paralelo com o primário;
+ *   para bancos independentes como os dois postgres do compose.yaml.
+ * - parallelBootstrap: o metamodelo do Hibernate é montado em outra thread enquanto o
+ *   Flyway roda; o validate do schema só acontece depois dos dois.
+ * - validationCache: arquivo com o fingerprint (migrations + classes das entidades +
+ *   versão do Hibernate) do último validate com sucesso. Se bater, o validate é pulado.
+ *   Vazio desliga; um treino de CDS/AOT pode deixar o arquivo pronto na imagem.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "schema.startup")
+public class SchemaStartupProperties {
+
+    public enum ReplicaMode { VERIFY, MIGRATE }
+
+    private ReplicaMode replicaMode = ReplicaMode.VERIFY;
+    private Duration replicaTimeout = Duration.ofSeconds(30);
+    private boolean parallelBootstrap = true;
+    private String validationCache;
+}
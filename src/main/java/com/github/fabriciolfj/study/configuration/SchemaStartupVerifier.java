@@ -0,0 +1,142 @@
+package com.github.fabriciolfj.study.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.ManagedType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Version;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fecha o startup do schema depois de todos os singletons: espera o SchemaMigrator, e
+ * então valida o mapeamento JPA contra o banco (o hbm2ddl validate saiu do bootstrap do
+ * Hibernate para poder montar o metamodelo em paralelo com o Flyway).
+ *
+ * Roda antes do web server e dos listeners subirem, então nada recebe tráfego com schema
+ * pela metade. Com o fingerprint igual ao de validationCache o validate é pulado; alteração
+ * de schema fora do Flyway não é detectada nesse caso.
+ *
+ * Métrica schema.startup{phase=await|validate|cached}; o tempo total até o ready continua
+ * em application.ready.time.
+ */
+@Slf4j
+public class SchemaStartupVerifier implements SmartInitializingSingleton {
+
+    private final SchemaMigrator migrator;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SchemaStartupProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SchemaStartupVerifier(final SchemaMigrator migrator,
+                                 final EntityManagerFactory entityManagerFactory,
+                                 final SchemaStartupProperties properties,
+                                 final MeterRegistry meterRegistry) {
+        this.migrator = migrator;
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final long start = System.nanoTime();
+        final String migrations;
+        try {
+            migrations = migrator.start().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        record("await", start);
+
+        final long validateStart = System.nanoTime();
+        final String fingerprint = fingerprint(migrations);
+        final Path cache = cachePath();
+        if (cache != null && fingerprint.equals(read(cache))) {
+            record("cached", validateStart);
+            log.info("schema ready (validation cached) in {}ms", elapsedMillis(start));
+            return;
+        }
+
+        entityManagerFactory.getSchemaManager().validate();
+        record("validate", validateStart);
+        if (cache != null) {
+            write(cache, fingerprint);
+        }
+        log.info("schema ready (validated) in {}ms", elapsedMillis(start));
+    }
+
+    // migrations aplicadas + bytecode de cada entidade (anotações de mapeamento incluídas)
+    private String fingerprint(final String migrations) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(migrations.getBytes(StandardCharsets.UTF_8));
+            digest.update(Version.getVersionString().getBytes(StandardCharsets.UTF_8));
+            entityManagerFactory.getMetamodel().getManagedTypes().stream()
+                    .map(ManagedType::getJavaType)
+                    .sorted(Comparator.comparing(Class::getName))
+                    .forEach(type -> digest.update(bytecode(type)));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytecode(final Class<?> type) {
+        try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            return in != null ? in.readAllBytes() : type.getName().getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path cachePath() {
+        final String location = properties.getValidationCache();
+        return location == null || location.isBlank() ? null : Path.of(location);
+    }
+
+    private static String read(final Path cache) {
+        try {
+            return Files.exists(cache) ? Files.readString(cache).trim() : null;
+        } catch (IOException e) {
+            log.warn("schema validation cache {} unreadable: {}", cache, e.toString());
+            return null;
+        }
+    }
+
+    private static void write(final Path cache, final String fingerprint) {
+        try {
+            if (cache.getParent() != null) {
+                Files.createDirectories(cache.getParent());
+            }
+            Files.writeString(cache, fingerprint);
+        } catch (IOException e) {
+            log.warn("schema validation cache {} not written: {}", cache, e.toString());
+        }
+    }
+
+    private void record(final String phase, final long start) {
+        Timer.builder("schema.startup")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
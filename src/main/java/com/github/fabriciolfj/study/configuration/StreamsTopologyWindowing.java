@@ -1,55 +1,171 @@
 package com.github.fabriciolfj.study.configuration;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.fabriciolfj.study.entity.SalesAggregator;
 import com.github.fabriciolfj.study.entity.SalesEvent;
+import com.github.fabriciolfj.study.entity.TopProducts;
+import com.github.fabriciolfj.study.sketch.HyperLogLog;
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.kstream.*;
 import org.apache.kafka.streams.processor.TimestampExtractor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.WindowStore;
 import org.springframework.context.annotation.Bean;
 import java.time.Duration;
 
 public class StreamsTopologyWindowing {
 
+    public static final String SALES_EVENTS_DLQ = "sales-events-dlq";
+    public static final String DISTINCT_BUYERS_STORE = "distinct-buyers-store";
+    public static final String TOP_PRODUCTS_STORE = "top-products-store";
+    public static final String SALES_TOP_PRODUCTS = "sales-top-products";
+    private static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+
+    private final SalesWindowingOptions options;
+
+    public StreamsTopologyWindowing() {
+        this(SalesWindowingOptions.defaults());
+    }
+
+    public StreamsTopologyWindowing(final SalesWindowingOptions options) {
+        this.options = options;
+    }
+
     @Bean
     public Topology buildTopology() {
         StreamsBuilder builder = new StreamsBuilder();
+        build(builder);
+        return builder.build();
+    }
 
+    // Monta a topologia em um builder existente (o StreamsBuilder do Spring, por exemplo)
+    public void build(final StreamsBuilder builder) {
         // Stream de entrada com eventos de vendas
-        KStream<String, SalesEvent> salesStream = builder
+        KStream<String, SalesEvent> rawSalesStream = builder
                 .stream("sales-events",
                         Consumed.with(Serdes.String(), salesEventSerde())
-                                // Extrator customizado de timestamp do campo do evento
-                                .withTimestampExtractor(new SalesEventTimestampExtractor()));
+                                // event time vem do header, sem depender do valor
+                                .withTimestampExtractor(new SalesEventHeaderTimestampExtractor()));
+
+        // Eventos malformados (sem event time, usuário ou valor) vão para o DLQ
+        // em vez de cair na janela 0
+        var branches = rawSalesStream
+                .processValues(EventTimeHeaderEnricher::new, Named.as("sales-event-time-from-header"))
+                .split(Named.as("sales-"))
+                .branch((key, salesEvent) -> salesEvent != null && salesEvent.isValidEvent(), Branched.as("valid"))
+                .defaultBranch(Branched.as("invalid"));
+
+        branches.get("sales-invalid")
+                .to(SALES_EVENTS_DLQ, Produced.with(Serdes.String(), salesEventSerde()));
+
+        KStream<String, SalesEvent> salesStream = branches.get("sales-valid");
 
         // Agregação em janelas de tempo fixas de 1 minuto
-        KTable<Windowed<String>, Double> salesByMinute = salesStream
+        TimeWindowedKStream<String, SalesEvent> minuteWindows = salesStream
                 .groupByKey()
-                .windowedBy(TimeWindows.ofSizeAndGrace(Duration.ofMinutes(1), Duration.ofSeconds(30)))
+                .windowedBy(TimeWindows.ofSizeAndGrace(ONE_MINUTE, Duration.ofSeconds(30)));
+        if (options.emitMode() == WindowEmitMode.ON_WINDOW_CLOSE) {
+            minuteWindows = minuteWindows.emitStrategy(EmitStrategy.onWindowClose());
+        }
+
+        KTable<Windowed<String>, Double> salesByMinute = minuteWindows
                 .aggregate(
                         () -> 0.0,
                         (key, salesEvent, aggregate) -> aggregate + salesEvent.getAmount(),
                         Materialized.with(Serdes.String(), Serdes.Double()));
 
-        // Stream resultante das agregações
-        salesByMinute.toStream()
-                .map((windowedKey, totalSales) -> KeyValue.pair(
-                        windowedKey.key() + "@" + windowedKey.window().startTime(),
-                        totalSales))
-                .to("sales-aggregated", Produced.with(Serdes.String(), Serdes.Double()));
+        // Stream resultante das agregações: um update por evento ou só o resultado final da janela
+        KStream<Windowed<String>, Double> minuteResults = options.emitMode() == WindowEmitMode.SUPPRESS_FINAL
+                ? salesByMinute
+                        .suppress(Suppressed.untilWindowCloses(
+                                        Suppressed.BufferConfig.maxBytes(options.suppressBufferMaxBytes()).shutDownWhenFull())
+                                .withName("sales-by-minute-final"))
+                        .toStream()
+                : salesByMinute.toStream();
+
+        if (options.binaryWindowKeys()) {
+            minuteResults.to("sales-aggregated",
+                    Produced.with(WindowedSerdes.timeWindowedSerdeFrom(String.class, ONE_MINUTE.toMillis()), Serdes.Double()));
+        } else {
+            minuteResults
+                    .map((windowedKey, totalSales) -> KeyValue.pair(
+                            windowedKey.key() + "@" + windowedKey.window().startTime(),
+                            totalSales))
+                    .to("sales-aggregated", Produced.with(Serdes.String(), Serdes.Double()));
+        }
+
+        // Compradores distintos por loja/categoria em janelas de 1 minuto: um HyperLogLog
+        // por janela em vez do conjunto exato de usuários, memória fixa de 2^precision bytes
+        final int precision = options.distinctBuyersPrecision();
+        salesStream
+                .groupBy((key, salesEvent) -> salesEvent.getWindowKey(),
+                        Grouped.with("sales-by-window-key", Serdes.String(), salesEventSerde()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(ONE_MINUTE, Duration.ofSeconds(30)))
+                .aggregate(
+                        () -> new HyperLogLog(precision),
+                        (windowKey, salesEvent, hll) -> hll.add(salesEvent.getUserId()),
+                        Materialized.<String, HyperLogLog, WindowStore<Bytes, byte[]>>as(DISTINCT_BUYERS_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(SalesSerdes.hyperLogLog()));
+
+        // Top-K produtos por loja em janelas de 1 minuto: um único Space-Saving por loja/janela
+        // em vez de groupBy(productId) + ordenação. sales-events já é chaveado por loja (mesma
+        // chave da janela de 1 minuto), então groupByKey não reparticiona
+        final int topK = options.topProductsK();
+        final int topCapacity = options.topProductsCapacity();
+        TimeWindowedKStream<String, SalesEvent> topProductWindows = salesStream
+                .groupByKey(Grouped.with("sales-by-store", Serdes.String(), salesEventSerde()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(ONE_MINUTE, Duration.ofSeconds(30)));
+        if (options.emitMode() != WindowEmitMode.EVERY_UPDATE) {
+            // a lista inteira é publicada a cada update; nos modos de resultado final só no fechamento
+            topProductWindows = topProductWindows.emitStrategy(EmitStrategy.onWindowClose());
+        }
+
+        topProductWindows
+                .aggregate(
+                        () -> new SpaceSaving(topCapacity),
+                        (storeId, salesEvent, sketch) -> sketch.add(salesEvent.getProductId(), salesEvent.getAmount()),
+                        Materialized.<String, SpaceSaving, WindowStore<Bytes, byte[]>>as(TOP_PRODUCTS_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(SalesSerdes.spaceSaving()))
+                .toStream()
+                .map((windowedKey, sketch) -> KeyValue.pair(
+                        windowedKey.key(),
+                        new TopProducts(windowedKey.key(), windowedKey.window().startTime(),
+                                windowedKey.window().endTime(), sketch.top(topK))))
+                .to(SALES_TOP_PRODUCTS, Produced.with(Serdes.String(), SalesSerdes.topProducts()));
 
         // Session windows para detectar sessões de compra do mesmo usuário
-        KTable<Windowed<String>, Long> userSessions = salesStream
-                .groupBy((key, salesEvent) -> salesEvent.getUserId())
-                .windowedBy(SessionWindows.ofInactivityGapWithNoGrace(Duration.ofMinutes(10))) // 10min de inatividade
-                .count();
+        final SessionWindows sessionWindows = SessionWindows.ofInactivityGapWithNoGrace(Duration.ofMinutes(10)); // 10min de inatividade
+        KTable<Windowed<String>, Long> userSessions;
+        if (options.preAggregationInterval().isZero()) {
+            userSessions = salesStream
+                    .groupBy((key, salesEvent) -> salesEvent.getUserId(),
+                            Grouped.with("sales-by-user", Serdes.String(), salesEventSerde()))
+                    .windowedBy(sessionWindows)
+                    .count();
+        } else {
+            // só os parciais por usuário passam pela repartição; a sessão soma as contagens
+            userSessions = SalesPreAggregationProcessor
+                    .userPartials(salesStream, "sales-user-pre-aggregation", options.preAggregationInterval())
+                    .groupByKey(Grouped.with("sales-by-user", Serdes.String(), salesAggregatorSerde()))
+                    .windowedBy(sessionWindows)
+                    .aggregate(
+                            SalesAggregator::new,
+                            (userId, partial, aggregator) -> aggregator.merge(partial),
+                            (userId, left, right) -> left.merge(right),
+                            Materialized.with(Serdes.String(), salesAggregatorSerde()))
+                    .mapValues(SalesAggregator::getCount);
+        }
 
         userSessions.toStream()
                 .map((sessionKey, count) -> KeyValue.pair(
@@ -73,8 +189,6 @@ public class StreamsTopologyWindowing {
 
         movingAverage.toStream()
                 .to("sales-moving-average", Produced.with(windowedSerde(), Serdes.Double()));
-
-        return builder.build();
     }
 
     private Serde<Windowed<String>> windowedSerde() {
@@ -82,60 +196,47 @@ public class StreamsTopologyWindowing {
     }
 
     private Serde<SalesAggregator> salesAggregatorSerde() {
-        return Serdes.serdeFrom(
-                (topic, data) -> {
-                    try {
-                        ObjectMapper mapper = new ObjectMapper();
-                       // mapper.registerModule(new JavaTimeModule());
-                        return mapper.writeValueAsBytes(data);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error serializing SalesAggregator", e);
-                    }
-                },
-                (topic, data) -> {
-                    try {
-                        ObjectMapper mapper = new ObjectMapper();
-                       // mapper.registerModule(new JavaTimeModule());
-                        return mapper.readValue(data, SalesAggregator.class);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error deserializing SalesAggregator", e);
-                    }
-                }
-        );
+        return SalesSerdes.salesAggregator();
     }
 
     private Serde<SalesEvent> salesEventSerde() {
-        return Serdes.serdeFrom(
-                (topic, data) -> {
-                    try {
-                        ObjectMapper mapper = new ObjectMapper();
-                       // mapper.registerModule(new JavaTimeModule());
-                        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-                        return mapper.writeValueAsBytes(data);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error serializing SalesEvent", e);
-                    }
-                },
-                (topic, data) -> {
-                    try {
-                        ObjectMapper mapper = new ObjectMapper();
-                       // mapper.registerModule(new JavaTimeModule());
-                        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-                        return mapper.readValue(data, SalesEvent.class);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error deserializing SalesEvent", e);
-                    }
-                }
-        );
+        return SalesSerdes.salesEvent();
     }
 
-    // Extrator customizado de timestamp
+    // Extrator customizado de timestamp (a partir do valor)
     public static class SalesEventTimestampExtractor implements TimestampExtractor {
         @Override
         public long extract(ConsumerRecord<Object, Object> record, long partitionTime) {
-            SalesEvent salesEvent = (SalesEvent) record.value();
-            // Usa o timestamp do evento, não do processamento
-            return salesEvent.getEventTime();
+            // Usa o timestamp do evento (epoch millis já calculado), não do processamento
+            if (record.value() instanceof SalesEvent salesEvent && salesEvent.hasEventTime()) {
+                return salesEvent.getEventTime();
+            }
+            // sem event time: mantém o timestamp do registro; a topologia manda para o DLQ
+            return record.timestamp() >= 0 ? record.timestamp() : partitionTime;
+        }
+    }
+
+    // Copia o event time do header para o valor quando o produtor só enviou o header,
+    // para que a validação do evento enxergue o mesmo tempo usado no janelamento
+    static class EventTimeHeaderEnricher implements FixedKeyProcessor<String, SalesEvent, SalesEvent> {
+
+        private FixedKeyProcessorContext<String, SalesEvent> context;
+
+        @Override
+        public void init(FixedKeyProcessorContext<String, SalesEvent> context) {
+            this.context = context;
+        }
+
+        @Override
+        public void process(FixedKeyRecord<String, SalesEvent> record) {
+            var salesEvent = record.value();
+            if (salesEvent != null && !salesEvent.hasEventTime()) {
+                var headerTime = SalesEventHeaderTimestampExtractor.readEventTime(record.headers());
+                if (headerTime >= 0) {
+                    salesEvent.setEventTimeMillis(headerTime);
+                }
+            }
+            context.forward(record);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package com.github.fabriciolfj.study.configuration;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.streams.StreamsConfig;
+
+import java.util.Map;
+
+/**
+ * Presets de tuning do Kafka Streams com EXACTLY_ONCE_V2.
+ *
+ * Com EOS o commit.interval.ms é o tamanho da transação: intervalos curtos
+ * reduzem a latência fim-a-fim, intervalos longos amortizam o custo do commit
+ * transacional. Os demais parâmetros acompanham essa escolha.
+ */
+public enum StreamsTuningPreset {
+
+    // valores históricos da aplicação; linger/batch ficam nos padrões do Streams (linger.ms 100)
+    DEFAULT(1000, 0, 2, 10 * 1024 * 1024L, null, null, 0),
+    // atualizações emitidas logo (sem cache), transações curtas e sem linger
+    LATENCY(100, 1.0, 0, 0L, 0, 16 * 1024, 1),
+    // transações longas, cache grande para compactar updates e lotes maiores no producer
+    THROUGHPUT(10_000, 1.0, 0, 64 * 1024 * 1024L, 50, 256 * 1024, 1);
+
+    private final int commitIntervalMs;
+    // threads = cores * threadsPerCore; quando 0 usa fixedThreads
+    private final double threadsPerCore;
+    private final int fixedThreads;
+    private final long cacheMaxBytes;
+    // null mantém o padrão do Kafka Streams
+    private final Integer lingerMs;
+    private final Integer batchSize;
+    private final int standbyReplicas;
+
+    StreamsTuningPreset(int commitIntervalMs, double threadsPerCore, int fixedThreads, long cacheMaxBytes,
+                        Integer lingerMs, Integer batchSize, int standbyReplicas) {
+        this.commitIntervalMs = commitIntervalMs;
+        this.threadsPerCore = threadsPerCore;
+        this.fixedThreads = fixedThreads;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.standbyReplicas = standbyReplicas;
+    }
+
+    public void applyTo(final Map<String, Object> props, final int availableCores) {
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, streamThreads(availableCores));
+        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, commitIntervalMs);
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, cacheMaxBytes);
+        props.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, standbyReplicas);
+        props.put(StreamsConfig.producerPrefix(ProducerConfig.TRANSACTION_TIMEOUT_CONFIG), transactionTimeoutMs());
+        if (lingerMs != null) {
+            props.put(StreamsConfig.producerPrefix(ProducerConfig.LINGER_MS_CONFIG), lingerMs);
+        }
+        if (batchSize != null) {
+            props.put(StreamsConfig.producerPrefix(ProducerConfig.BATCH_SIZE_CONFIG), batchSize);
+        }
+    }
+
+    /*
+     * Com EOS o Streams baixa o transaction.timeout.ms do producer para 10s; com
+     * commit.interval.ms perto disso a transação aborta sob carga. Fica com folga de 6x
+     * sobre o commit, no mínimo 60s (abaixo do transaction.max.timeout.ms do broker, 15min).
+     */
+    public int transactionTimeoutMs() {
+        return Math.max(60_000, commitIntervalMs * 6);
+    }
+
+    public int streamThreads(final int availableCores) {
+        if (threadsPerCore <= 0) {
+            return fixedThreads;
+        }
+        return Math.max(1, (int) Math.round(availableCores * threadsPerCore));
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.fabriciolfj.study.configuration;
 
 import com.github.fabriciolfj.study.join.ProductDetailsJoin;
+import com.github.fabriciolfj.study.join.ProductDetailsJoinMode;
 import com.study.details.Detalhes;
 import com.study.preco.TabelaPreco;
 import com.study.produto.Produto;
@@ -8,15 +9,18 @@ import com.study.produtodetalhes.ProdutoDetalhes;
 import io.confluent.kafka.streams.serdes.avro.SpecificAvroSerde;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.LogicalTypes;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.*;
+import org.apache.kafka.streams.state.Stores;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
 
 @Slf4j
@@ -32,15 +36,28 @@ public class TopologyProductTableConfiguration {
     private String topicDetais;
     @Value("${topic.productDetails}")
     private String topicProductDetails;
+    @Value("${topology.product-details.join-mode:WINDOWED}")
+    private ProductDetailsJoinMode joinMode;
+    @Value("${topology.product-details.history-retention:PT30M}")
+    private Duration historyRetention;
+    @Value("${topology.product-details.grace:PT6S}")
+    private Duration grace;
     private final SpecificAvroSerde<Produto> productSerde;
     private final SpecificAvroSerde<TabelaPreco> tableSerde;
     private final SpecificAvroSerde<Detalhes> detalhesSerde;
     private final SpecificAvroSerde<ProdutoDetalhes> produtoDetalhesSerde;
     private final StreamsBuilder streamsBuilder;
 
+    // escalas do schema TabelaPreco, resolvidas uma vez em vez de a cada registro
+    private static final int MARGIN_SCALE = decimalScale("margem");
+    private static final int PRICE_SCALE = decimalScale("preco");
+    private static final BigDecimal MARGIN_RATE = new BigDecimal("0.34");
+    private static final BigDecimal MARKUP = BigDecimal.ONE.add(MARGIN_RATE);
+
     private static final ValueMapper<Produto, TabelaPreco> tableMapper = product -> {
-        var margin = product.getCusto().multiply(BigDecimal.valueOf(0.34));
-        var price = product.getCusto().add(margin);
+        var custo = product.getCusto();
+        var margin = custo.multiply(MARGIN_RATE).setScale(MARGIN_SCALE, RoundingMode.HALF_EVEN);
+        var price = custo.multiply(MARKUP).setScale(PRICE_SCALE, RoundingMode.HALF_EVEN);
         return TabelaPreco.newBuilder()
                 .setIdProduto(product.id)
                 .setMargem(margin)
@@ -48,37 +65,102 @@ public class TopologyProductTableConfiguration {
                 .build();
     };
 
+    /*
+     * Uma única assinatura do product-topic: o registro é desserializado (Avro) uma vez
+     * e o mesmo KStream alimenta os dois ramos, tabela de preço e join com detalhes.
+     */
     @Autowired
     public KStream<String, Produto> topoloyProduct() {
         final Serde<String> stringSerde = Serdes.String();
-        var stream = streamsBuilder.stream(topicProduct, Consumed.with(stringSerde, productSerde));
+        var stream = streamsBuilder.stream(topicProduct, Consumed.with(stringSerde, productSerde)
+                .withName("product-source"));
+
         stream
                 .peek((key, value) -> log.info("recebimento evento produto {} {}", key, value.id)
                 )
-                .mapValues(tableMapper)
+                .mapValues(tableMapper, Named.as("product-price-table"))
                 .to(topicTable, Produced.with(stringSerde, tableSerde));
 
+        final KStream<String, Detalhes> detalhesStream = streamsBuilder.stream(topicDetais, Consumed.with(stringSerde, detalhesSerde));
+
+        joinDetails(stream, detalhesStream, joinMode, historyRetention, grace, productSerde, detalhesSerde)
+                .peek((key, value) -> log.info("join value {}, key {}", key, value))
+                .to(topicProductDetails, Produced.with(stringSerde, produtoDetalhesSerde));
+
         return stream;
     }
 
-    @Autowired
-    public KStream<String, Detalhes> topoloyDetalhes() {
+    private static int decimalScale(final String field) {
+        var logicalType = TabelaPreco.getClassSchema().getField(field).schema().getLogicalType();
+        return ((LogicalTypes.Decimal) logicalType).getScale();
+    }
+
+    /*
+     * Os dois tópicos são chaveados pelo id do produto, então o join pode ser por
+     * tabela: o estado fica limitado a um registro por produto (mais o histórico
+     * da tabela versionada) em vez de 30 minutos de eventos dos dois lados.
+     */
+    public static KStream<String, ProdutoDetalhes> joinDetails(final KStream<String, Produto> productStream,
+                                                                final KStream<String, Detalhes> detalhesStream,
+                                                                final ProductDetailsJoinMode mode,
+                                                                final Duration historyRetention,
+                                                                final Duration grace,
+                                                                final Serde<Produto> productSerde,
+                                                                final Serde<Detalhes> detalhesSerde) {
         final Serde<String> stringSerde = Serdes.String();
+        final var joinProductDetails = new ProductDetailsJoin();
 
-        final KStream<String, Detalhes> detalhesStream = streamsBuilder.stream(topicDetais, Consumed.with(stringSerde, detalhesSerde));
-        final KStream<String, Produto> productStream = streamsBuilder.stream(topicProduct, Consumed.with(stringSerde, productSerde));
-        var joinProductDetails = new ProductDetailsJoin();
-        var thirtyMinuteWindow = JoinWindows.ofTimeDifferenceWithNoGrace(Duration.ofMinutes(30)).after(Duration.ofSeconds(6));
-
-        productStream.join(detalhesStream,
-                joinProductDetails,
-                thirtyMinuteWindow,
-                StreamJoined.with(stringSerde, productSerde, detalhesSerde)
-                        .withName("product-details")
-                        .withStoreName("product-join-details"))
-                .peek((key, value) -> log.info("join value {}, key {}", key, value))
-                .to(topicProductDetails, Produced.with(stringSerde, produtoDetalhesSerde));
+        return switch (mode) {
+            case WINDOWED -> {
+                var thirtyMinuteWindow = JoinWindows.ofTimeDifferenceWithNoGrace(Duration.ofMinutes(30)).after(Duration.ofSeconds(6));
+                yield productStream.join(detalhesStream,
+                        joinProductDetails,
+                        thirtyMinuteWindow,
+                        StreamJoined.with(stringSerde, productSerde, detalhesSerde)
+                                .withName("product-details")
+                                .withStoreName("product-join-details"));
+            }
+            case STREAM_TABLE -> {
+                // tabela versionada: o lookup usa o timestamp do produto e o grace segura
+                // o produto no buffer esperando detalhes fora de ordem (timestamp <= produto)
+                KTable<String, Detalhes> detalhesTable = detalhesStream.toTable(
+                        Named.as("details-table"),
+                        Materialized.<String, Detalhes>as(Stores.persistentVersionedKeyValueStore("details-versioned", historyRetention))
+                                .withKeySerde(stringSerde)
+                                .withValueSerde(detalhesSerde));
+                var beforeOrAtProduct = productStream.join(detalhesTable,
+                        joinProductDetails,
+                        Joined.with(stringSerde, productSerde, detalhesSerde)
+                                .withName("product-details-table")
+                                .withGracePeriod(grace));
+
+                // detalhes com timestamp depois do produto nunca aparecem no lookup acima;
+                // como o after(6s) do WINDOWED, um join stream-stream cobre (produto, produto + grace].
+                // before(-1ms) tira o instante do produto, que já é do lookup, e evita join duplicado
+                var afterProductWindow = JoinWindows.ofTimeDifferenceAndGrace(grace, grace)
+                        .before(Duration.ofMillis(-1));
+                var afterProduct = productStream.join(detalhesStream,
+                        joinProductDetails,
+                        afterProductWindow,
+                        StreamJoined.with(stringSerde, productSerde, detalhesSerde)
+                                .withName("product-details-after")
+                                .withStoreName("product-details-after"));
 
-        return detalhesStream;
+                yield beforeOrAtProduct.merge(afterProduct, Named.as("product-details-merge"));
+            }
+            case TABLE_TABLE -> {
+                KTable<String, Produto> productTable = productStream.toTable(
+                        Named.as("product-table"),
+                        Materialized.<String, Produto>as(Stores.persistentKeyValueStore("product-latest"))
+                                .withKeySerde(stringSerde)
+                                .withValueSerde(productSerde));
+                KTable<String, Detalhes> detalhesTable = detalhesStream.toTable(
+                        Named.as("details-table"),
+                        Materialized.<String, Detalhes>as(Stores.persistentKeyValueStore("details-latest"))
+                                .withKeySerde(stringSerde)
+                                .withValueSerde(detalhesSerde));
+                yield productTable.join(detalhesTable, joinProductDetails).toStream();
+            }
+        };
     }
 }
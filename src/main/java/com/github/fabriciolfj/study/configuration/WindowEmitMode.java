@@ -0,0 +1,15 @@
+package com.github.fabriciolfj.study.configuration;
+
+/**
+ * Como a janela de 1 minuto do StreamsTopologyWindowing emite resultados.
+ */
+public enum WindowEmitMode {
+
+    // um update downstream por evento (comportamento original)
+    EVERY_UPDATE,
+    // suppress(untilWindowCloses): resultado final, buffer em memória limitado
+    SUPPRESS_FINAL,
+    // emitStrategy(onWindowClose): resultado final lido do window store (RocksDB),
+    // sem buffer em memória - o "spill" fica no disco
+    ON_WINDOW_CLOSE
+}
@@ -1,6 +1,7 @@
 package com.github.fabriciolfj.study.controller;
 
 import com.github.fabriciolfj.study.entity.Car;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitBatcher;
 import com.github.fabriciolfj.study.service.CarsService;
 import com.github.fabriciolfj.study.validation.CreateCar;
 import lombok.RequiredArgsConstructor;
@@ -13,10 +14,11 @@ import org.springframework.web.bind.annotation.*;
 public class CarsController {
 
     private final CarsService carsService;
+    private final GroupCommitBatcher<Car> carGroupCommit;
 
     @PostMapping
     public void save(@Validated(CreateCar.class) @RequestBody final Car car) {
-        carsService.create(car);
+        carGroupCommit.write(car);
     }
 
     @GetMapping("/{id}")
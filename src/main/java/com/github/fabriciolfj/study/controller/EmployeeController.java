@@ -1,12 +1,15 @@
 package com.github.fabriciolfj.study.controller;
 
+import com.github.fabriciolfj.study.dto.BatchInsertDTO;
 import com.github.fabriciolfj.study.entity.Employee;
-import com.github.fabriciolfj.study.service.EmployeeService;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitBatcher;
+import com.github.fabriciolfj.study.service.EmployeeImportService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.resilience.annotation.ConcurrencyLimit;
 import org.springframework.resilience.annotation.Retryable;
@@ -18,13 +21,16 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api/v1/employees")
 @RequiredArgsConstructor
 @Slf4j
 public class EmployeeController {
 
-    private final EmployeeService service;
+    private final GroupCommitBatcher<Employee> employeeGroupCommit;
+    private final EmployeeImportService importService;
 
     //passar no header o X-API-VERSION: 1
     @PostMapping(version = "1")
@@ -43,7 +49,7 @@ public class EmployeeController {
     @RateLimiter(name = "employeeService", fallbackMethod = "tooManyRequests")
     public ResponseEntity create(@RequestBody final Employee employee) {
         log.info("request received api version 1");
-        service.executeSave(employee);
+        employeeGroupCommit.write(employee);
 
         return ResponseEntity.accepted().build();
     }
@@ -63,6 +69,13 @@ public class EmployeeController {
     @PostMapping(version = "2")
     public void createEmployer(@RequestBody final Employee employee) {
         log.info("request received api version 2");
-        service.executeSave(employee);
+        employeeGroupCommit.write(employee);
+    }
+
+    // corpo: array JSON de employees, lido em streaming e gravado em lotes de employee.batch.size
+    @PostMapping(path = "/batch", version = "2", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchInsertDTO> createBatch(final InputStream body) {
+        log.info("batch request received api version 2");
+        return ResponseEntity.status(HttpStatus.CREATED).body(importService.importArray(body));
     }
 }
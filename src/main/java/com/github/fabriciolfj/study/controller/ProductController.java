@@ -1,5 +1,6 @@
 package com.github.fabriciolfj.study.controller;
 
+import com.github.fabriciolfj.study.dto.BulkDTO;
 import com.github.fabriciolfj.study.dto.ProductDTO;
 import com.github.fabriciolfj.study.service.ProductProduceService;
 import lombok.RequiredArgsConstructor;
@@ -10,12 +11,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/products")
 @RestController
 public class ProductController {
 
+    private static final int MAX_BULK_IDS = 500;
+
     private final ProductProduceService service;
 
     @PostMapping
@@ -34,4 +39,14 @@ public class ProductController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
 
     }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<BulkDTO<ProductDTO>> findProducts(@RequestParam final List<Long> ids) {
+        if (ids.size() > MAX_BULK_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        var result = service.getProducts(ids);
+        return ResponseEntity.ok(new BulkDTO<>(List.copyOf(result.found().values()), result.missing()));
+    }
 }
@@ -0,0 +1,49 @@
+package com.github.fabriciolfj.study.controller;
+
+import com.github.fabriciolfj.study.dto.DistinctBuyersDTO;
+import com.github.fabriciolfj.study.dto.TopProductsDTO;
+import com.github.fabriciolfj.study.service.SalesWindowQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/sales/analytics")
+public class SalesAnalyticsController {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(1);
+
+    private final SalesWindowQueryService salesWindowQueryService;
+
+    @GetMapping("/distinct-buyers/{windowKey}")
+    public ResponseEntity<DistinctBuyersDTO> distinctBuyers(
+            @PathVariable final String windowKey,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to) {
+        var end = to != null ? to : Instant.now();
+        var start = from != null ? from : end.minus(DEFAULT_RANGE);
+
+        return salesWindowQueryService.getDistinctBuyers(windowKey, start, end)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/top-products/{storeId}")
+    public ResponseEntity<TopProductsDTO> topProducts(
+            @PathVariable final String storeId,
+            @RequestParam(defaultValue = "10") final int k,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final Instant to) {
+        var end = to != null ? to : Instant.now();
+        var start = from != null ? from : end.minus(DEFAULT_RANGE);
+
+        return salesWindowQueryService.getTopProducts(storeId, start, end, k)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.fabriciolfj.study.controller;
 
 import com.github.fabriciolfj.study.entity.Sales;
+import com.github.fabriciolfj.study.groupcommit.GroupCommitBatcher;
 import com.github.fabriciolfj.study.repositories.SalesRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,15 +16,16 @@ import java.util.List;
 public class SalesController {
 
     private final SalesRepository salesRepository;
+    private final GroupCommitBatcher<Sales> salesGroupCommit;
 
-    @Transactional
+    // a transação é a do lote, aberta pelo SalesService
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public void create(@RequestBody final Sales sales) {
-        salesRepository.save(sales);
+        salesGroupCommit.write(sales);
     }
 
-    @Transactional(readOnly = false)
+    @Transactional(readOnly = true)
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<Sales> get() {
@@ -1,17 +1,23 @@
 package com.github.fabriciolfj.study.controller;
 
 import com.github.fabriciolfj.study.apirest.UserApiRest;
+import com.github.fabriciolfj.study.dto.BulkDTO;
 import com.github.fabriciolfj.study.entity.User;
 import com.github.fabriciolfj.study.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/users")
 public class UserController implements UserApiRest {
 
+    private static final int MAX_BULK_SIZE = 500;
+
     private final UserService userService;
 
     @Override
@@ -19,10 +25,30 @@ public class UserController implements UserApiRest {
         userService.create(user);
     }
 
+    @Override
+    public ResponseEntity<Void> createAll(@RequestBody final List<User> users) {
+        if (users.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        userService.createAll(users);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
     @Override
     public ResponseEntity<User> getUser(@PathVariable final Long id) {
         var user = userService.getUser(id);
         return user.map(value -> ResponseEntity.accepted().body(value)).orElseGet(() -> ResponseEntity.notFound().build());
 
     }
+
+    @Override
+    public ResponseEntity<BulkDTO<User>> getUsers(@RequestParam final List<Long> ids) {
+        if (ids.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        var result = userService.getUsers(ids);
+        return ResponseEntity.ok(new BulkDTO<>(List.copyOf(result.found().values()), result.missing()));
+    }
 }
@@ -0,0 +1,10 @@
+package com.github.fabriciolfj.study.dto;
+
+/**
+ * Resposta das cargas em lote.
+ *
+ * @param inserted linhas gravadas
+ * @param batches  lotes (transações) usados
+ */
+public record BatchInsertDTO(long inserted, int batches) {
+}
@@ -0,0 +1,12 @@
+package com.github.fabriciolfj.study.dto;
+
+import java.util.List;
+
+/**
+ * Resposta das buscas em lote por id.
+ *
+ * @param found   itens encontrados no cache, na ordem dos ids pedidos
+ * @param missing ids sem entrada no cache
+ */
+public record BulkDTO<T>(List<T> found, List<Long> missing) {
+}
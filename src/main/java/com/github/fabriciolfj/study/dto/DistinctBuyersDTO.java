@@ -0,0 +1,17 @@
+package com.github.fabriciolfj.study.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Compradores distintos estimados (HyperLogLog) de uma chave loja_categoria.
+ *
+ * @param total   estimativa sobre todo o intervalo, com os sketches das janelas mergeados
+ *                (não é a soma das janelas: o mesmo usuário em duas janelas conta uma vez)
+ * @param windows estimativa por janela de 1 minuto
+ */
+public record DistinctBuyersDTO(String windowKey, Instant from, Instant to, long total, List<Window> windows) {
+
+    public record Window(Instant start, long estimate) {
+    }
+}
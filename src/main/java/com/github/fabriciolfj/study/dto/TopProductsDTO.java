@@ -0,0 +1,17 @@
+package com.github.fabriciolfj.study.dto;
+
+import com.github.fabriciolfj.study.entity.TopProducts;
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Top-K produtos (por valor vendido) de uma loja.
+ *
+ * @param top     ranking sobre todo o intervalo, com os sketches das janelas mergeados
+ * @param windows ranking por janela de 1 minuto
+ */
+public record TopProductsDTO(String storeId, Instant from, Instant to, List<SpaceSaving.Entry> top,
+                             List<TopProducts> windows) {
+}
@@ -1,9 +1,13 @@
 package com.github.fabriciolfj.study.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Objects;
 
+// as métricas derivadas não vão para o JSON; ignoreUnknown lê o que já foi gravado com elas
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class SalesAggregator {
 
     @JsonProperty("total_amount")
@@ -98,11 +102,13 @@ public class SalesAggregator {
     }
 
     // Métrica: Média
+    @JsonIgnore
     public double getAverage() {
         return count > 0 ? totalAmount / count : 0.0;
     }
 
     // Métrica: Taxa de vendas (vendas por segundo)
+    @JsonIgnore
     public double getSalesRate() {
         if (count <= 1 || firstSaleTimestamp >= lastSaleTimestamp) {
             return 0.0;
@@ -115,6 +121,7 @@ public class SalesAggregator {
     }
 
     // Métrica: Variância (aproximação simples)
+    @JsonIgnore
     public double getVariance() {
         if (count <= 1) return 0.0;
 
@@ -125,11 +132,13 @@ public class SalesAggregator {
     }
 
     // Métrica: Range de valores
+    @JsonIgnore
     public double getRange() {
         return count > 0 ? maxAmount - minAmount : 0.0;
     }
 
     // Verifica se o agregador está vazio
+    @JsonIgnore
     public boolean isEmpty() {
         return count == 0;
     }
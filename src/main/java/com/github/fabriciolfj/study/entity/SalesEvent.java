@@ -1,5 +1,6 @@
 package com.github.fabriciolfj.study.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.Instant;
@@ -9,6 +10,9 @@ import java.util.Objects;
 
 public class SalesEvent {
 
+    // sem event time: o extrator não deve jogar o evento na janela 0
+    public static final long NO_EVENT_TIME = -1L;
+
     @JsonProperty("event_id")
     private String eventId;
 
@@ -27,6 +31,10 @@ public class SalesEvent {
     @JsonProperty("event_time")
     private LocalDateTime eventTime;
 
+    // epoch millis (UTC) calculado uma vez, lido pelo TimestampExtractor sem conversão
+    @JsonProperty("event_time_ms")
+    private long eventTimeMillis = NO_EVENT_TIME;
+
     @JsonProperty("store_id")
     private String storeId;
 
@@ -46,6 +54,7 @@ public class SalesEvent {
         this.amount = amount;
         this.quantity = quantity;
         this.eventTime = eventTime;
+        this.eventTimeMillis = toEpochMillis(eventTime);
         this.storeId = storeId;
         this.category = category;
     }
@@ -56,18 +65,28 @@ public class SalesEvent {
         this.productId = productId;
         this.amount = amount;
         this.eventTime = eventTime;
+        this.eventTimeMillis = toEpochMillis(eventTime);
     }
 
     // Método para obter timestamp em milissegundos (usado pelo TimestampExtractor)
+    @JsonIgnore
     public long getEventTime() {
-        return eventTime != null ? eventTime.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return eventTimeMillis;
     }
 
     // Método para obter LocalDateTime
+    @JsonIgnore
     public LocalDateTime getEventDateTime() {
+        if (eventTime == null && eventTimeMillis != NO_EVENT_TIME) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(eventTimeMillis), ZoneOffset.UTC);
+        }
         return eventTime;
     }
 
+    public boolean hasEventTime() {
+        return eventTimeMillis != NO_EVENT_TIME;
+    }
+
     // Getters e Setters
     public String getEventId() {
         return eventId;
@@ -111,6 +130,15 @@ public class SalesEvent {
 
     public void setEventTime(LocalDateTime eventTime) {
         this.eventTime = eventTime;
+        this.eventTimeMillis = toEpochMillis(eventTime);
+    }
+
+    public long getEventTimeMillis() {
+        return eventTimeMillis;
+    }
+
+    public void setEventTimeMillis(long eventTimeMillis) {
+        this.eventTimeMillis = eventTimeMillis;
     }
 
     public String getStoreId() {
@@ -130,12 +158,14 @@ public class SalesEvent {
     }
 
     // Métodos auxiliares
+    @JsonIgnore
     public boolean isValidEvent() {
         return userId != null && !userId.isEmpty() &&
                 amount != null && amount > 0 &&
-                eventTime != null;
+                eventTimeMillis >= 0;
     }
 
+    @JsonIgnore
     public String getWindowKey() {
         return storeId + "_" + category;
     }
@@ -150,14 +180,14 @@ public class SalesEvent {
                 Objects.equals(productId, that.productId) &&
                 Objects.equals(amount, that.amount) &&
                 Objects.equals(quantity, that.quantity) &&
-                Objects.equals(eventTime, that.eventTime) &&
+                eventTimeMillis == that.eventTimeMillis &&
                 Objects.equals(storeId, that.storeId) &&
                 Objects.equals(category, that.category);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(eventId, userId, productId, amount, quantity, eventTime, storeId, category);
+        return Objects.hash(eventId, userId, productId, amount, quantity, eventTimeMillis, storeId, category);
     }
 
     @Override
@@ -174,6 +204,10 @@ public class SalesEvent {
                 '}';
     }
 
+    private static long toEpochMillis(final LocalDateTime eventTime) {
+        return eventTime != null ? eventTime.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_EVENT_TIME;
+    }
+
     // Builder pattern para facilitar criação de instâncias
     public static class Builder {
         private String eventId;
@@ -182,6 +216,7 @@ public class SalesEvent {
         private Double amount;
         private Integer quantity;
         private LocalDateTime eventTime;
+        private long eventTimeMillis = NO_EVENT_TIME;
         private String storeId;
         private String category;
 
@@ -215,6 +250,11 @@ public class SalesEvent {
             return this;
         }
 
+        public Builder eventTimeMillis(long eventTimeMillis) {
+            this.eventTimeMillis = eventTimeMillis;
+            return this;
+        }
+
         public Builder storeId(String storeId) {
             this.storeId = storeId;
             return this;
@@ -226,7 +266,11 @@ public class SalesEvent {
         }
 
         public SalesEvent build() {
-            return new SalesEvent(eventId, userId, productId, amount, quantity, eventTime, storeId, category);
+            var event = new SalesEvent(eventId, userId, productId, amount, quantity, eventTime, storeId, category);
+            if (eventTime == null) {
+                event.setEventTimeMillis(eventTimeMillis);
+            }
+            return event;
         }
     }
 
@@ -0,0 +1,16 @@
+package com.github.fabriciolfj.study.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Produtos mais vendidos (por valor) de uma loja em uma janela, publicado em sales-top-products.
+ */
+public record TopProducts(@JsonProperty("store_id") String storeId,
+                          @JsonProperty("window_start") Instant windowStart,
+                          @JsonProperty("window_end") Instant windowEnd,
+                          @JsonProperty("products") List<SpaceSaving.Entry> products) {
+}
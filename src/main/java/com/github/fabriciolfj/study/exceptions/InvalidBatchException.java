@@ -0,0 +1,30 @@
+package com.github.fabriciolfj.study.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.ErrorResponse;
+
+public class InvalidBatchException extends RuntimeException implements ErrorResponse {
+
+    private final long inserted;
+
+    // inserted: linhas dos lotes anteriores, já gravadas
+    public InvalidBatchException(final String message, final long inserted) {
+        super(message);
+
+        this.inserted = inserted;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    @Override
+    public ProblemDetail getBody() {
+        var problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, getMessage());
+        problem.setProperty("inserted", inserted);
+        return problem;
+    }
+}
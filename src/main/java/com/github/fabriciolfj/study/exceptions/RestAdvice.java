@@ -1,9 +1,12 @@
 package com.github.fabriciolfj.study.exceptions;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestControllerAdvice
 public class RestAdvice {
 
@@ -11,4 +14,15 @@ public class RestAdvice {
     public ProblemDetail handleCarNotFoundException(final CarNotFoundException carNotFoundException) {
         return carNotFoundException.getBody();
     }
+
+    @ExceptionHandler(InvalidBatchException.class)
+    public ProblemDetail handleInvalidBatchException(final InvalidBatchException invalidBatchException) {
+        return invalidBatchException.getBody();
+    }
+
+    // fila do group commit cheia ou aplicação encerrando
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ProblemDetail handleRejectedExecutionException(final RejectedExecutionException rejectedExecutionException) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, rejectedExecutionException.getMessage());
+    }
 }
@@ -0,0 +1,13 @@
+package com.github.fabriciolfj.study.groupcommit;
+
+import java.util.List;
+
+/**
+ * Grava um lote inteiro em uma transação. Devolve os itens gravados na mesma ordem (com id
+ * preenchido, por exemplo); se o tamanho não bater, cada chamador recebe o próprio item.
+ */
+@FunctionalInterface
+public interface BatchWriter<T> {
+
+    List<T> write(List<T> items);
+}
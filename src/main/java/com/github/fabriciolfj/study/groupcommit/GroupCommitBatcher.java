@@ -0,0 +1,270 @@
+package com.github.fabriciolfj.study.groupcommit;
+
+import com.github.fabriciolfj.study.configuration.ReadYourWrites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Group commit de inserts unitários: as requisições enfileiram o item e esperam o future;
+ * os flushers (virtual threads) juntam até maxBatchSize itens ou maxWait e gravam tudo em
+ * uma transação pelo BatchWriter. Um commit passa a valer para o lote inteiro.
+ *
+ * - falha do lote: cada item é regravado sozinho, só o item com problema falha
+ * - fila cheia ou batcher fechado: RejectedExecutionException, sem bloquear o chamador
+ * - close(): para de aceitar, grava o que já estava na fila e encerra os flushers
+ * - read-your-writes: a sessão da requisição é capturada no submit e marcada com o
+ *   instante do commit do lote, para o X-Last-Write voltar na resposta
+ *
+ * Métricas (tag batcher): write.batch.size e write.batch.queue.depth (histogramas, um
+ * registro por flush), write.batch.queue.size, write.batch.wait (do submit até o commit),
+ * write.batch.flush{result=committed|isolated} e write.batch.rejected.
+ */
+@Slf4j
+public class GroupCommitBatcher<T> implements AutoCloseable {
+
+    private final String name;
+    private final BatchWriter<T> writer;
+    private final GroupCommitSettings settings;
+    private final BlockingQueue<Pending<T>> queue;
+    private final List<Thread> flushers = new ArrayList<>();
+    private final DistributionSummary batchSize;
+    private final DistributionSummary queueDepth;
+    private final Timer waitTimer;
+    private final Timer committed;
+    private final Timer isolated;
+    private final Counter rejected;
+    private volatile boolean running = true;
+
+    public GroupCommitBatcher(final String name, final BatchWriter<T> writer,
+                              final GroupCommitSettings settings, final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.writer = writer;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+
+        final MeterRegistry registry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+        this.batchSize = DistributionSummary.builder("write.batch.size")
+                .tag("batcher", name)
+                .publishPercentileHistogram()
+                .maximumExpectedValue((double) settings.maxBatchSize())
+                .register(registry);
+        this.queueDepth = DistributionSummary.builder("write.batch.queue.depth")
+                .tag("batcher", name)
+                .publishPercentileHistogram()
+                .maximumExpectedValue((double) settings.queueCapacity())
+                .register(registry);
+        this.waitTimer = Timer.builder("write.batch.wait")
+                .tag("batcher", name)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.committed = flushTimer(registry, "committed");
+        this.isolated = flushTimer(registry, "isolated");
+        this.rejected = Counter.builder("write.batch.rejected")
+                .tag("batcher", name)
+                .register(registry);
+        Gauge.builder("write.batch.queue.size", queue, BlockingQueue::size)
+                .tag("batcher", name)
+                .register(registry);
+
+        if (settings.enabled()) {
+            for (int i = 0; i < settings.flushers(); i++) {
+                flushers.add(Thread.ofVirtual().name("group-commit-" + name + "-" + i).start(this::flushLoop));
+            }
+        }
+    }
+
+    public CompletableFuture<T> submit(final T item) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(name + " group commit is closed"));
+        }
+        if (!settings.enabled()) {
+            final long start = System.nanoTime();
+            try {
+                return CompletableFuture.completedFuture(writeOne(item));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            } finally {
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // a etapa roda antes de qualquer dependente, então quem faz join já vê a escrita marcada
+        final Pending<T> pending = enqueue(item);
+        return pending.future().thenApply(committed -> {
+            pending.session().accept(committed.at());
+            return committed.value();
+        });
+    }
+
+    /*
+     * Para chamadores síncronos (controllers); a virtual thread estaciona no join sem prender
+     * o carrier. O commit acontece no flusher, fora da sessão de ReadYourWrites da requisição,
+     * então a escrita é marcada aqui, na thread da requisição, depois do commit.
+     */
+    public T write(final T item) {
+        if (!running || !settings.enabled()) {
+            return join(submit(item));
+        }
+        final Pending<T> pending = enqueue(item);
+        final Committed<T> committed = join(pending.future());
+        pending.session().accept(committed.at());
+        return committed.value();
+    }
+
+    private Pending<T> enqueue(final T item) {
+        final Pending<T> pending = new Pending<>(item, new CompletableFuture<>(), System.nanoTime(),
+                ReadYourWrites.capture());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            pending.future().completeExceptionally(new RejectedExecutionException(
+                    name + " group commit queue is full (" + settings.queueCapacity() + ")"));
+        }
+        return pending;
+    }
+
+    private static <R> R join(final CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void flushLoop() {
+        final List<Pending<T>> batch = new ArrayList<>(settings.maxBatchSize());
+        final long maxWaitNanos = settings.maxWait().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                final Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                final long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < settings.maxBatchSize()) {
+                    queue.drainTo(batch, settings.maxBatchSize() - batch.size());
+                    final long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= settings.maxBatchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    final Pending<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, new RejectedExecutionException(name + " group commit interrupted", e));
+                return;
+            } catch (RuntimeException e) {
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(final List<Pending<T>> batch) {
+        batchSize.record(batch.size());
+        queueDepth.record(queue.size());
+
+        final List<T> items = new ArrayList<>(batch.size());
+        for (var pending : batch) {
+            items.add(pending.item());
+        }
+
+        final long start = System.nanoTime();
+        final List<T> written;
+        try {
+            written = writer.write(items);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                complete(batch.getFirst(), null, e);
+                return;
+            }
+            log.warn("{} group commit of {} items failed, writing them one by one: {}", name, batch.size(), e.toString());
+            for (var pending : batch) {
+                try {
+                    complete(pending, writeOne(pending.item()), null);
+                } catch (RuntimeException itemError) {
+                    complete(pending, null, itemError);
+                }
+            }
+            isolated.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return;
+        }
+        committed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        final boolean sameOrder = written != null && written.size() == batch.size();
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), sameOrder ? written.get(i) : batch.get(i).item(), null);
+        }
+    }
+
+    private T writeOne(final T item) {
+        final List<T> written = writer.write(List.of(item));
+        return written != null && written.size() == 1 ? written.getFirst() : item;
+    }
+
+    private void complete(final Pending<T> pending, final T result, final RuntimeException error) {
+        waitTimer.record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        if (error != null) {
+            pending.future().completeExceptionally(error);
+        } else {
+            pending.future().complete(new Committed<>(result, Instant.now()));
+        }
+    }
+
+    private void fail(final List<Pending<T>> batch, final RuntimeException error) {
+        for (var pending : batch) {
+            if (!pending.future().isDone()) {
+                complete(pending, null, error);
+            }
+        }
+    }
+
+    private Timer flushTimer(final MeterRegistry registry, final String result) {
+        return Timer.builder("write.batch.flush")
+                .tag("batcher", name)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (var flusher : flushers) {
+            flusher.join();
+        }
+        // o que entrou entre o último poll e o running = false
+        final List<Pending<T>> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        fail(leftovers, new RejectedExecutionException(name + " group commit is closed"));
+    }
+
+    private record Pending<T>(T item, CompletableFuture<Committed<T>> future, long enqueuedAt,
+                              Consumer<Instant> session) {
+    }
+
+    private record Committed<T>(T value, Instant at) {
+    }
+}
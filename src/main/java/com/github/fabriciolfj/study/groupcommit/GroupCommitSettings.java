@@ -0,0 +1,19 @@
+package com.github.fabriciolfj.study.groupcommit;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do GroupCommitBatcher.
+ *
+ * @param enabled       false grava cada item na thread do chamador, uma transação por item
+ * @param maxBatchSize  itens por transação
+ * @param maxWait       quanto o primeiro item de um lote espera por companhia antes do flush
+ * @param queueCapacity itens aguardando; acima disso submit rejeita (backpressure)
+ * @param flushers      virtual threads drenando a fila, ou seja, transações em paralelo
+ */
+public record GroupCommitSettings(boolean enabled,
+                                  int maxBatchSize,
+                                  Duration maxWait,
+                                  int queueCapacity,
+                                  int flushers) {
+}
@@ -0,0 +1,15 @@
+package com.github.fabriciolfj.study.join;
+
+/**
+ * Estratégia de join entre product-topic e details.
+ */
+public enum ProductDetailsJoinMode {
+
+    // stream-stream com JoinWindows de 30 minutos (dois window stores)
+    WINDOWED,
+    // produto (stream) x detalhes (KTable versionada), com grace para detalhes fora de ordem;
+    // detalhes até grace depois do produto entram por um join stream-stream curto
+    STREAM_TABLE,
+    // produto (KTable) x detalhes (KTable): reemite quando qualquer lado muda
+    TABLE_TABLE
+}
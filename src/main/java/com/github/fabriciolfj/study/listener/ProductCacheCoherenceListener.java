@@ -0,0 +1,248 @@
+package com.github.fabriciolfj.study.listener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
+import com.github.fabriciolfj.study.dto.ProductDTO;
+import com.study.details.Detalhes;
+import com.study.produto.Produto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Mantém o cache "product" coerente com o product-topic e o tópico de detalhes, porque a
+ * descrição do ProductDTO só existe nele. O table-price-topic fica de fora: o ProductDTO
+ * não carrega preço, e o cache não tem loader (um miss vira 404), então evict por preço
+ * só tirava o produto do cache sem nada que o trouxesse de volta.
+ *
+ * Um único grupo de consumo para todos os pods: o Redis é compartilhado, então basta um
+ * pod aplicar cada registro; putAll/evictAll publicam a invalidação para o L1 dos outros.
+ *
+ * - produto: nome e custo; detalhes: descrição; os dois fazem merge com o valor em cache
+ * - tombstone do produto: evict; tombstone de detalhes: limpa a descrição
+ * - ProductProduceService.send grava o DTO completo; aqui só entram as mudanças vindas
+ *   dos tópicos, inclusive as de outros produtores
+ * - a janela entre polls (cache.coherence.window) junta rajadas em um lote; dentro do lote
+ *   vale o último evento de cada campo do produto (por timestamp, já que são tópicos
+ *   diferentes), os outros contam como coalesced
+ * - registros com offset <= ao último aplicado para a mesma chave (retry do lote neste pod)
+ *   são descartados como stale; o controle é local, então depois de rebalance quem protege
+ *   é o offset commitado: o novo dono da partição só relê o que não foi commitado
+ * - cache.coherence.lag: do timestamp do registro até a aplicação no Redis
+ */
+@Slf4j
+@Component
+public class ProductCacheCoherenceListener {
+
+    private final RedisBulkCache<Long, ProductDTO> productBulkCache;
+    private final String topicProduct;
+    private final String topicDetails;
+    // só deste pod: cobre a reentrega do retry, não a de outro consumidor do grupo
+    private final Cache<String, Long> appliedOffsets;
+    private final Map<String, Timer> lag = new LinkedHashMap<>();
+    private final Map<String, Counter> recordCounters = new LinkedHashMap<>();
+
+    public ProductCacheCoherenceListener(RedisBulkCache<Long, ProductDTO> productBulkCache,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${topic.product}") String topicProduct,
+                                         @Value("${topic.details}") String topicDetails,
+                                         @Value("${cache.coherence.tracked-keys:100000}") long trackedKeys) {
+        this.productBulkCache = productBulkCache;
+        this.topicProduct = topicProduct;
+        this.topicDetails = topicDetails;
+        this.appliedOffsets = Caffeine.newBuilder().maximumSize(trackedKeys).build();
+
+        for (var topic : List.of(topicProduct, topicDetails)) {
+            lag.put(topic, Timer.builder("cache.coherence.lag")
+                    .description("tempo entre o registro no tópico e a aplicação no cache")
+                    .tag("cache", productBulkCache.getName())
+                    .tag("topic", topic)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            for (var result : List.of("applied", "coalesced", "stale")) {
+                recordCounters.put(topic + '/' + result, Counter.builder("cache.coherence.records")
+                        .tag("cache", productBulkCache.getName())
+                        .tag("topic", topic)
+                        .tag("result", result)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @KafkaListener(id = "product-cache-coherence",
+            topics = {"${topic.product}", "${topic.details}"},
+            groupId = "${cache.coherence.group-id:study-product-cache}",
+            containerFactory = "productCacheListenerContainerFactory",
+            autoStartup = "${cache.coherence.enabled:true}")
+    public void listener(final List<ConsumerRecord<String, Object>> records) {
+        final Map<Long, PendingChange> changes = new LinkedHashMap<>();
+        for (var record : records) {
+            final Long id = productId(record);
+            if (id == null) {
+                continue;
+            }
+            final Long applied = appliedOffsets.getIfPresent(offsetKey(record, id));
+            if (applied != null && record.offset() <= applied) {
+                count(record.topic(), "stale");
+                continue;
+            }
+            final ConsumerRecord<String, Object> replaced = changes.computeIfAbsent(id, key -> new PendingChange())
+                    .offer(record, topicDetails.equals(record.topic()));
+            if (replaced != null) {
+                count(replaced.topic(), "coalesced");
+            }
+        }
+
+        apply(changes);
+
+        final long now = System.currentTimeMillis();
+        for (var change : changes.values()) {
+            for (var record : change.records()) {
+                count(record.topic(), "applied");
+                lagTimer(record.topic()).record(Duration.ofMillis(Math.max(0, now - record.timestamp())));
+            }
+        }
+        for (var record : records) {
+            final Long id = productId(record);
+            if (id != null) {
+                appliedOffsets.asMap().merge(offsetKey(record, id), record.offset(), Math::max);
+            }
+        }
+    }
+
+    private void apply(final Map<Long, PendingChange> changes) {
+        final List<Long> evictions = new ArrayList<>();
+        final List<Long> merges = new ArrayList<>();
+        final Map<Long, ProductDTO> entries = new LinkedHashMap<>();
+        changes.forEach((id, change) -> (change.isEviction() ? evictions : merges).add(id));
+
+        if (!merges.isEmpty()) {
+            final Map<Long, ProductDTO> cached = productBulkCache.getAll(merges).found();
+            for (var id : merges) {
+                final ProductDTO merged = changes.get(id).merge(id, cached.get(id));
+                if (merged != null) {
+                    entries.put(id, merged);
+                }
+            }
+            productBulkCache.putAll(entries);
+        }
+        productBulkCache.evictAll(evictions);
+
+        log.debug("product cache coherence: {} puts, {} evictions", entries.size(), evictions.size());
+    }
+
+    private Long productId(final ConsumerRecord<String, Object> record) {
+        if (record.value() instanceof Produto produto) {
+            return produto.getId();
+        }
+        if (record.value() instanceof Detalhes detalhes) {
+            return detalhes.getId();
+        }
+        try {
+            return record.key() != null ? Long.valueOf(record.key()) : null;
+        } catch (NumberFormatException e) {
+            log.warn("product cache coherence skipping record {}-{}@{} with key {}",
+                    record.topic(), record.partition(), record.offset(), record.key());
+            return null;
+        }
+    }
+
+    /*
+     * Último evento de cada campo de um produto dentro do lote. Evict (tombstone do produto)
+     * descarta o valor em cache; produto ou detalhes mais novos que o evict ainda entram.
+     * Sem valor base e com só um dos lados no lote, merge devolve null e a chave fica como
+     * está: não grava um DTO parcial nem remove o que o send acabou de gravar.
+     */
+    private static final class PendingChange {
+        private ConsumerRecord<String, Object> product;
+        private ConsumerRecord<String, Object> details;
+        private ConsumerRecord<String, Object> eviction;
+
+        // devolve o registro que deixou de valer, para a métrica de coalesced
+        ConsumerRecord<String, Object> offer(final ConsumerRecord<String, Object> record, final boolean detailsTopic) {
+            if (detailsTopic) {
+                return keepLatest(details, record, latest -> details = latest);
+            }
+            if (record.value() instanceof Produto) {
+                return keepLatest(product, record, latest -> product = latest);
+            }
+            return keepLatest(eviction, record, latest -> eviction = latest);
+        }
+
+        boolean isEviction() {
+            return eviction != null
+                    && (product == null || product.timestamp() < eviction.timestamp())
+                    && (details == null || details.timestamp() < eviction.timestamp());
+        }
+
+        ProductDTO merge(final Long id, final ProductDTO cached) {
+            final boolean hasBase = cached != null && eviction == null;
+            if (!hasBase && !(newerThanEviction(product) && newerThanEviction(details))) {
+                return null;
+            }
+            final ProductDTO base = hasBase ? cached : new ProductDTO(id, null, null, null);
+            final ProductDTO merged = new ProductDTO(id, base.getName(), base.getDescription(), base.getCost());
+            if (newerThanEviction(product)) {
+                final Produto produto = (Produto) product.value();
+                merged.setName(produto.getNome());
+                merged.setCost(produto.getCusto());
+            }
+            if (newerThanEviction(details)) {
+                merged.setDescription(details.value() instanceof Detalhes detalhes ? detalhes.getDescricao() : null);
+            }
+            return merged;
+        }
+
+        List<ConsumerRecord<String, Object>> records() {
+            return Stream.of(product, details, eviction).filter(Objects::nonNull).toList();
+        }
+
+        private boolean newerThanEviction(final ConsumerRecord<String, Object> record) {
+            return record != null && (eviction == null || record.timestamp() >= eviction.timestamp());
+        }
+
+        // na mesma partição a ordem do lote já é a dos offsets; entre tópicos vale o timestamp
+        private static ConsumerRecord<String, Object> keepLatest(final ConsumerRecord<String, Object> current,
+                                                                 final ConsumerRecord<String, Object> candidate,
+                                                                 final Consumer<ConsumerRecord<String, Object>> setter) {
+            if (current == null) {
+                setter.accept(candidate);
+                return null;
+            }
+            if (candidate.timestamp() >= current.timestamp()) {
+                setter.accept(candidate);
+                return current;
+            }
+            return candidate;
+        }
+    }
+
+    private String offsetKey(final ConsumerRecord<String, Object> record, final Long id) {
+        return record.topic() + '/' + record.partition() + '/' + id;
+    }
+
+    private Timer lagTimer(final String topic) {
+        final Timer timer = lag.get(topic);
+        return timer != null ? timer : lag.get(topicProduct);
+    }
+
+    private void count(final String topic, final String result) {
+        final Counter counter = recordCounters.get(topic + '/' + result);
+        (counter != null ? counter : recordCounters.get(topicProduct + '/' + result)).increment();
+    }
+}
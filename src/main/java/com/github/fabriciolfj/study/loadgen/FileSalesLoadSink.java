@@ -0,0 +1,27 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import com.github.fabriciolfj.study.replay.SalesEventFileFormat;
+import com.github.fabriciolfj.study.replay.SalesEventFileWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class FileSalesLoadSink implements SalesLoadSink {
+
+    private final SalesEventFileWriter writer;
+
+    public FileSalesLoadSink(final Path path, final SalesEventFileFormat format) throws IOException {
+        this.writer = new SalesEventFileWriter(path, format);
+    }
+
+    @Override
+    public void write(final SalesEvent salesEvent) throws IOException {
+        writer.write(salesEvent);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
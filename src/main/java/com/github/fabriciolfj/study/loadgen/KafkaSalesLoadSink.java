@@ -0,0 +1,52 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import com.github.fabriciolfj.study.configuration.SalesEventHeaderTimestampExtractor;
+import com.github.fabriciolfj.study.configuration.SalesSerdes;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.io.IOException;
+
+/**
+ * Publica no tópico de vendas com chave = storeId, timestamp e header event_time_ms iguais
+ * ao event time (inclusive dos eventos atrasados), como um produtor real faria.
+ *
+ * O sink é dono do producer factory: close fecha o produtor, que não é bean, e sem isso
+ * as threads e conexões ficariam abertas com loadgen.exit-on-finish=false.
+ */
+public class KafkaSalesLoadSink implements SalesLoadSink {
+
+    private final DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+
+    public KafkaSalesLoadSink(final DefaultKafkaProducerFactory<String, byte[]> producerFactory, final String topic) {
+        this.producerFactory = producerFactory;
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.topic = topic;
+    }
+
+    @Override
+    public void write(final SalesEvent salesEvent) throws IOException {
+        final var record = new ProducerRecord<>(topic, null, salesEvent.getEventTime(), salesEvent.getStoreId(),
+                SalesSerdes.mapper().writeValueAsBytes(salesEvent));
+        SalesEventHeaderTimestampExtractor.writeEventTime(record.headers(), salesEvent.getEventTime());
+        kafkaTemplate.send(record);
+    }
+
+    @Override
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            kafkaTemplate.flush();
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+}
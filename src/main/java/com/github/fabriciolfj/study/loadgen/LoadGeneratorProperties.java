@@ -0,0 +1,46 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import com.github.fabriciolfj.study.replay.SalesEventFileFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros do gerador de carga (profile loadgen).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loadgen")
+public class LoadGeneratorProperties {
+
+    public enum Output { KAFKA, FILE }
+
+    private Output output = Output.KAFKA;
+    // destino quando output = FILE; o formato vem da extensão se format não for informado
+    private String file = "sales-events.ndjson";
+    private SalesEventFileFormat format;
+    private long events = 1_000_000;
+    // true: envia no ritmo de events-per-second; false: o mais rápido possível
+    private boolean paced = true;
+    private boolean exitOnFinish = true;
+
+    private int users = 100_000;
+    private int products = 10_000;
+    private int stores = 50;
+    private int categories = 20;
+    private double userSkew = 1.1;
+    private double productSkew = 1.0;
+    private int eventsPerSecond = 5_000;
+    private double latePercent = 5;
+    private Duration maxLateness = Duration.ofSeconds(45);
+    private int meanEventsPerSession = 20;
+    private Duration sessionGap = Duration.ofMinutes(15);
+    private long seed = 42;
+
+    public SalesLoadProfile toProfile() {
+        return new SalesLoadProfile(users, products, stores, categories, userSkew, productSkew, eventsPerSecond,
+                latePercent, maxLateness, meanEventsPerSession, sessionGap, System.currentTimeMillis(), seed);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import com.github.fabriciolfj.study.entity.SalesEvent;
+
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Gera SalesEvent sintéticos e determinísticos (mesmo seed, mesma sequência).
+ *
+ * - usuários e produtos com skew Zipf; a loja é a do usuário e a categoria a do produto,
+ *   então as chaves loja_categoria herdam o skew
+ * - o event time avança 1/eventsPerSecond por evento; latePercent dos eventos voltam até
+ *   maxLateness no tempo, exercitando o grace de 30s e o descarte de atrasados
+ * - depois de ~meanEventsPerSession compras o usuário fica inativo por sessionGap..2*sessionGap
+ *
+ * Sem fim: quem consome decide quantos eventos ler.
+ */
+public class SalesLoadGenerator implements Iterator<SalesEvent> {
+
+    // tentativas de sortear um usuário ativo antes de aceitar um inativo
+    private static final int ACTIVE_USER_ATTEMPTS = 8;
+
+    private final SalesLoadProfile profile;
+    private final SplittableRandom random;
+    private final ZipfSampler users;
+    private final ZipfSampler products;
+    private final long[] idleUntil;
+    private final double nanosPerEvent;
+    private final double sessionEndProbability;
+    private long eventNanos;
+    private long sequence;
+
+    public SalesLoadGenerator(final SalesLoadProfile profile) {
+        this.profile = profile;
+        this.random = new SplittableRandom(profile.seed());
+        this.users = new ZipfSampler(profile.users(), profile.userSkew());
+        this.products = new ZipfSampler(profile.products(), profile.productSkew());
+        this.idleUntil = new long[profile.users() + 1];
+        this.nanosPerEvent = 1_000_000_000.0 / Math.max(1, profile.eventsPerSecond());
+        this.sessionEndProbability = 1.0 / Math.max(1, profile.meanEventsPerSession());
+    }
+
+    @Override
+    public boolean hasNext() {
+        return true;
+    }
+
+    @Override
+    public SalesEvent next() {
+        eventNanos = (long) (++sequence * nanosPerEvent);
+        final long now = profile.startEpochMillis() + eventNanos / 1_000_000;
+
+        final int user = activeUser(now);
+        final int product = products.sample(random);
+
+        long eventTime = now;
+        if (profile.latePercent() > 0 && random.nextDouble() * 100 < profile.latePercent()) {
+            eventTime -= random.nextLong(1, Math.max(2, profile.maxLateness().toMillis() + 1));
+        }
+
+        if (random.nextDouble() < sessionEndProbability) {
+            final long gap = profile.sessionGap().toMillis();
+            idleUntil[user] = now + gap + random.nextLong(Math.max(1, gap));
+        }
+
+        // valor log-normal: mediana ~33, cauda longa
+        final double amount = Math.round(Math.exp(3.5 + 0.8 * random.nextGaussian()) * 100) / 100.0;
+
+        return SalesEvent.builder()
+                .eventId("evt-" + sequence)
+                .userId("user-" + user)
+                .productId("product-" + product)
+                .amount(Math.max(0.01, amount))
+                .quantity(1 + random.nextInt(3))
+                .eventTimeMillis(eventTime)
+                .storeId("store-" + (user % profile.stores()))
+                .category("cat-" + (product % profile.categories()))
+                .build();
+    }
+
+    // event time do último evento gerado (sem atraso), útil para avançar wall clock em testes
+    public long currentTimeMillis() {
+        return profile.startEpochMillis() + eventNanos / 1_000_000;
+    }
+
+    public long generated() {
+        return sequence;
+    }
+
+    private int activeUser(final long now) {
+        int user = users.sample(random);
+        for (int attempt = 1; attempt < ACTIVE_USER_ATTEMPTS && idleUntil[user] > now; attempt++) {
+            user = users.sample(random);
+        }
+        return user;
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import com.github.fabriciolfj.study.replay.SalesEventFileFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/*
+ * ./gradlew bootRun --args='--spring.profiles.active=loadgen --loadgen.output=FILE --loadgen.file=sales.ndjson --loadgen.paced=false'
+ */
+@Slf4j
+@Component
+@Profile("loadgen")
+@RequiredArgsConstructor
+public class SalesLoadGeneratorRunner implements ApplicationRunner {
+
+    private static final long PROGRESS_EVERY = 100_000;
+
+    private final LoadGeneratorProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${spring.kafka.bootstrap-servers[0]:localhost:29092}")
+    private String server1;
+
+    @Value("${spring.kafka.bootstrap-servers[1]:localhost:29093}")
+    private String server2;
+
+    @Value("${spring.kafka.bootstrap-servers[2]:localhost:29094}")
+    private String server3;
+
+    @Value("${topic.sales:sales-events}")
+    private String topicSales;
+
+    @Override
+    public void run(final ApplicationArguments args) throws IOException {
+        final var profile = properties.toProfile();
+        final var generator = new SalesLoadGenerator(profile);
+        final double nanosPerEvent = 1_000_000_000.0 / Math.max(1, profile.eventsPerSecond());
+
+        log.info("loadgen: {} events -> {} (paced={}, {} events/s, users={} skew={}, late={}%)",
+                properties.getEvents(), properties.getOutput(), properties.isPaced(), profile.eventsPerSecond(),
+                profile.users(), profile.userSkew(), profile.latePercent());
+
+        final long start = System.nanoTime();
+        try (SalesLoadSink sink = sink()) {
+            for (long i = 0; i < properties.getEvents(); i++) {
+                if (properties.isPaced()) {
+                    final long wait = start + (long) (i * nanosPerEvent) - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                sink.write(generator.next());
+
+                if ((i + 1) % PROGRESS_EVERY == 0) {
+                    log.info("loadgen: {} events", i + 1);
+                }
+            }
+            sink.flush();
+        }
+
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("loadgen: {} events in {}s ({} events/s)", generator.generated(),
+                String.format("%.2f", seconds), String.format("%.0f", generator.generated() / seconds));
+
+        if (properties.isExitOnFinish()) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private SalesLoadSink sink() throws IOException {
+        if (properties.getOutput() == LoadGeneratorProperties.Output.FILE) {
+            final Path path = Path.of(properties.getFile());
+            final SalesEventFileFormat format = properties.getFormat() != null
+                    ? properties.getFormat()
+                    : SalesEventFileFormat.fromPath(path);
+            return new FileSalesLoadSink(path, format);
+        }
+        return new KafkaSalesLoadSink(producerFactory(), topicSales);
+    }
+
+    // produtor próprio: o KafkaTemplate da aplicação serializa Avro, aqui o valor é o JSON do SalesEvent
+    private DefaultKafkaProducerFactory<String, byte[]> producerFactory() {
+        final Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, Arrays.asList(server1, server2, server3)
+                .stream()
+                .filter(Objects::nonNull)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList()));
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+}
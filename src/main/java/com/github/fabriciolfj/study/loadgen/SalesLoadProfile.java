@@ -0,0 +1,49 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import java.time.Duration;
+
+/**
+ * Formato do tráfego sintético de SalesEvent.
+ *
+ * @param eventsPerSecond      densidade em event time (e ritmo de envio quando paced)
+ * @param userSkew             expoente Zipf dos usuários (0 = uniforme)
+ * @param productSkew          expoente Zipf dos produtos
+ * @param latePercent          % de eventos com event time no passado (fora de ordem)
+ * @param maxLateness          atraso máximo; acima do grace de 30s o evento é descartado pela janela
+ * @param meanEventsPerSession compras por sessão antes do usuário ficar inativo
+ * @param sessionGap           inatividade mínima entre sessões (acima dos 10min da session window)
+ */
+public record SalesLoadProfile(int users,
+                               int products,
+                               int stores,
+                               int categories,
+                               double userSkew,
+                               double productSkew,
+                               int eventsPerSecond,
+                               double latePercent,
+                               Duration maxLateness,
+                               int meanEventsPerSession,
+                               Duration sessionGap,
+                               long startEpochMillis,
+                               long seed) {
+
+    public static SalesLoadProfile defaults() {
+        return new SalesLoadProfile(100_000, 10_000, 50, 20, 1.1, 1.0, 5_000,
+                5, Duration.ofSeconds(45), 20, Duration.ofMinutes(15), System.currentTimeMillis(), 42);
+    }
+
+    public SalesLoadProfile withUsers(final int users, final double userSkew) {
+        return new SalesLoadProfile(users, products, stores, categories, userSkew, productSkew, eventsPerSecond,
+                latePercent, maxLateness, meanEventsPerSession, sessionGap, startEpochMillis, seed);
+    }
+
+    public SalesLoadProfile withRate(final int eventsPerSecond) {
+        return new SalesLoadProfile(users, products, stores, categories, userSkew, productSkew, eventsPerSecond,
+                latePercent, maxLateness, meanEventsPerSession, sessionGap, startEpochMillis, seed);
+    }
+
+    public SalesLoadProfile withLateness(final double latePercent, final Duration maxLateness) {
+        return new SalesLoadProfile(users, products, stores, categories, userSkew, productSkew, eventsPerSecond,
+                latePercent, maxLateness, meanEventsPerSession, sessionGap, startEpochMillis, seed);
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import com.github.fabriciolfj.study.entity.SalesEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destino dos eventos do gerador de carga (Kafka ou arquivo de replay).
+ */
+public interface SalesLoadSink extends Closeable {
+
+    void write(SalesEvent salesEvent) throws IOException;
+
+    default void flush() throws IOException {
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.fabriciolfj.study.loadgen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Amostrador Zipf por rejection-inversion (Hörmann &amp; Derflinger), memória O(1) para qualquer
+ * número de elementos. Retorna ranks em [1, n]; exponent 0 é uniforme, ~1 é a cauda típica de
+ * usuários/produtos (poucos muito quentes).
+ */
+public class ZipfSampler {
+
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+
+    public ZipfSampler(final int numberOfElements, final double exponent) {
+        if (numberOfElements <= 0) {
+            throw new IllegalArgumentException("numberOfElements must be positive, got " + numberOfElements);
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must not be negative, got " + exponent);
+        }
+        this.numberOfElements = numberOfElements;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralNumberOfElements = hIntegral(numberOfElements + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    public int sample(final RandomGenerator random) {
+        while (true) {
+            final double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            final double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double hIntegral(final double x) {
+        final double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    private double h(final double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(final double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    // log1p(x) / x, estável perto de 0
+    private static double helper1(final double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    // expm1(x) / x, estável perto de 0
+    private static double helper2(final double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.fabriciolfj.study.replay;
+
+/**
+ * Registro como será publicado em sales-events: chave, SalesEvent já serializado (JSON) e
+ * timestamp do registro (event time, em millis).
+ */
+public record ReplayRecord(String key, byte[] value, long timestamp) {
+}
@@ -0,0 +1,21 @@
+package com.github.fabriciolfj.study.replay;
+
+import java.nio.file.Path;
+
+/**
+ * Formatos de arquivo de SalesEvent para replay offline.
+ *
+ * - NDJSON: um SalesEvent JSON por linha; chave = storeId, timestamp = event time do evento
+ * - BINARY: registros [long timestamp][int tamanho][chave UTF-8][int tamanho][valor JSON], sem
+ *   parse no replay: os bytes do valor vão direto para o TopologyTestDriver
+ */
+public enum SalesEventFileFormat {
+
+    NDJSON,
+    BINARY;
+
+    public static SalesEventFileFormat fromPath(final Path path) {
+        final String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : BINARY;
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.fabriciolfj.study.replay;
+
+import com.github.fabriciolfj.study.configuration.SalesSerdes;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê um arquivo de SalesEvent (NDJSON ou BINARY) como sequência de ReplayRecord.
+ *
+ * Com mmap o arquivo é mapeado em regiões de até MAP_REGION_BYTES, remapeadas a partir do
+ * registro corrente quando ele não cabe no que resta da região; sem mmap usa streams bufferizados.
+ */
+public class SalesEventFileReader implements Iterator<ReplayRecord>, Closeable {
+
+    static final int MAP_REGION_BYTES = 256 * 1024 * 1024;
+
+    private final SalesEventFileFormat format;
+    private final Source source;
+    private ReplayRecord next;
+
+    private SalesEventFileReader(final SalesEventFileFormat format, final Source source) {
+        this.format = format;
+        this.source = source;
+    }
+
+    public static SalesEventFileReader open(final Path path, final SalesEventFileFormat format, final boolean mmap)
+            throws IOException {
+        final Source source = mmap ? new MappedSource(path) : new StreamSource(path, format);
+        return new SalesEventFileReader(format, source);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = format == SalesEventFileFormat.NDJSON ? readNdjson() : source.readBinary();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ReplayRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var record = next;
+        next = null;
+        return record;
+    }
+
+    private ReplayRecord readNdjson() throws IOException {
+        byte[] line;
+        do {
+            line = source.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.length == 0);
+
+        // o valor segue como está no arquivo; o parse só resolve chave e timestamp
+        final SalesEvent salesEvent = SalesSerdes.mapper().readValue(line, SalesEvent.class);
+        return new ReplayRecord(salesEvent.getStoreId(), line, Math.max(0, salesEvent.getEventTime()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private interface Source extends Closeable {
+
+        byte[] readLine() throws IOException;
+
+        ReplayRecord readBinary() throws IOException;
+    }
+
+    private static final class StreamSource implements Source {
+
+        private final BufferedReader reader;
+        private final DataInputStream input;
+
+        private StreamSource(final Path path, final SalesEventFileFormat format) throws IOException {
+            if (format == SalesEventFileFormat.NDJSON) {
+                this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                this.input = null;
+            } else {
+                this.reader = null;
+                this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+            }
+        }
+
+        @Override
+        public byte[] readLine() throws IOException {
+            final String line = reader.readLine();
+            return line != null ? line.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        @Override
+        public ReplayRecord readBinary() throws IOException {
+            final long timestamp;
+            try {
+                timestamp = input.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            final byte[] key = new byte[input.readInt()];
+            input.readFully(key);
+            final byte[] value = new byte[input.readInt()];
+            input.readFully(value);
+            return new ReplayRecord(new String(key, StandardCharsets.UTF_8), value, timestamp);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+            }
+            if (input != null) {
+                input.close();
+            }
+        }
+    }
+
+    private static final class MappedSource implements Source {
+
+        private final FileChannel channel;
+        private final long size;
+        private long regionStart;
+        private MappedByteBuffer region;
+
+        private MappedSource(final Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            map(0);
+        }
+
+        @Override
+        public byte[] readLine() throws IOException {
+            while (true) {
+                if (!region.hasRemaining() && !remap()) {
+                    return null;
+                }
+                final int start = region.position();
+                for (int i = start; i < region.limit(); i++) {
+                    if (region.get(i) == '\n') {
+                        final byte[] line = copy(start, i - start);
+                        region.position(i + 1);
+                        return line;
+                    }
+                }
+                if (regionStart + region.limit() >= size) {
+                    // última linha sem '\n'
+                    final byte[] line = copy(start, region.limit() - start);
+                    region.position(region.limit());
+                    return line;
+                }
+                if (start == 0) {
+                    throw new IOException("Line longer than " + MAP_REGION_BYTES + " bytes at offset " + regionStart);
+                }
+                remap();
+            }
+        }
+
+        @Override
+        public ReplayRecord readBinary() throws IOException {
+            if (!ensure(Long.BYTES + Integer.BYTES)) {
+                return null;
+            }
+            final int start = region.position();
+            final long timestamp = region.getLong();
+            final int keyLength = region.getInt();
+            if (!ensure(keyLength + Integer.BYTES)) {
+                throw new EOFException("Truncated record at offset " + (regionStart + start));
+            }
+            final byte[] key = new byte[keyLength];
+            region.get(key);
+            final int valueLength = region.getInt();
+            if (!ensure(valueLength)) {
+                throw new EOFException("Truncated record at offset " + (regionStart + start));
+            }
+            final byte[] value = new byte[valueLength];
+            region.get(value);
+            return new ReplayRecord(new String(key, StandardCharsets.UTF_8), value, timestamp);
+        }
+
+        // garante bytes contíguos na região, remapeando a partir da posição corrente
+        private boolean ensure(final int bytes) throws IOException {
+            if (region.remaining() >= bytes) {
+                return true;
+            }
+            if (regionStart + region.position() + bytes > size) {
+                return false;
+            }
+            if (bytes > MAP_REGION_BYTES) {
+                throw new IOException("Record larger than " + MAP_REGION_BYTES + " bytes at offset "
+                        + (regionStart + region.position()));
+            }
+            remap();
+            return true;
+        }
+
+        private boolean remap() throws IOException {
+            final long position = regionStart + region.position();
+            if (position >= size) {
+                return false;
+            }
+            map(position);
+            return true;
+        }
+
+        private void map(final long position) throws IOException {
+            regionStart = position;
+            region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_REGION_BYTES, size - position));
+        }
+
+        private byte[] copy(final int offset, final int length) {
+            final byte[] bytes = new byte[length];
+            region.get(offset, bytes);
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.fabriciolfj.study.replay;
+
+import com.github.fabriciolfj.study.configuration.SalesSerdes;
+import com.github.fabriciolfj.study.entity.SalesEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Grava SalesEvent no formato lido pelo SalesEventFileReader (chave = storeId).
+ */
+public class SalesEventFileWriter implements Closeable {
+
+    private final SalesEventFileFormat format;
+    private final DataOutputStream output;
+
+    public SalesEventFileWriter(final Path path, final SalesEventFileFormat format) throws IOException {
+        this.format = format;
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    }
+
+    public void write(final SalesEvent salesEvent) throws IOException {
+        final byte[] value = SalesSerdes.mapper().writeValueAsBytes(salesEvent);
+
+        if (format == SalesEventFileFormat.NDJSON) {
+            output.write(value);
+            output.write('\n');
+            return;
+        }
+
+        final byte[] key = salesEvent.getStoreId().getBytes(StandardCharsets.UTF_8);
+        output.writeLong(Math.max(0, salesEvent.getEventTime()));
+        output.writeInt(key.length);
+        output.write(key);
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -1,6 +1,12 @@
 package com.github.fabriciolfj.study.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface InsertRepository<E> {
 
     E insert(E employee);
+
+    // um INSERT em batch para todo o lote; os callbacks (ex.: geração de id) rodam por entidade
+    List<E> insertAll(Collection<E> entities);
 }
@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.jdbc.core.JdbcAggregateTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 @RequiredArgsConstructor
 class InsertRepositoryImpl<E> implements InsertRepository<E> {
@@ -14,4 +17,12 @@ class InsertRepositoryImpl<E> implements InsertRepository<E> {
     public E insert(E employee) {
         return template.insert(employee);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<E> insertAll(Collection<E> entities) {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+        return template.insertAll(entities);
+    }
+}
@@ -1,11 +1,11 @@
 package com.github.fabriciolfj.study.service;
 
+import com.github.fabriciolfj.study.cache.RedisCacheAside;
 import com.github.fabriciolfj.study.clients.CarClient;
 import com.github.fabriciolfj.study.dto.CarDTO;
 import com.github.fabriciolfj.study.exceptions.CarNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import javax.smartcardio.CardNotPresentException;
@@ -16,11 +16,21 @@ import java.util.random.RandomGenerator;
 @RequiredArgsConstructor
 public class CarService {
 
+    private static final String CAR_KEY = "first";
+
     private final CarClient carClient;
+    private final RedisCacheAside<CarDTO> carCacheAside;
     private final static RandomGenerator RANDOM_GENERATOR = RandomGenerator.getDefault();
 
-    @Cacheable(value = "cars-by-place", cacheManager = "carCacheManager", sync = true)
+    /*
+     * Cache-aside com lock distribuído: uma carga por chave entre todos os pods, valor stale
+     * servido enquanto recarrega e o "não encontrado" cacheado por pouco tempo.
+     */
     public CarDTO getCar() {
+        return carCacheAside.get(CAR_KEY, this::loadCar);
+    }
+
+    private CarDTO loadCar() {
         log.info("executou");
         var result = RANDOM_GENERATOR.nextInt(0, 1000);
         if (result % 2 == 0) {
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class CarsService {
@@ -18,6 +20,22 @@ public class CarsService {
         carRepository.save(car);
     }
 
+    /*
+     * Grava cópias sem id: com IDENTITY o INSERT preenche o id na instância mesmo quando a
+     * transação volta, e o retry item a item do group commit faria merge de um id que não
+     * existe. Os Car recebidos ficam intactos; os devolvidos são os gravados.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public List<Car> createAll(final List<Car> cars) {
+        return carRepository.saveAll(cars.stream().map(CarsService::newCar).toList());
+    }
+
+    private static Car newCar(final Car car) {
+        var copy = new Car();
+        copy.setName(car.getName());
+        return copy;
+    }
+
     @Transactional(readOnly = true)
     public Car findById(final Long id) {
         return carRepository.findById(id)
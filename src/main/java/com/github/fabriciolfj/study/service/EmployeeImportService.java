@@ -0,0 +1,79 @@
+package com.github.fabriciolfj.study.service;
+
+import com.github.fabriciolfj.study.dto.BatchInsertDTO;
+import com.github.fabriciolfj.study.entity.Employee;
+import com.github.fabriciolfj.study.exceptions.InvalidBatchException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga de funcionários a partir de um array JSON lido em streaming.
+ *
+ * O corpo nunca fica inteiro em memória: a cada employee.batch.size itens o lote vai para
+ * executeSaveAll, uma transação e um INSERT em batch. Um lote com erro interrompe a carga,
+ * os anteriores já estão gravados.
+ */
+@Slf4j
+@Service
+public class EmployeeImportService {
+
+    private final EmployeeService employeeService;
+    private final JsonMapper jsonMapper;
+    private final int batchSize;
+
+    public EmployeeImportService(final EmployeeService employeeService,
+                                 final JsonMapper jsonMapper,
+                                 @Value("${employee.batch.size:500}") final int batchSize) {
+        this.employeeService = employeeService;
+        this.jsonMapper = jsonMapper;
+        this.batchSize = batchSize;
+    }
+
+    public BatchInsertDTO importArray(final InputStream body) {
+        long inserted = 0;
+        int batches = 0;
+        final List<Employee> batch = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidBatchException("expected a JSON array of employees", inserted);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                try {
+                    batch.add(jsonMapper.readValue(parser, Employee.class));
+                } catch (JacksonException e) {
+                    throw new InvalidBatchException("invalid employee at item " + (inserted + batch.size())
+                            + ": " + e.getOriginalMessage(), inserted);
+                }
+                if (batch.size() == batchSize) {
+                    inserted += employeeService.executeSaveAll(batch);
+                    batches++;
+                    batch.clear();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new InvalidBatchException("expected only employee objects in the array", inserted);
+            }
+        } catch (JacksonException e) {
+            // JSON malformado fora de um item (nextToken, fim truncado): 400 como os demais
+            throw new InvalidBatchException("malformed JSON after item " + (inserted + batch.size())
+                    + ": " + e.getOriginalMessage(), inserted);
+        }
+        if (!batch.isEmpty()) {
+            inserted += employeeService.executeSaveAll(batch);
+            batches++;
+        }
+
+        log.info("employee import: {} rows in {} batches", inserted, batches);
+        return new BatchInsertDTO(inserted, batches);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -21,4 +22,9 @@ public class EmployeeService {
     public void executeSave(final Employee employee) {
         repository.insert(employee);
     }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int executeSaveAll(final List<Employee> employees) {
+        return repository.insertAll(employees).size();
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.fabriciolfj.study.service;
 
+import com.github.fabriciolfj.study.cache.BulkGetResult;
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
 import com.github.fabriciolfj.study.dto.ProductDTO;
 import com.study.details.Detalhes;
 import com.study.produto.Produto;
@@ -13,6 +15,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import tools.jackson.databind.ObjectMapper;
 
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -27,14 +30,17 @@ public class ProductProduceService {
     private final KafkaTemplate<String, Detalhes> kafkaTemplateDetails;
     @Qualifier("productCacheManager")
     private final CacheManager cacheManager;
+    private final RedisBulkCache<Long, ProductDTO> productBulkCache;
 
     public ProductProduceService(KafkaTemplate<String, Produto> kafkaTemplate,
                                  KafkaTemplate<String, Detalhes> kafkaTemplateDetails,
                                  @Qualifier("productCacheManager")
-                                 CacheManager cacheManager) {
+                                 CacheManager cacheManager,
+                                 RedisBulkCache<Long, ProductDTO> productBulkCache) {
         this.kafkaTemplate = kafkaTemplate;
         this.kafkaTemplateDetails = kafkaTemplateDetails;
         this.cacheManager = cacheManager;
+        this.productBulkCache = productBulkCache;
     }
 
     public void send(final ProductDTO dto) {
@@ -63,6 +69,8 @@ public class ProductProduceService {
             }
         });
 
+        // o cache não tem loader: o DTO completo entra aqui; o ProductCacheCoherenceListener
+        // aplica depois as mudanças que chegam pelos tópicos
         var cache = cacheManager.getCache("product");
         if (cache != null) {
             cache.put(dto.getId(), dto);
@@ -81,8 +89,12 @@ public class ProductProduceService {
         return Optional.empty();
     }
 
+    public BulkGetResult<Long, ProductDTO> getProducts(final List<Long> ids) {
+        return productBulkCache.getAll(ids);
+    }
+
     public void evictProduct(final Long id) {
-        Cache cache = cacheManager.getCache("products");
+        Cache cache = cacheManager.getCache("product");
         if (cache != null) {
             cache.evict(id);
         }
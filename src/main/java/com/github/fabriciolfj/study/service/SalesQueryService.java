@@ -1,5 +1,6 @@
 package com.github.fabriciolfj.study.service;
 
+import com.github.fabriciolfj.study.entity.SalesAggregator;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StoreQueryParameters;
@@ -23,26 +24,28 @@ public class SalesQueryService {
         KafkaStreams streams = streamProcessor.getStreams();
         String storeName = streamProcessor.getStoreName();
 
-        ReadOnlyKeyValueStore<String, Double> store = streams.store(
+        ReadOnlyKeyValueStore<String, SalesAggregator> store = streams.store(
                 StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.keyValueStore())
         );
 
-        return store.get(userId);
+        // o store guarda o SalesAggregator completo (merge dos parciais); a API continua expondo o total
+        SalesAggregator aggregator = store.get(userId);
+        return aggregator != null ? aggregator.getTotalAmount() : null;
     }
 
     // Consulta range de chaves
     public Map<String, Double> getUserTotalsRange(String from, String to) {
         KafkaStreams streams = streamProcessor.getStreams();
-        ReadOnlyKeyValueStore<String, Double> store = streams.store(
+        ReadOnlyKeyValueStore<String, SalesAggregator> store = streams.store(
                 StoreQueryParameters.fromNameAndType(streamProcessor.getStoreName(),
                         QueryableStoreTypes.keyValueStore())
         );
 
         Map<String, Double> results = new HashMap<>();
-        try (KeyValueIterator<String, Double> iterator = store.range(from, to)) {
+        try (KeyValueIterator<String, SalesAggregator> iterator = store.range(from, to)) {
             while (iterator.hasNext()) {
-                KeyValue<String, Double> next = iterator.next();
-                results.put(next.key, next.value);
+                KeyValue<String, SalesAggregator> next = iterator.next();
+                results.put(next.key, next.value.getTotalAmount());
             }
         }
         return results;
@@ -50,16 +53,16 @@ public class SalesQueryService {
 
     // Consulta todos os registros
     public Map<String, Double> getAllUserTotals() {
-        ReadOnlyKeyValueStore<String, Double> store = streamProcessor.getStreams().store(
+        ReadOnlyKeyValueStore<String, SalesAggregator> store = streamProcessor.getStreams().store(
                 StoreQueryParameters.fromNameAndType(streamProcessor.getStoreName(),
                         QueryableStoreTypes.keyValueStore())
         );
 
         Map<String, Double> results = new HashMap<>();
-        try (KeyValueIterator<String, Double> iterator = store.all()) {
+        try (KeyValueIterator<String, SalesAggregator> iterator = store.all()) {
             while (iterator.hasNext()) {
-                KeyValue<String, Double> next = iterator.next();
-                results.put(next.key, next.value);
+                KeyValue<String, SalesAggregator> next = iterator.next();
+                results.put(next.key, next.value.getTotalAmount());
             }
         }
         return results;
@@ -67,7 +70,7 @@ public class SalesQueryService {
 
     // Consulta aproximada por contagem
     public long getApproximateNumEntries() {
-        ReadOnlyKeyValueStore<String, Double> store = streamProcessor.getStreams().store(
+        ReadOnlyKeyValueStore<String, SalesAggregator> store = streamProcessor.getStreams().store(
                 StoreQueryParameters.fromNameAndType(streamProcessor.getStoreName(),
                         QueryableStoreTypes.keyValueStore())
         );
@@ -0,0 +1,22 @@
+package com.github.fabriciolfj.study.service;
+
+import com.github.fabriciolfj.study.entity.Sales;
+import com.github.fabriciolfj.study.repositories.SalesRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SalesService {
+
+    private final SalesRepository salesRepository;
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public List<Sales> createAll(final List<Sales> sales) {
+        return salesRepository.saveAll(sales);
+    }
+}
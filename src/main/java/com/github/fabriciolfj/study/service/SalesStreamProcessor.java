@@ -1,19 +1,28 @@
 package com.github.fabriciolfj.study.service;
 
+import com.github.fabriciolfj.study.configuration.SalesPreAggregationProcessor;
+import com.github.fabriciolfj.study.configuration.SalesSerdes;
+import com.github.fabriciolfj.study.entity.SalesAggregator;
 import com.github.fabriciolfj.study.entity.SalesEvent;
 import jakarta.annotation.PostConstruct;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.state.KeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Properties;
 
 @Service
@@ -22,6 +31,9 @@ public class SalesStreamProcessor {
     private KafkaStreams streams;
     private final String STORE_NAME = "sales-aggregates-store";
 
+    @Value("${topology.sales-analytics.pre-aggregation-interval:PT1S}")
+    private Duration preAggregationInterval;
+
     //@PostConstruct
     public void startStreams() {
         Properties props = new Properties();
@@ -37,17 +49,27 @@ public class SalesStreamProcessor {
     private Topology buildTopology() {
         StreamsBuilder builder = new StreamsBuilder();
 
-        KStream<String, SalesEvent> salesStream = builder.stream("sales-events");
+        KStream<String, SalesEvent> salesStream = builder.stream("sales-events",
+                Consumed.with(Serdes.String(), SalesSerdes.salesEvent()));
+
+        // Agregação por usuário em state store: com pré-agregação só os parciais
+        // (um por usuário por intervalo) vão para o tópico de repartição
+        KGroupedStream<String, SalesAggregator> byUser = preAggregationInterval.isZero()
+                ? salesStream
+                        .map((key, salesEvent) -> KeyValue.pair(salesEvent.getUserId(),
+                                new SalesAggregator().addSale(salesEvent.getAmount(), salesEvent.getEventTime())))
+                        .groupByKey(Grouped.with("sales-by-user", Serdes.String(), SalesSerdes.salesAggregator()))
+                : SalesPreAggregationProcessor
+                        .userPartials(salesStream, "sales-user-pre-aggregation", preAggregationInterval)
+                        .groupByKey(Grouped.with("sales-by-user", Serdes.String(), SalesSerdes.salesAggregator()));
 
-        // Agregação por usuário em state store
-        KTable<String, Double> userTotals = salesStream
-                .groupBy((key, salesEvent) -> salesEvent.getUserId())
+        KTable<String, SalesAggregator> userTotals = byUser
                 .aggregate(
-                        () -> 0.0,
-                        (userId, salesEvent, aggregate) -> aggregate + salesEvent.getAmount(),
-                        Materialized.<String, Double, KeyValueStore<Bytes, byte[]>>as(STORE_NAME)
+                        SalesAggregator::new,
+                        (userId, partial, aggregate) -> aggregate.merge(partial),
+                        Materialized.<String, SalesAggregator, KeyValueStore<Bytes, byte[]>>as(STORE_NAME)
                                 .withKeySerde(Serdes.String())
-                                .withValueSerde(Serdes.Double())
+                                .withValueSerde(SalesSerdes.salesAggregator())
                 );
 
         return builder.build();
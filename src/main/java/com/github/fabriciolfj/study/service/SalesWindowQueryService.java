@@ -0,0 +1,88 @@
+package com.github.fabriciolfj.study.service;
+
+import com.github.fabriciolfj.study.configuration.StreamsTopologyWindowing;
+import com.github.fabriciolfj.study.dto.DistinctBuyersDTO;
+import com.github.fabriciolfj.study.dto.TopProductsDTO;
+import com.github.fabriciolfj.study.entity.TopProducts;
+import com.github.fabriciolfj.study.sketch.HyperLogLog;
+import com.github.fabriciolfj.study.sketch.SpaceSaving;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interactive queries sobre os stores janelados da topologia de vendas.
+ * Retorna vazio quando a topologia não está registrada ou o store ainda não está pronto (rebalance).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesWindowQueryService {
+
+    private static final Duration WINDOW_SIZE = Duration.ofMinutes(1);
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    public Optional<DistinctBuyersDTO> getDistinctBuyers(final String windowKey, final Instant from, final Instant to) {
+        return this.<HyperLogLog>windowStore(StreamsTopologyWindowing.DISTINCT_BUYERS_STORE).map(store -> {
+            var windows = new ArrayList<DistinctBuyersDTO.Window>();
+            HyperLogLog merged = null;
+
+            try (var iterator = store.fetch(windowKey, from, to)) {
+                while (iterator.hasNext()) {
+                    var next = iterator.next();
+                    windows.add(new DistinctBuyersDTO.Window(Instant.ofEpochMilli(next.key), next.value.estimate()));
+                    merged = merged == null ? next.value : merged.merge(next.value);
+                }
+            }
+
+            return new DistinctBuyersDTO(windowKey, from, to, merged == null ? 0 : merged.estimate(), windows);
+        });
+    }
+
+    public Optional<TopProductsDTO> getTopProducts(final String storeId, final Instant from, final Instant to,
+                                                   final int k) {
+        return this.<SpaceSaving>windowStore(StreamsTopologyWindowing.TOP_PRODUCTS_STORE).map(store -> {
+            var windows = new ArrayList<TopProducts>();
+            SpaceSaving merged = null;
+
+            try (var iterator = store.fetch(storeId, from, to)) {
+                while (iterator.hasNext()) {
+                    var next = iterator.next();
+                    var start = Instant.ofEpochMilli(next.key);
+                    windows.add(new TopProducts(storeId, start, start.plus(WINDOW_SIZE), next.value.top(k)));
+                    merged = merged == null ? next.value : merged.merge(next.value);
+                }
+            }
+
+            return new TopProductsDTO(storeId, from, to, merged == null ? List.of() : merged.top(k), windows);
+        });
+    }
+
+    private <V> Optional<ReadOnlyWindowStore<String, V>> windowStore(final String storeName) {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (streams == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(streams.store(
+                    StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.<String, V>windowStore())));
+        } catch (InvalidStateStoreException e) {
+            log.warn("store {} indisponível: {}", storeName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
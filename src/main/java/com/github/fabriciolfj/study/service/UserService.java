@@ -1,19 +1,27 @@
 package com.github.fabriciolfj.study.service;
 
+import com.github.fabriciolfj.study.cache.BulkGetResult;
+import com.github.fabriciolfj.study.cache.RedisBulkCache;
 import com.github.fabriciolfj.study.entity.User;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserService {
 
     private final CacheManager cacheManager;
+    private final RedisBulkCache<Long, User> userBulkCache;
 
-    public UserService(@Qualifier("userCacheManager") CacheManager cacheManager) {
+    public UserService(@Qualifier("userCacheManager") CacheManager cacheManager,
+                       RedisBulkCache<Long, User> userBulkCache) {
         this.cacheManager = cacheManager;
+        this.userBulkCache = userBulkCache;
     }
 
     public void create(final User user) {
@@ -23,6 +31,12 @@ public class UserService {
         }
     }
 
+    public void createAll(final List<User> users) {
+        final Map<Long, User> entries = new LinkedHashMap<>();
+        users.forEach(user -> entries.put(user.getId(), user));
+        userBulkCache.putAll(entries);
+    }
+
     public Optional<User> getUser(final Long id) {
         var cache = cacheManager.getCache("users");
         if (cache != null) {
@@ -32,6 +46,11 @@ public class UserService {
         return Optional.empty();
     }
 
+    // um MGET para todos os ids; os ausentes voltam em missing
+    public BulkGetResult<Long, User> getUsers(final List<Long> ids) {
+        return userBulkCache.getAll(ids);
+    }
+
     public Optional<User> getWrapperUser(final Long id, Cache cache) {
         final Cache.ValueWrapper wrapper = cache.get(id);
         if (wrapper != null) {
@@ -0,0 +1,201 @@
+package com.github.fabriciolfj.study.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog para contagem aproximada de distintos com memória fixa.
+ *
+ * - 2^precision registradores de 1 byte (precision 12 = 4KB, erro padrão ~1.6%)
+ * - mergeable: o merge é o máximo registrador a registrador, então janelas
+ *   podem ser combinadas sem recontar os eventos
+ * - serialização compacta: esparsa (índice + valor) enquanto poucos registradores
+ *   estão preenchidos, densa depois disso
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final byte VERSION = 1;
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+    private static final int HEADER_SIZE = 3;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(final int precision) {
+        this(precision, new byte[1 << checkPrecision(precision)]);
+    }
+
+    private HyperLogLog(final int precision, final byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public HyperLogLog add(final String value) {
+        if (value != null) {
+            addHash(hash64(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        return this;
+    }
+
+    public void addHash(final long hash) {
+        final int index = (int) (hash >>> (Long.SIZE - precision));
+        // bit de guarda garante rank <= 64 - precision + 1
+        final long remaining = (hash << precision) | (1L << (precision - 1));
+        final byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public HyperLogLog merge(final HyperLogLog other) {
+        if (other == null) {
+            return copy();
+        }
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog with precision " + other.precision
+                    + " into precision " + precision);
+        }
+
+        final byte[] merged = Arrays.copyOf(registers, registers.length);
+        for (int i = 0; i < merged.length; i++) {
+            if (other.registers[i] > merged[i]) {
+                merged[i] = other.registers[i];
+            }
+        }
+        return new HyperLogLog(precision, merged);
+    }
+
+    public long estimate() {
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        // correção para cardinalidades pequenas (linear counting)
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public HyperLogLog copy() {
+        return new HyperLogLog(precision, Arrays.copyOf(registers, registers.length));
+    }
+
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+
+        final int sparseSize = HEADER_SIZE + Integer.BYTES + nonZero * SPARSE_ENTRY_SIZE;
+        final int denseSize = HEADER_SIZE + registers.length;
+
+        if (sparseSize < denseSize) {
+            final ByteBuffer buffer = ByteBuffer.allocate(sparseSize)
+                    .put(VERSION)
+                    .put((byte) precision)
+                    .put(SPARSE)
+                    .putInt(nonZero);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+
+        return ByteBuffer.allocate(denseSize)
+                .put(VERSION)
+                .put((byte) precision)
+                .put(DENSE)
+                .put(registers)
+                .array();
+    }
+
+    public static HyperLogLog fromBytes(final byte[] data) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog version " + version);
+        }
+
+        final int precision = checkPrecision(buffer.get());
+        final byte format = buffer.get();
+        final byte[] registers = new byte[1 << precision];
+
+        if (format == SPARSE) {
+            final int entries = buffer.getInt();
+            for (int i = 0; i < entries; i++) {
+                final int index = Short.toUnsignedInt(buffer.getShort());
+                registers[index] = buffer.get();
+            }
+        } else {
+            buffer.get(registers);
+        }
+        return new HyperLogLog(precision, registers);
+    }
+
+    // FNV-1a 64 com finalizador do murmur3 (fmix64) para espalhar os bits altos
+    static long hash64(final byte[] data) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static double alpha(final int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    private static int checkPrecision(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION + ", got " + precision);
+        }
+        return precision;
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog{" +
+                "precision=" + precision +
+                ", estimate=" + estimate() +
+                '}';
+    }
+}
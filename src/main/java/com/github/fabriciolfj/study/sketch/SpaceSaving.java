@@ -0,0 +1,198 @@
+package com.github.fabriciolfj.study.sketch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving (Metwally et al.) ponderado para os itens mais pesados de um stream.
+ *
+ * - no máximo capacity contadores, independente do número de itens distintos
+ * - quando cheio, o item novo herda o contador mínimo (count = min + peso, error = min);
+ *   todo item com peso acumulado > total / capacity está garantidamente no sketch
+ * - mergeable: o merge soma os contadores e, para itens que faltam de um lado, soma o
+ *   mínimo daquele lado (limite superior), mantendo os capacity maiores
+ */
+public class SpaceSaving {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final byte VERSION = 1;
+
+    private static final Comparator<Counter> BY_COUNT_DESC =
+            Comparator.comparingDouble((Counter counter) -> counter.count).reversed();
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public SpaceSaving() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SpaceSaving(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("SpaceSaving capacity must be positive, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public SpaceSaving add(final String item, final double weight) {
+        if (item == null || weight <= 0) {
+            return this;
+        }
+
+        var counter = counters.get(item);
+        if (counter != null) {
+            counter.count += weight;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new Counter(item, weight, 0));
+        } else {
+            // capacity é pequeno (dezenas/centenas): varredura linear é mais barata
+            // que manter uma estrutura ordenada a cada update
+            var min = minCounter();
+            counters.remove(min.item);
+            counters.put(item, new Counter(item, min.count + weight, min.count));
+        }
+        return this;
+    }
+
+    public SpaceSaving merge(final SpaceSaving other) {
+        if (other == null) {
+            return copy();
+        }
+
+        final double thisMin = isFull() ? minCounter().count : 0;
+        final double otherMin = other.isFull() ? other.minCounter().count : 0;
+
+        final Map<String, Counter> combined = new HashMap<>();
+        for (var counter : counters.values()) {
+            var otherCounter = other.counters.get(counter.item);
+            combined.put(counter.item, otherCounter != null
+                    ? new Counter(counter.item, counter.count + otherCounter.count, counter.error + otherCounter.error)
+                    : new Counter(counter.item, counter.count + otherMin, counter.error + otherMin));
+        }
+        for (var counter : other.counters.values()) {
+            if (!combined.containsKey(counter.item)) {
+                combined.put(counter.item, new Counter(counter.item, counter.count + thisMin, counter.error + thisMin));
+            }
+        }
+
+        final int mergedCapacity = Math.max(capacity, other.capacity);
+        var merged = new SpaceSaving(mergedCapacity);
+        combined.values().stream()
+                .sorted(BY_COUNT_DESC)
+                .limit(mergedCapacity)
+                .forEach(counter -> merged.counters.put(counter.item, counter));
+        return merged;
+    }
+
+    public List<Entry> top(final int k) {
+        return counters.values().stream()
+                .sorted(BY_COUNT_DESC)
+                .limit(k)
+                .map(counter -> new Entry(counter.item, counter.count, counter.error))
+                .toList();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public SpaceSaving copy() {
+        var copy = new SpaceSaving(capacity);
+        counters.values().forEach(counter ->
+                copy.counters.put(counter.item, new Counter(counter.item, counter.count, counter.error)));
+        return copy;
+    }
+
+    public byte[] toBytes() {
+        final List<byte[]> items = new ArrayList<>(counters.size());
+        int size = 1 + Integer.BYTES * 2;
+        for (var counter : counters.values()) {
+            var item = counter.item.getBytes(StandardCharsets.UTF_8);
+            items.add(item);
+            size += Short.BYTES + item.length + Double.BYTES * 2;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(VERSION)
+                .putInt(capacity)
+                .putInt(counters.size());
+        int i = 0;
+        for (var counter : counters.values()) {
+            var item = items.get(i++);
+            buffer.putShort((short) item.length)
+                    .put(item)
+                    .putDouble(counter.count)
+                    .putDouble(counter.error);
+        }
+        return buffer.array();
+    }
+
+    public static SpaceSaving fromBytes(final byte[] data) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported SpaceSaving version " + version);
+        }
+
+        var sketch = new SpaceSaving(buffer.getInt());
+        final int entries = buffer.getInt();
+        for (int i = 0; i < entries; i++) {
+            var item = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(item);
+            var key = new String(item, StandardCharsets.UTF_8);
+            sketch.counters.put(key, new Counter(key, buffer.getDouble(), buffer.getDouble()));
+        }
+        return sketch;
+    }
+
+    private boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    private Counter minCounter() {
+        Counter min = null;
+        for (var counter : counters.values()) {
+            if (min == null || counter.count < min.count) {
+                min = counter;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Item estimado; o peso real está entre count - error e count.
+     */
+    public record Entry(String item, double count, double error) {
+    }
+
+    private static final class Counter {
+        private final String item;
+        private double count;
+        private final double error;
+
+        private Counter(final String item, final double count, final double error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SpaceSaving{" +
+                "capacity=" + capacity +
+                ", size=" + counters.size() +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.fabriciolfj.study.store;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Map;
+
+/**
+ * RocksDBConfigSetter que limita a memória off-heap de TODOS os stores da JVM.
+ *
+ * - Um único LRUCache de blocos é compartilhado entre os stores (inclusive index/filter)
+ * - Um único WriteBufferManager contabiliza os memtables dentro desse mesmo cache
+ * - Bloom filter por store para evitar leitura de SST em get de chave inexistente
+ *
+ * O Kafka Streams cria uma instância por store via construtor padrão, por isso
+ * o cache e o WriteBufferManager são estáticos e nunca fechados no close().
+ *
+ * Overrides por store: rocksdb.store.&lt;storeName&gt;.&lt;write.buffer.size|max.write.buffers|bloom.bits.per.key|block.size&gt;
+ * O nome vale como prefixo: o setter recebe os nomes internos (ex.: product-join-details
+ * vira product-join-details-this-join-store e -other-join-store, mais o sufixo de cada
+ * segmento); vence o override de prefixo mais longo.
+ */
+public class BoundedMemoryRocksDBConfigSetter implements RocksDBConfigSetter {
+
+    public static final String TOTAL_OFF_HEAP_CONFIG = "rocksdb.bounded.total.off.heap.bytes";
+    public static final String TOTAL_MEMTABLE_CONFIG = "rocksdb.bounded.total.memtable.bytes";
+    public static final String INDEX_FILTER_RATIO_CONFIG = "rocksdb.bounded.index.filter.block.ratio";
+    public static final String BLOOM_BITS_PER_KEY_CONFIG = "rocksdb.bounded.bloom.bits.per.key";
+    public static final String STORE_OVERRIDE_PREFIX = "rocksdb.store.";
+
+    public static final String WRITE_BUFFER_SIZE = "write.buffer.size";
+    public static final String MAX_WRITE_BUFFERS = "max.write.buffers";
+    public static final String BLOOM_BITS_PER_KEY = "bloom.bits.per.key";
+    public static final String BLOCK_SIZE = "block.size";
+
+    private static final long DEFAULT_TOTAL_OFF_HEAP = 256 * 1024 * 1024L;
+    private static final long DEFAULT_TOTAL_MEMTABLE = 64 * 1024 * 1024L;
+    private static final double DEFAULT_INDEX_FILTER_RATIO = 0.1;
+    private static final double DEFAULT_BLOOM_BITS_PER_KEY = 10;
+
+    private static Cache cache;
+    private static WriteBufferManager writeBufferManager;
+    private static long cacheCapacity;
+
+    private BloomFilter filter;
+
+    @Override
+    public void setConfig(final String storeName, final Options options, final Map<String, Object> configs) {
+        initSharedResources(configs);
+
+        final BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(cache);
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        tableConfig.setPinTopLevelIndexAndFilter(true);
+
+        final Object bloomOverride = override(configs, storeName, BLOOM_BITS_PER_KEY);
+        final double bloomBits = bloomOverride != null
+                ? Double.parseDouble(bloomOverride.toString())
+                : doubleConfig(configs, BLOOM_BITS_PER_KEY_CONFIG, DEFAULT_BLOOM_BITS_PER_KEY);
+        if (bloomBits > 0) {
+            filter = new BloomFilter(bloomBits);
+            tableConfig.setFilterPolicy(filter);
+        }
+
+        final Object blockSize = override(configs, storeName, BLOCK_SIZE);
+        if (blockSize != null) {
+            tableConfig.setBlockSize(Long.parseLong(blockSize.toString()));
+        }
+
+        options.setWriteBufferManager(writeBufferManager);
+        options.setTableFormatConfig(tableConfig);
+        options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+
+        final Object writeBufferSize = override(configs, storeName, WRITE_BUFFER_SIZE);
+        if (writeBufferSize != null) {
+            options.setWriteBufferSize(Long.parseLong(writeBufferSize.toString()));
+        }
+
+        final Object maxWriteBuffers = override(configs, storeName, MAX_WRITE_BUFFERS);
+        if (maxWriteBuffers != null) {
+            options.setMaxWriteBufferNumber(Integer.parseInt(maxWriteBuffers.toString()));
+        }
+    }
+
+    @Override
+    public void close(final String storeName, final Options options) {
+        // cache e WriteBufferManager são compartilhados: fecha só o que é do store
+        if (filter != null) {
+            filter.close();
+        }
+    }
+
+    public static synchronized Cache sharedCache() {
+        return cache;
+    }
+
+    public static synchronized long sharedCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    private static synchronized void initSharedResources(final Map<String, Object> configs) {
+        if (cache != null) {
+            return;
+        }
+
+        final long totalOffHeap = longConfig(configs, TOTAL_OFF_HEAP_CONFIG, DEFAULT_TOTAL_OFF_HEAP);
+        final long totalMemtable = longConfig(configs, TOTAL_MEMTABLE_CONFIG, DEFAULT_TOTAL_MEMTABLE);
+        final double indexFilterRatio = doubleConfig(configs, INDEX_FILTER_RATIO_CONFIG, DEFAULT_INDEX_FILTER_RATIO);
+
+        cacheCapacity = totalOffHeap;
+        cache = new LRUCache(totalOffHeap, -1, false, indexFilterRatio);
+        writeBufferManager = new WriteBufferManager(totalMemtable, cache);
+    }
+
+    static Object override(final Map<String, Object> configs, final String storeName, final String key) {
+        final String suffix = "." + key;
+        String match = null;
+        Object value = null;
+        for (var entry : configs.entrySet()) {
+            final String config = entry.getKey();
+            if (!config.startsWith(STORE_OVERRIDE_PREFIX) || !config.endsWith(suffix)) {
+                continue;
+            }
+            final String name = config.substring(STORE_OVERRIDE_PREFIX.length(), config.length() - suffix.length());
+            if (storeName.startsWith(name) && (match == null || name.length() > match.length())) {
+                match = name;
+                value = entry.getValue();
+            }
+        }
+        return value;
+    }
+
+    private static long longConfig(final Map<String, Object> configs, final String key, final long defaultValue) {
+        final Object value = configs.get(key);
+        return value != null ? Long.parseLong(value.toString()) : defaultValue;
+    }
+
+    private static double doubleConfig(final Map<String, Object> configs, final String key, final double defaultValue) {
+        final Object value = configs.get(key);
+        return value != null ? Double.parseDouble(value.toString()) : defaultValue;
+    }
+}
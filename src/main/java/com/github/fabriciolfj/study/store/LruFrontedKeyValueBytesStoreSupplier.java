@@ -0,0 +1,41 @@
+package com.github.fabriciolfj.study.store;
+
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.state.KeyValueBytesStoreSupplier;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+/**
+ * Supplier para usar com Stores.keyValueStoreBuilder, envolvendo o supplier
+ * persistente (RocksDB) com o {@link LruFrontedKeyValueStore}.
+ *
+ * Como o front já faz o papel de cache, o builder deve ser usado com
+ * withCachingDisabled() para não empilhar o ThreadCache do Kafka Streams.
+ */
+public class LruFrontedKeyValueBytesStoreSupplier implements KeyValueBytesStoreSupplier {
+
+    private final KeyValueBytesStoreSupplier inner;
+    private final long maxBytes;
+
+    public LruFrontedKeyValueBytesStoreSupplier(final KeyValueBytesStoreSupplier inner, final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.inner = inner;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String name() {
+        return inner.name();
+    }
+
+    @Override
+    public KeyValueStore<Bytes, byte[]> get() {
+        return new LruFrontedKeyValueStore(inner.get(), maxBytes);
+    }
+
+    @Override
+    public String metricsScope() {
+        return inner.metricsScope();
+    }
+}
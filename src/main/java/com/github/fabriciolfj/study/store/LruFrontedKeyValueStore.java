@@ -0,0 +1,267 @@
+package com.github.fabriciolfj.study.store;
+
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.StateStore;
+import org.apache.kafka.streams.processor.StateStoreContext;
+import org.apache.kafka.streams.query.Position;
+import org.apache.kafka.streams.query.PositionBound;
+import org.apache.kafka.streams.query.Query;
+import org.apache.kafka.streams.query.QueryConfig;
+import org.apache.kafka.streams.query.QueryResult;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Store em memória (heap) na frente do RocksDB para valores double.
+ *
+ * - Leituras/escritas quentes ficam num LinkedHashMap em ordem de acesso (LRU),
+ *   com o valor guardado como double primitivo (sem Double nem byte[] por entrada)
+ * - Escritas são write-behind: só vão para o RocksDB no flush (commit) ou na evicção
+ * - O orçamento de memória é estimado por entrada (chave + overhead fixo)
+ *
+ * Range/all descarregam as entradas sujas antes de delegar para o store interno,
+ * assim a ordenação e o iterador continuam sendo os do RocksDB.
+ */
+public class LruFrontedKeyValueStore implements KeyValueStore<Bytes, byte[]> {
+
+    // objeto Entry + nó do LinkedHashMap + wrapper Bytes
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+    private static final int DOUBLE_SIZE = Double.BYTES;
+
+    private final KeyValueStore<Bytes, byte[]> inner;
+    private final long maxBytes;
+    private final LinkedHashMap<Bytes, Entry> front = new LinkedHashMap<>(1024, 0.75f, true);
+    private long currentBytes;
+
+    public LruFrontedKeyValueStore(final KeyValueStore<Bytes, byte[]> inner, final long maxBytes) {
+        this.inner = inner;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String name() {
+        return inner.name();
+    }
+
+    @Override
+    public void init(final StateStoreContext context, final StateStore root) {
+        inner.init(context, root);
+    }
+
+    @Override
+    public void put(final Bytes key, final byte[] value) {
+        var entry = front.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            front.put(key, entry);
+            currentBytes += sizeOf(key);
+        }
+
+        if (value == null) {
+            entry.deleted = true;
+        } else {
+            entry.deleted = false;
+            entry.value = decode(value);
+        }
+        entry.dirty = true;
+
+        evictIfNeeded();
+    }
+
+    @Override
+    public byte[] putIfAbsent(final Bytes key, final byte[] value) {
+        final byte[] current = get(key);
+        if (current == null) {
+            put(key, value);
+        }
+        return current;
+    }
+
+    @Override
+    public void putAll(final List<KeyValue<Bytes, byte[]>> entries) {
+        for (KeyValue<Bytes, byte[]> entry : entries) {
+            put(entry.key, entry.value);
+        }
+    }
+
+    @Override
+    public byte[] delete(final Bytes key) {
+        final byte[] current = get(key);
+        put(key, null);
+        return current;
+    }
+
+    @Override
+    public byte[] get(final Bytes key) {
+        var entry = front.get(key);
+        if (entry != null) {
+            return entry.deleted ? null : encode(entry.value);
+        }
+
+        final byte[] stored = inner.get(key);
+        if (stored == null) {
+            return null;
+        }
+
+        // miss: traz para o front como entrada limpa
+        entry = new Entry();
+        entry.value = decode(stored);
+        front.put(key, entry);
+        currentBytes += sizeOf(key);
+        evictIfNeeded();
+
+        return stored;
+    }
+
+    @Override
+    public KeyValueIterator<Bytes, byte[]> range(final Bytes from, final Bytes to) {
+        flushDirty();
+        return inner.range(from, to);
+    }
+
+    @Override
+    public KeyValueIterator<Bytes, byte[]> reverseRange(final Bytes from, final Bytes to) {
+        flushDirty();
+        return inner.reverseRange(from, to);
+    }
+
+    @Override
+    public KeyValueIterator<Bytes, byte[]> all() {
+        flushDirty();
+        return inner.all();
+    }
+
+    @Override
+    public KeyValueIterator<Bytes, byte[]> reverseAll() {
+        flushDirty();
+        return inner.reverseAll();
+    }
+
+    @Override
+    public <PS extends Serializer<P>, P> KeyValueIterator<Bytes, byte[]> prefixScan(
+            final P prefix, final PS prefixKeySerializer) {
+        flushDirty();
+        return inner.prefixScan(prefix, prefixKeySerializer);
+    }
+
+    @Override
+    public long approximateNumEntries() {
+        flushDirty();
+        return inner.approximateNumEntries();
+    }
+
+    @Override
+    public void flush() {
+        flushDirty();
+        inner.flush();
+    }
+
+    @Override
+    public void close() {
+        flushDirty();
+        front.clear();
+        currentBytes = 0;
+        inner.close();
+    }
+
+    @Override
+    public boolean persistent() {
+        return inner.persistent();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return inner.isOpen();
+    }
+
+    @Override
+    public <R> QueryResult<R> query(final Query<R> query, final PositionBound positionBound, final QueryConfig config) {
+        flushDirty();
+        return inner.query(query, positionBound, config);
+    }
+
+    @Override
+    public Position getPosition() {
+        return inner.getPosition();
+    }
+
+    public long currentBytes() {
+        return currentBytes;
+    }
+
+    public int frontSize() {
+        return front.size();
+    }
+
+    private void flushDirty() {
+        final List<KeyValue<Bytes, byte[]>> batch = new ArrayList<>();
+        final Iterator<Map.Entry<Bytes, Entry>> it = front.entrySet().iterator();
+        while (it.hasNext()) {
+            var e = it.next();
+            var entry = e.getValue();
+            if (!entry.dirty) {
+                continue;
+            }
+
+            batch.add(KeyValue.pair(e.getKey(), entry.deleted ? null : encode(entry.value)));
+            entry.dirty = false;
+
+            // tombstone já persistido não precisa ocupar o front
+            if (entry.deleted) {
+                currentBytes -= sizeOf(e.getKey());
+                it.remove();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            inner.putAll(batch);
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (currentBytes <= maxBytes) {
+            return;
+        }
+
+        final Iterator<Map.Entry<Bytes, Entry>> it = front.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            var eldest = it.next();
+            var entry = eldest.getValue();
+            if (entry.dirty) {
+                inner.put(eldest.getKey(), entry.deleted ? null : encode(entry.value));
+            }
+            currentBytes -= sizeOf(eldest.getKey());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(final Bytes key) {
+        return key.get().length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static double decode(final byte[] value) {
+        if (value.length != DOUBLE_SIZE) {
+            throw new IllegalArgumentException("LruFrontedKeyValueStore only supports 8-byte double values, got " + value.length);
+        }
+        return ByteBuffer.wrap(value).getDouble();
+    }
+
+    private static byte[] encode(final double value) {
+        return ByteBuffer.allocate(DOUBLE_SIZE).putDouble(value).array();
+    }
+
+    private static final class Entry {
+        private double value;
+        private boolean dirty;
+        private boolean deleted;
+    }
+}
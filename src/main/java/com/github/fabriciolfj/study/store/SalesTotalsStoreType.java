@@ -0,0 +1,14 @@
+package com.github.fabriciolfj.study.store;
+
+/**
+ * Opções de state store para o "sales-totals" do SalesProcessor.
+ */
+public enum SalesTotalsStoreType {
+
+    // RocksDB puro, cada get/put passa pelo JNI
+    ROCKSDB,
+    // RocksDB com o ThreadCache padrão do Kafka Streams
+    CACHED,
+    // RocksDB com o LruFrontedKeyValueStore na frente (write-behind no commit)
+    LRU_FRONTED
+}
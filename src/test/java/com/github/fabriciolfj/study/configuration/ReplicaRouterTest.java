@@ -0,0 +1,197 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duas réplicas H2 em modo PostgreSQL fazendo o papel de Postgres: as funções de
+ * replicação (pg_is_in_recovery, pg_last_xact_replay_timestamp, pg_last_wal_*_lsn) são
+ * aliases para ReplicaStandIn, que devolve o estado configurado por banco.
+ */
+class ReplicaRouterTest {
+
+    private HikariDataSource replicaA;
+    private HikariDataSource replicaB;
+    private ReplicaTarget targetA;
+    private ReplicaTarget targetB;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        replicaA = standIn("replica_a");
+        replicaB = standIn("replica_b");
+        targetA = new ReplicaTarget("replica-a", replicaA, 1, false);
+        targetB = new ReplicaTarget("replica-b", replicaB, 1, false);
+        monitor = new ReplicaLagMonitor(List.of(targetA, targetB), Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.close();
+        monitor.close();
+        replicaA.close();
+        replicaB.close();
+        ReplicaStandIn.STATES.clear();
+    }
+
+    @Test
+    void balancesBetweenCaughtUpReplicas() {
+        checkAll();
+        var router = router(ReplicaRoutingProperties.Balancing.WEIGHTED);
+
+        Map<String, Integer> routes = route(router, 1_000);
+
+        assertThat(routes).containsOnlyKeys("replica-a", "replica-b");
+        assertThat(routes.get("replica-a")).isBetween(350, 650);
+    }
+
+    @Test
+    void skipsReplicaAboveMaxLag() {
+        ReplicaStandIn.state("replica_b").lagging(Duration.ofSeconds(30));
+        checkAll();
+        var router = router(ReplicaRoutingProperties.Balancing.WEIGHTED);
+
+        assertThat(targetB.lagSeconds()).isGreaterThanOrEqualTo(29.0);
+        assertThat(route(router, 200)).containsOnlyKeys("replica-a");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaQualifies() {
+        ReplicaStandIn.state("replica_a").lagging(Duration.ofSeconds(30));
+        ReplicaStandIn.state("replica_b").lagging(Duration.ofSeconds(30));
+        checkAll();
+
+        assertThat(router(ReplicaRoutingProperties.Balancing.WEIGHTED).route()).isEqualTo(ReplicaRouter.PRIMARY);
+    }
+
+    @Test
+    void unreachableOrUnmeasuredReplicaIsOutOfRotation() {
+        var router = router(ReplicaRoutingProperties.Balancing.WEIGHTED);
+        assertThat(router.route()).isEqualTo(ReplicaRouter.PRIMARY);
+
+        checkAll();
+        replicaB.close();
+        monitor.check(targetB);
+
+        assertThat(targetB.isHealthy()).isFalse();
+        assertThat(route(router, 100)).containsOnlyKeys("replica-a");
+    }
+
+    @Test
+    void readYourWritesWaitsForReplicaToReplayTheWrite() throws InterruptedException {
+        checkAll();
+        var router = router(ReplicaRoutingProperties.Balancing.WEIGHTED);
+
+        ReadYourWrites.open(null, at -> { });
+        Thread.sleep(5);
+        ReadYourWrites.markWrite(Instant.now());
+        assertThat(router.route()).isEqualTo(ReplicaRouter.PRIMARY);
+
+        checkAll();
+        assertThat(router.route()).isIn("replica-a", "replica-b");
+    }
+
+    @Test
+    void leastConnectionsPrefersIdleReplica() throws SQLException {
+        checkAll();
+        var router = router(ReplicaRoutingProperties.Balancing.LEAST_CONNECTIONS);
+
+        try (Connection busy = replicaA.getConnection()) {
+            assertThat(route(router, 50)).containsOnlyKeys("replica-b");
+        }
+    }
+
+    private ReplicaRouter router(final ReplicaRoutingProperties.Balancing balancing) {
+        var properties = new ReplicaRoutingProperties();
+        properties.setBalancing(balancing);
+        properties.setMaxLag(Duration.ofSeconds(5));
+        return new ReplicaRouter(List.of(targetA, targetB), properties, new SimpleMeterRegistry());
+    }
+
+    private void checkAll() {
+        monitor.check(targetA);
+        monitor.check(targetB);
+    }
+
+    private Map<String, Integer> route(final ReplicaRouter router, final int times) {
+        Map<String, Integer> routes = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            routes.merge(router.route(), 1, Integer::sum);
+        }
+        return routes;
+    }
+
+    private HikariDataSource standIn(final String name) throws SQLException {
+        var dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        ReplicaStandIn.state(name);
+
+        String standIn = ReplicaStandIn.class.getName();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create alias if not exists pg_is_in_recovery for '" + standIn + ".inRecovery'");
+            statement.execute("create alias if not exists pg_last_xact_replay_timestamp for '" + standIn + ".replayTimestamp'");
+            statement.execute("create alias if not exists pg_last_wal_receive_lsn for '" + standIn + ".receiveLsn'");
+            statement.execute("create alias if not exists pg_last_wal_replay_lsn for '" + standIn + ".replayLsn'");
+        }
+        return dataSource;
+    }
+
+    /**
+     * Estado de replicação de cada stand-in, pelo nome do banco na URL da conexão.
+     * Padrão: réplica em recovery que já aplicou tudo o que recebeu (lag 0).
+     */
+    public static class ReplicaStandIn {
+
+        static final Map<String, ReplicaStandIn> STATES = new ConcurrentHashMap<>();
+
+        private volatile Duration lag = Duration.ZERO;
+
+        static ReplicaStandIn state(final String database) {
+            return STATES.computeIfAbsent(database, name -> new ReplicaStandIn());
+        }
+
+        void lagging(final Duration lag) {
+            this.lag = lag;
+        }
+
+        public static boolean inRecovery(final Connection connection) {
+            return true;
+        }
+
+        public static Timestamp replayTimestamp(final Connection connection) throws SQLException {
+            return Timestamp.from(Instant.now().minus(of(connection).lag));
+        }
+
+        public static String receiveLsn(final Connection connection) {
+            return "0/3000000";
+        }
+
+        public static String replayLsn(final Connection connection) throws SQLException {
+            return of(connection).lag.isZero() ? "0/3000000" : "0/2000000";
+        }
+
+        private static ReplicaStandIn of(final Connection connection) throws SQLException {
+            String url = connection.getMetaData().getURL();
+            String database = url.substring("jdbc:h2:mem:".length()).split(";")[0];
+            return state(database);
+        }
+    }
+}
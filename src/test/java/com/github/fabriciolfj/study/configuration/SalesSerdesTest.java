@@ -0,0 +1,49 @@
+package com.github.fabriciolfj.study.configuration;
+
+import com.github.fabriciolfj.study.entity.SalesAggregator;
+import org.apache.kafka.common.serialization.Serde;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O serde do SalesAggregator é o valor do repartition sales-by-user, do store de totais e
+ * do buffer de pré-agregação: precisa ler o que ele mesmo grava.
+ */
+class SalesSerdesTest {
+
+    private final Serde<SalesAggregator> serde = SalesSerdes.salesAggregator();
+
+    @Test
+    void salesAggregatorRoundTrips() {
+        var aggregator = SalesAggregator.builder()
+                .addSale(10.0, 1_000)
+                .addSale(30.0, 3_000)
+                .build();
+
+        byte[] bytes = serde.serializer().serialize("sales-by-user", aggregator);
+        var read = serde.deserializer().deserialize("sales-by-user", bytes);
+
+        assertThat(read).isEqualTo(aggregator);
+        assertThat(read.getAverage()).isEqualTo(20.0);
+        assertThat(new String(bytes, StandardCharsets.UTF_8))
+                .doesNotContain("average", "salesRate", "variance", "range", "empty");
+    }
+
+    @Test
+    void readsAggregatorsWrittenWithDerivedMetrics() {
+        var json = """
+                {"total_amount":40.0,"count":2,"min_amount":10.0,"max_amount":30.0,
+                 "first_sale_timestamp":1000,"last_sale_timestamp":3000,
+                 "average":20.0,"salesRate":1.0,"variance":100.0,"range":20.0,"empty":false}
+                """;
+
+        var read = serde.deserializer().deserialize("sales-by-user", json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(read.getTotalAmount()).isEqualTo(40.0);
+        assertThat(read.getCount()).isEqualTo(2);
+        assertThat(read.getRange()).isEqualTo(20.0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.fabriciolfj.study.groupcommit;
+
+import com.github.fabriciolfj.study.configuration.ReadYourWrites;
+import com.github.fabriciolfj.study.entity.Car;
+import com.github.fabriciolfj.study.repositories.CarRepository;
+import com.github.fabriciolfj.study.service.CarsService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Group commit de Car (id IDENTITY) num H2: a tabela exige name, então um Car sem nome faz
+ * o lote inteiro voltar e o batcher regrava item a item.
+ */
+class GroupCommitBatcherTest {
+
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean factory;
+    private GroupCommitBatcher<Car> batcher;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:group_commit;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute("create table if not exists cars ("
+                + "id bigint generated by default as identity primary key, name varchar(255) not null)");
+
+        factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setManagedTypes(PersistenceManagedTypes.of(Car.class.getName()));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factory.getObject();
+
+        CarRepository repository = new JpaRepositoryFactory(
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(CarRepository.class);
+        var carsService = new CarsService(repository);
+        var transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+
+        // lote de 3 com espera longa: os três submits entram no mesmo flush
+        var settings = new GroupCommitSettings(true, 3, Duration.ofSeconds(5), 10, 1);
+        batcher = new GroupCommitBatcher<>("car",
+                cars -> transactions.execute(status -> carsService.createAll(cars)), settings, null);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.close();
+        factory.destroy();
+        new JdbcTemplate(dataSource).execute("drop table cars");
+        dataSource.close();
+    }
+
+    @Test
+    void failedBatchIsRetriedItemByItemAndOnlyTheInvalidRowFails() {
+        CompletableFuture<Car> first = batcher.submit(car("gol"));
+        CompletableFuture<Car> invalid = batcher.submit(car(null));
+        CompletableFuture<Car> last = batcher.submit(car("uno"));
+
+        assertThat(first.join().getId()).isNotNull();
+        assertThat(last.join().getId()).isNotNull();
+        assertThatThrownBy(invalid::join).isInstanceOf(CompletionException.class);
+
+        List<String> names = new JdbcTemplate(dataSource).queryForList("select name from cars order by id", String.class);
+        assertThat(names).containsExactly("gol", "uno");
+    }
+
+    @Test
+    void callerEntitiesAreNotTouchedByTheRolledBackInsert() {
+        Car valid = car("gol");
+        CompletableFuture<Car> written = batcher.submit(valid);
+        CompletableFuture<Car> invalid = batcher.submit(car(null));
+        batcher.submit(car("uno"));
+
+        assertThatThrownBy(invalid::join).isInstanceOf(CompletionException.class);
+        assertThat(written.join().getId()).isNotNull();
+        assertThat(valid.getId()).isNull();
+    }
+
+    @Test
+    void writeMarksTheCommitOnTheCallerReadYourWritesSession() {
+        List<Instant> marked = new ArrayList<>();
+        ReadYourWrites.open(null, marked::add);
+        try {
+            batcher.submit(car("gol"));
+            batcher.submit(car("uno"));
+            batcher.write(car("palio"));
+
+            // um mark por escrita confirmada; o do write é o último, na thread da requisição
+            assertThat(marked).hasSize(3);
+            assertThat(ReadYourWrites.lastWrite()).isEqualTo(marked.getLast());
+        } finally {
+            ReadYourWrites.close();
+        }
+    }
+
+    private static Car car(final String name) {
+        var car = new Car();
+        car.setName(name);
+        return car;
+    }
+}